@@ -0,0 +1,118 @@
+package com.gascorocora.bpmn.benchmarks;
+
+import com.example.demo.delegate.ActivarServicioDelegate;
+import com.example.demo.delegate.GuardarSolicitudDelegate;
+import com.example.demo.delegate.RegistrarClienteDelegate;
+import com.example.demo.delegate.RegistrarPagoDelegate;
+import com.example.demo.service.ConectorTransaccional;
+import com.sun.net.httpserver.HttpServer;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+import org.camunda.connect.plugin.impl.ConnectProcessEnginePlugin;
+import org.camunda.spin.plugin.impl.SpinProcessEnginePlugin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia por instancia de las cuatro tareas que llaman a transactional-service: la versión
+ * con http-connector y scripts JavaScript (GraalVM + Spin) frente a los delegados Java. Cada
+ * instancia recorre las cuatro tareas contra un servidor local con respuestas fijas, sobre
+ * un motor Camunda en memoria sin historial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConectoresBenchmark {
+
+    @Param({"script", "java"})
+    public String variante;
+
+    private HttpServer servidor;
+    private ProcessEngine motor;
+    private RuntimeService runtimeService;
+    private Map<String, Object> variables;
+    private long contador;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        servidor = ServicioTransaccionalSimulado.iniciar();
+        String url = "http://localhost:" + servidor.getAddress().getPort();
+        ConectorTransaccional conector = new ConectorTransaccional(url, 10_000);
+
+        Map<Object, Object> beans = new HashMap<>();
+        beans.put("guardarSolicitudDelegate", new GuardarSolicitudDelegate(conector));
+        beans.put("registrarClienteDelegate", new RegistrarClienteDelegate(conector));
+        beans.put("registrarPagoDelegate", new RegistrarPagoDelegate(conector));
+        beans.put("activarServicioDelegate", new ActivarServicioDelegate(conector));
+
+        StandaloneInMemProcessEngineConfiguration configuracion = new StandaloneInMemProcessEngineConfiguration();
+        configuracion.setJdbcUrl("jdbc:h2:mem:conectores-" + variante + ";DB_CLOSE_DELAY=-1");
+        configuracion.setHistory(ProcessEngineConfiguration.HISTORY_NONE);
+        configuracion.setJobExecutorActivate(false);
+        configuracion.setProcessEnginePlugins(new ArrayList<>(List.of(
+                new ConnectProcessEnginePlugin(), new SpinProcessEnginePlugin())));
+        configuracion.setBeans(beans);
+        motor = configuracion.buildProcessEngine();
+        runtimeService = motor.getRuntimeService();
+
+        String recurso = "conectores-" + variante + ".bpmn";
+        String bpmn;
+        try (InputStream entrada = getClass().getResourceAsStream("/" + recurso)) {
+            bpmn = new String(entrada.readAllBytes(), StandardCharsets.UTF_8).replace("URL_BASE", url);
+        }
+        motor.getRepositoryService().createDeployment().addString(recurso, bpmn).deploy();
+
+        variables = new HashMap<>();
+        variables.put("nombre", "María Fernanda");
+        variables.put("apellido", "Peña");
+        variables.put("cedulaCliente", "1000123456");
+        variables.put("cedula_cliente", "1000123456");
+        variables.put("direccion", "Calle 37 # 29-45 Barrio Barzal");
+        variables.put("ciudad", "Villavicencio");
+        variables.put("telefono", "3101234567");
+        variables.put("cliente_email", "maria.pena@correo.com");
+        variables.put("estrato", "3");
+        variables.put("monto_recibido", 539647.31);
+        variables.put("metodo_pago", "PSE");
+        variables.put("numero_transaccion", "TX-98765432");
+        variables.put("fecha_pago", "2025-01-15T10:00:00");
+        variables.put("comprobante_url", "https://comprobantes.gascorocora.co/TX-98765432.pdf");
+        variables.put("observaciones_pago", "Pago recibido sin novedad");
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        motor.close();
+        servidor.stop(0);
+    }
+
+    @Benchmark
+    public String instancia() {
+        return runtimeService.startProcessInstanceByKey("Conectores", "BENCH-" + contador++, variables).getId();
+    }
+}
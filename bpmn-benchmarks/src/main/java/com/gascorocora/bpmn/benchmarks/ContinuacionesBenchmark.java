@@ -0,0 +1,114 @@
+package com.gascorocora.bpmn.benchmarks;
+
+import com.example.demo.config.PoliticaJobs;
+import com.example.demo.delegate.ActivarServicioDelegate;
+import com.example.demo.delegate.RegistrarPagoDelegate;
+import com.example.demo.service.ConectorTransaccional;
+import com.sun.net.httpserver.HttpServer;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia de completar "Recibir pago de instalación" cuando transactional-service responde
+ * con retardo. En la variante síncrona el registro del pago y la activación corren dentro de
+ * la transacción de la tarea; en la asíncrona quedan como jobs y la latencia no debería
+ * depender del retardo. Al cerrar se imprime cuántos jobs quedaron por ejecutar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContinuacionesBenchmark {
+
+    @Param({"sincrono", "asincrono"})
+    public String variante;
+
+    @Param({"0", "250"})
+    public long retardoMs;
+
+    private HttpServer servidor;
+    private ProcessEngine motor;
+    private RuntimeService runtimeService;
+    private TaskService taskService;
+    private Map<String, Object> variables;
+    private String tareaId;
+    private long contador;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        servidor = ServicioTransaccionalSimulado.iniciar(retardoMs);
+        String url = "http://localhost:" + servidor.getAddress().getPort();
+        ConectorTransaccional conector = new ConectorTransaccional(url, 10_000);
+
+        Map<Object, Object> beans = new HashMap<>();
+        beans.put("registrarPagoDelegate", new RegistrarPagoDelegate(conector));
+        beans.put("activarServicioDelegate", new ActivarServicioDelegate(conector));
+        beans.put("politicaJobs", new PoliticaJobs("PT1S,PT5S", 40, 60, 100, 80));
+
+        StandaloneInMemProcessEngineConfiguration configuracion = new StandaloneInMemProcessEngineConfiguration();
+        configuracion.setJdbcUrl("jdbc:h2:mem:continuaciones-" + variante + "-" + retardoMs + ";DB_CLOSE_DELAY=-1");
+        configuracion.setHistory(ProcessEngineConfiguration.HISTORY_NONE);
+        configuracion.setJobExecutorActivate("asincrono".equals(variante));
+        configuracion.setJobExecutorAcquireByPriority(true);
+        configuracion.setBeans(beans);
+        motor = configuracion.buildProcessEngine();
+        runtimeService = motor.getRuntimeService();
+        taskService = motor.getTaskService();
+        motor.getRepositoryService().createDeployment()
+                .addClasspathResource("continuaciones-" + variante + ".bpmn")
+                .deploy();
+
+        variables = new HashMap<>();
+        variables.put("cedulaCliente", "1000123456");
+        variables.put("cedula_cliente", "1000123456");
+        variables.put("monto_recibido", 539647.31);
+        variables.put("metodo_pago", "PSE");
+        variables.put("numero_transaccion", "TX-98765432");
+        variables.put("fecha_pago", "2025-01-15T10:00:00");
+        variables.put("comprobante_url", "https://comprobantes.gascorocora.co/TX-98765432.pdf");
+        variables.put("observaciones_pago", "Pago recibido sin novedad");
+    }
+
+    @Setup(Level.Invocation)
+    public void crearTarea() {
+        String instanciaId = runtimeService
+                .startProcessInstanceByKey("Continuaciones", "BENCH-" + contador++, variables)
+                .getId();
+        tareaId = taskService.createTaskQuery().processInstanceId(instanciaId).singleResult().getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        System.out.printf("[jobs] pendientes al cerrar: %d%n", motor.getManagementService().createJobQuery().count());
+        motor.close();
+        servidor.stop(0);
+    }
+
+    @Benchmark
+    public void completarTarea() {
+        taskService.complete(tareaId);
+    }
+}
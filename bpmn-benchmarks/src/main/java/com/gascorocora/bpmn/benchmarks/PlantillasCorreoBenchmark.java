@@ -0,0 +1,142 @@
+package com.gascorocora.bpmn.benchmarks;
+
+import com.example.demo.service.PlantillasCorreo;
+import com.example.demo.service.TipoNotificacion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renderizado de 100.000 notificaciones repartidas entre los seis tipos: los
+ * {@code String.format} que usaba {@code EmailService} frente al registro de plantillas
+ * Thymeleaf precompiladas. El resultado es en correos por segundo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PlantillasCorreoBenchmark {
+
+    private static final int CORREOS = 100_000;
+    private static final int SOLICITUDES = 1_024;
+    private static final TipoNotificacion[] TIPOS = TipoNotificacion.values();
+
+    @Param({"format", "plantillas"})
+    public String variante;
+
+    private PlantillasCorreo plantillas;
+    private List<Map<String, Object>> variables;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        plantillas = new PlantillasCorreo("es-CO");
+        variables = new ArrayList<>(SOLICITUDES);
+        for (int i = 0; i < SOLICITUDES; i++) {
+            Map<String, Object> solicitud = new HashMap<>();
+            solicitud.put("solicitudId", "SOL-2025-" + (10_000 + i));
+            solicitud.put("montoConexion", 450_000.0 + i * 137.5);
+            solicitud.put("descuento", (double) (i % 6) * 10);
+            solicitud.put("montoAPagar", (450_000.0 + i * 137.5) * (1 - (i % 6) / 10.0));
+            solicitud.put("problemas", "Fuga en la unión del medidor; regulador sin sello (visita " + i + ")");
+            solicitud.put("numeroMedidor", "MED-" + (700_000 + i));
+            variables.add(solicitud);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CORREOS)
+    public long renderizar() {
+        boolean conPlantillas = "plantillas".equals(variante);
+        long caracteres = 0;
+        for (int i = 0; i < CORREOS; i++) {
+            TipoNotificacion tipo = TIPOS[i % TIPOS.length];
+            Map<String, Object> solicitud = variables.get(i % SOLICITUDES);
+            if (conPlantillas) {
+                PlantillasCorreo.CorreoRenderizado correo = plantillas.renderizar(tipo, solicitud);
+                caracteres += correo.asunto().length() + correo.cuerpo().length();
+            } else {
+                caracteres += formatear(tipo, solicitud).length();
+            }
+        }
+        return caracteres;
+    }
+
+    /**
+     * Cuerpos tal como los construía {@code EmailService} antes del registro de plantillas.
+     */
+    private static String formatear(TipoNotificacion tipo, Map<String, Object> v) {
+        return switch (tipo) {
+            case SOLICITUD_INVIABLE -> "Gas Corocora - Solicitud Inviable" + String.format(
+                    "Estimado cliente,\n\n" +
+                    "Lamentamos informarle que su solicitud de conexión #%s no puede ser procesada " +
+                    "debido a que la zona solicitada no cuenta con red de gas disponible.\n\n" +
+                    "Para más información, puede contactarnos.\n\n" +
+                    "Atentamente,\n" +
+                    "Gas Corocora - Área Técnica",
+                    v.get("solicitudId"));
+            case COTIZACION -> "Gas Corocora - Cotización de Instalación" + String.format(
+                    "Estimado cliente,\n\n" +
+                    "Nos complace enviarle la cotización para la instalación de gas:\n\n" +
+                    "Solicitud: %s\n" +
+                    "Costo de conexión: $%.2f\n" +
+                    "Descuento aplicado: %.0f%%\n" +
+                    "Total a pagar: $%.2f\n\n" +
+                    "Esta cotización es válida por 5 días hábiles.\n\n" +
+                    "Para continuar con el proceso, debe confirmar su aceptación y realizar el pago.\n\n" +
+                    "Atentamente,\n" +
+                    "Gas Corocora - Área Comercial",
+                    v.get("solicitudId"), v.get("montoConexion"), v.get("descuento"), v.get("montoAPagar"));
+            case SOLICITUD_CANCELADA -> "Gas Corocora - Solicitud Cancelada" + String.format(
+                    "Estimado cliente,\n\n" +
+                    "Su solicitud de conexión #%s ha sido cancelada por falta de respuesta " +
+                    "dentro del plazo establecido de 5 días.\n\n" +
+                    "Si desea reiniciar el proceso, puede realizar una nueva solicitud.\n\n" +
+                    "Atentamente,\n" +
+                    "Gas Corocora",
+                    v.get("solicitudId"));
+            case PROBLEMAS_INSTALACION -> "Gas Corocora - Problemas en Instalación" + String.format(
+                    "Estimado cliente,\n\n" +
+                    "Durante la verificación de su instalación #%s se detectaron los siguientes problemas:\n\n" +
+                    "%s\n\n" +
+                    "Nuestro equipo técnico se pondrá en contacto para resolverlos.\n\n" +
+                    "Atentamente,\n" +
+                    "Gas Corocora - Área Técnica",
+                    v.get("solicitudId"), v.get("problemas"));
+            case SERVICIO_ACTIVADO -> "Gas Corocora - Servicio Activado" + String.format(
+                    "Estimado cliente,\n\n" +
+                    "¡Felicitaciones! Su servicio de gas ha sido activado exitosamente.\n\n" +
+                    "Solicitud: %s\n" +
+                    "Número de medidor: %s\n\n" +
+                    "En breve recibirá su primera factura.\n\n" +
+                    "Atentamente,\n" +
+                    "Gas Corocora - Área de Facturación",
+                    v.get("solicitudId"), v.get("numeroMedidor"));
+            case FACTURACION_INICIADA -> "Gas Corocora - Facturación Iniciada" + String.format(
+                    "Estimado cliente,\n\n" +
+                    "Su servicio de gas ha sido habilitado para facturación.\n\n" +
+                    "Solicitud: %s\n\n" +
+                    "Recibirá su factura mensualmente según el ciclo de facturación asignado.\n\n" +
+                    "Atentamente,\n" +
+                    "Gas Corocora - Área de Facturación",
+                    v.get("solicitudId"));
+        };
+    }
+}
@@ -0,0 +1,103 @@
+package com.gascorocora.bpmn.benchmarks;
+
+import com.example.demo.script.EstadoScripts;
+import com.example.demo.script.ScriptsCompartidos;
+import com.example.demo.script.ScriptsEnginePlugin;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+import org.camunda.spin.plugin.impl.SpinProcessEnginePlugin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia por instancia de un proceso con dos tareas de script JavaScript (armar el JSON de
+ * la solicitud y {@code Task_LimpiarVariables}): el motor JSR-223 de Graal que Camunda usa por
+ * defecto frente al engine compartido con fuentes y contextos reutilizados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScriptsBenchmark {
+
+    @Param({"graal", "compartido"})
+    public String motorScripts;
+
+    private ScriptsCompartidos scripts;
+    private ProcessEngine motor;
+    private RuntimeService runtimeService;
+    private Map<String, Object> variables;
+    private long contador;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        List<ProcessEnginePlugin> plugins = new ArrayList<>(List.of(new SpinProcessEnginePlugin()));
+        if ("compartido".equals(motorScripts)) {
+            scripts = new ScriptsCompartidos();
+            plugins.add(new ScriptsEnginePlugin(scripts, true));
+        }
+
+        StandaloneInMemProcessEngineConfiguration configuracion = new StandaloneInMemProcessEngineConfiguration();
+        configuracion.setJdbcUrl("jdbc:h2:mem:scripts-" + motorScripts + ";DB_CLOSE_DELAY=-1");
+        configuracion.setHistory(ProcessEngineConfiguration.HISTORY_NONE);
+        configuracion.setJobExecutorActivate(false);
+        configuracion.setProcessEnginePlugins(plugins);
+        motor = configuracion.buildProcessEngine();
+        runtimeService = motor.getRuntimeService();
+        motor.getRepositoryService().createDeployment().addClasspathResource("scripts.bpmn").deploy();
+
+        variables = new HashMap<>();
+        variables.put("nombre", "María Fernanda");
+        variables.put("apellido", "Peña");
+        variables.put("cedulaCliente", "1000123456");
+        variables.put("direccion", "Calle 37 # 29-45 Barrio Barzal");
+        variables.put("telefono", "3101234567");
+        variables.put("cliente_email", "maria.pena@correo.com");
+        variables.put("estrato", "3");
+        variables.put("fecha_inspeccion", "2025-01-20T08:00:00");
+        variables.put("observaciones_inspeccion", "Acceso por la puerta lateral");
+        variables.put("inspector", "Carlos Rojas");
+        variables.put("red_aprobada", false);
+        variables.put("defectos_encontrados", "Fuga en la unión del medidor");
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        motor.close();
+        if (scripts != null) {
+            EstadoScripts estado = scripts.obtenerEstado();
+            estado.scripts().forEach(metrica -> System.out.printf(
+                    "[scripts] %s… compilaciones=%d (%.1f µs) evaluaciones=%d (%.1f µs)%n",
+                    metrica.hash().substring(0, 12), metrica.compilaciones(), metrica.compilacionMediaMicros(),
+                    metrica.evaluaciones(), metrica.evaluacionMediaMicros()));
+            scripts.cerrar();
+        }
+    }
+
+    @Benchmark
+    public String instancia() {
+        return runtimeService.startProcessInstanceByKey("Scripts", "BENCH-" + contador++, variables).getId();
+    }
+}
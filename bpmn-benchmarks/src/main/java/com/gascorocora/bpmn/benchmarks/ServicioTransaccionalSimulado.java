@@ -0,0 +1,68 @@
+package com.gascorocora.bpmn.benchmarks;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+/**
+ * Servidor HTTP local que responde como transactional-service a las cuatro llamadas del
+ * proceso, con respuestas fijas, para medir solo el costo del lado del motor. Con un retardo
+ * simula un servicio lento.
+ */
+final class ServicioTransaccionalSimulado {
+
+    private static final byte[] SOLICITUD = json(
+            "{\"id\":1,\"businessKey\":\"BENCH\",\"estado\":\"INICIADO\",\"estrato\":3}");
+    private static final byte[] CLIENTE = json(
+            "{\"id\":2,\"cedula\":\"1000123456\",\"nombre\":\"María\",\"ciudad\":\"Villavicencio\",\"estrato\":3,\"activo\":true}");
+    private static final byte[] PAGO = json(
+            "{\"id\":3,\"businessKey\":\"BENCH\",\"estado\":\"PAGADO\",\"numeroServicio\":null,\"fechaActivacion\":null}");
+    private static final byte[] ACTIVACION = json(
+            "{\"id\":3,\"businessKey\":\"BENCH\",\"estado\":\"ACTIVADO\",\"numeroServicio\":\"GC-000123-4567\",\"fechaActivacion\":\"2025-01-15T10:30:00\"}");
+
+    private ServicioTransaccionalSimulado() {
+    }
+
+    static HttpServer iniciar() throws IOException {
+        return iniciar(0);
+    }
+
+    static HttpServer iniciar(long retardoMs) throws IOException {
+        HttpServer servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        servidor.createContext("/api/solicitudes", intercambio -> responder(intercambio, SOLICITUD, retardoMs));
+        servidor.createContext("/api/clientes", intercambio -> responder(intercambio, CLIENTE, retardoMs));
+        servidor.createContext("/api/facturacion/pago", intercambio -> responder(intercambio, PAGO, retardoMs));
+        servidor.createContext("/api/facturacion/activar", intercambio -> responder(intercambio, ACTIVACION, retardoMs));
+        servidor.setExecutor(Executors.newFixedThreadPool(4));
+        servidor.start();
+        return servidor;
+    }
+
+    private static void responder(HttpExchange intercambio, byte[] cuerpo, long retardoMs) throws IOException {
+        try (InputStream entrada = intercambio.getRequestBody()) {
+            entrada.readAllBytes();
+        }
+        if (retardoMs > 0) {
+            try {
+                Thread.sleep(retardoMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        intercambio.getResponseHeaders().add("Content-Type", "application/json");
+        intercambio.sendResponseHeaders(200, cuerpo.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(cuerpo);
+        }
+    }
+
+    private static byte[] json(String texto) {
+        return texto.getBytes(StandardCharsets.UTF_8);
+    }
+}
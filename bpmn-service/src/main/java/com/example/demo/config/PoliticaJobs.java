@@ -0,0 +1,56 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reintentos y prioridades de los jobs asíncronos de las tareas que llaman a
+ * transactional-service. Los BPMN la leen por expresión ({@code ${politicaJobs...}}), así
+ * que se ajusta desde application.properties sin redesplegar los procesos.
+ */
+@Component("politicaJobs")
+public class PoliticaJobs {
+
+    private final String cicloReintentos;
+    private final long prioridadGuardarSolicitud;
+    private final long prioridadRegistrarCliente;
+    private final long prioridadRegistrarPago;
+    private final long prioridadActivarServicio;
+
+    public PoliticaJobs(@Value("${app.jobs.ciclo-reintentos:PT30S,PT2M,PT10M,PT30M,PT1H}") String cicloReintentos,
+                        @Value("${app.jobs.prioridad.guardar-solicitud:40}") long prioridadGuardarSolicitud,
+                        @Value("${app.jobs.prioridad.registrar-cliente:60}") long prioridadRegistrarCliente,
+                        @Value("${app.jobs.prioridad.registrar-pago:100}") long prioridadRegistrarPago,
+                        @Value("${app.jobs.prioridad.activar-servicio:80}") long prioridadActivarServicio) {
+        this.cicloReintentos = cicloReintentos;
+        this.prioridadGuardarSolicitud = prioridadGuardarSolicitud;
+        this.prioridadRegistrarCliente = prioridadRegistrarCliente;
+        this.prioridadRegistrarPago = prioridadRegistrarPago;
+        this.prioridadActivarServicio = prioridadActivarServicio;
+    }
+
+    /**
+     * Esperas entre reintentos de un job fallido, en el formato de Camunda: una lista de
+     * duraciones ISO 8601 ({@code PT30S,PT2M,...}) o un ciclo {@code R5/PT1M}. Al agotarse
+     * se crea un incidente.
+     */
+    public String getCicloReintentos() {
+        return cicloReintentos;
+    }
+
+    public long getPrioridadGuardarSolicitud() {
+        return prioridadGuardarSolicitud;
+    }
+
+    public long getPrioridadRegistrarCliente() {
+        return prioridadRegistrarCliente;
+    }
+
+    public long getPrioridadRegistrarPago() {
+        return prioridadRegistrarPago;
+    }
+
+    public long getPrioridadActivarServicio() {
+        return prioridadActivarServicio;
+    }
+}
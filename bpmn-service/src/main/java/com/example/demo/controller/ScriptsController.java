@@ -0,0 +1,27 @@
+package com.example.demo.controller;
+
+import com.example.demo.script.EstadoScripts;
+import com.example.demo.script.ScriptsCompartidos;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Tiempos de compilación y ejecución de los scripts de los procesos.
+ */
+@RestController
+@RequestMapping("/api/scripts")
+public class ScriptsController {
+
+    private final ScriptsCompartidos scripts;
+
+    public ScriptsController(ScriptsCompartidos scripts) {
+        this.scripts = scripts;
+    }
+
+    @GetMapping("/metricas")
+    public ResponseEntity<EstadoScripts> obtenerMetricas() {
+        return ResponseEntity.ok(scripts.obtenerEstado());
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.demo.delegate;
+
+import com.example.demo.service.ConectorTransaccional;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.JavaDelegate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * "Activar servicio": activa la facturación del servicio (idempotente por instancia de
+ * proceso) y deja numeroServicio y fechaActivacion en el proceso.
+ */
+@Component("activarServicioDelegate")
+public class ActivarServicioDelegate implements JavaDelegate {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ActivarServicioDelegate.class);
+
+    record Activacion(String numeroServicio, String fechaActivacion) {
+    }
+
+    private static final ObjectReader LECTOR = ConectorTransaccional.JSON.readerFor(Activacion.class);
+
+    private final ConectorTransaccional conector;
+
+    public ActivarServicioDelegate(ConectorTransaccional conector) {
+        this.conector = conector;
+    }
+
+    @Override
+    public void execute(DelegateExecution execution) throws Exception {
+        Object cedula = execution.getVariable("cedula_cliente");
+        if (cedula == null) {
+            cedula = execution.getVariable("cedulaCliente");
+        }
+        String ruta = "/api/facturacion/activar?view=summary&businessKey="
+                + ConectorTransaccional.parametro(execution.getProcessBusinessKey())
+                + "&cedulaCliente=" + ConectorTransaccional.parametro(cedula);
+
+        Activacion activacion = conector.post(ruta, null, execution.getProcessInstanceId(), LECTOR);
+        execution.setVariable("numeroServicio", activacion != null ? activacion.numeroServicio() : null);
+        execution.setVariable("fechaActivacion", activacion != null ? activacion.fechaActivacion() : null);
+        LOGGER.info("Servicio activado para {}: {}", execution.getProcessBusinessKey(),
+                activacion != null ? activacion.numeroServicio() : null);
+    }
+}
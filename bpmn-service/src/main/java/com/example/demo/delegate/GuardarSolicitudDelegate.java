@@ -0,0 +1,54 @@
+package com.example.demo.delegate;
+
+import com.example.demo.service.ConectorTransaccional;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.JavaDelegate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * "Guardar solicitud en BD": registra la solicitud en el servicio transaccional y deja su id
+ * en la variable solicitudId. La instancia de proceso va como clave de idempotencia, así que
+ * un reintento del job tras un timeout devuelve la solicitud ya creada en lugar de duplicarla.
+ */
+@Component("guardarSolicitudDelegate")
+public class GuardarSolicitudDelegate implements JavaDelegate {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GuardarSolicitudDelegate.class);
+
+    record Solicitud(String businessKey, String nombreCliente, String cedulaCliente, String direccion,
+                     String telefono, String email, Integer estrato) {
+    }
+
+    private static final ObjectWriter ESCRITOR = ConectorTransaccional.JSON.writerFor(Solicitud.class);
+
+    private final ConectorTransaccional conector;
+
+    public GuardarSolicitudDelegate(ConectorTransaccional conector) {
+        this.conector = conector;
+    }
+
+    @Override
+    public void execute(DelegateExecution execution) throws Exception {
+        Object nombre = execution.getVariable("nombre");
+        Object apellido = execution.getVariable("apellido");
+        String nombreCompleto = apellido == null ? ConectorTransaccional.texto(nombre) : nombre + " " + apellido;
+
+        Solicitud solicitud = new Solicitud(
+                execution.getProcessBusinessKey(),
+                nombreCompleto,
+                ConectorTransaccional.texto(execution.getVariable("cedulaCliente")),
+                ConectorTransaccional.texto(execution.getVariable("direccion")),
+                ConectorTransaccional.texto(execution.getVariable("telefono")),
+                ConectorTransaccional.texto(execution.getVariable("cliente_email")),
+                ConectorTransaccional.entero(execution.getVariable("estrato")));
+
+        ConectorTransaccional.RespuestaId respuesta = conector.post("/api/solicitudes?view=summary",
+                ESCRITOR.writeValueAsBytes(solicitud), execution.getProcessInstanceId(), ConectorTransaccional.LECTOR_ID);
+        Long id = respuesta != null ? respuesta.id() : null;
+        execution.setVariable("solicitudId", id);
+        LOGGER.info("Solicitud {} guardada con id {}", solicitud.businessKey(), id);
+    }
+}
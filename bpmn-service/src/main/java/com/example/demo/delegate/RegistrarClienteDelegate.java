@@ -0,0 +1,48 @@
+package com.example.demo.delegate;
+
+import com.example.demo.service.ConectorTransaccional;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.JavaDelegate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * "Registrar cliente en BD": crea o actualiza el cliente y deja su id en clienteId.
+ */
+@Component("registrarClienteDelegate")
+public class RegistrarClienteDelegate implements JavaDelegate {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RegistrarClienteDelegate.class);
+
+    record Cliente(String cedula, String nombre, String direccion, String ciudad, Integer estrato,
+                   String telefono, String email) {
+    }
+
+    private static final ObjectWriter ESCRITOR = ConectorTransaccional.JSON.writerFor(Cliente.class);
+
+    private final ConectorTransaccional conector;
+
+    public RegistrarClienteDelegate(ConectorTransaccional conector) {
+        this.conector = conector;
+    }
+
+    @Override
+    public void execute(DelegateExecution execution) throws Exception {
+        Cliente cliente = new Cliente(
+                ConectorTransaccional.texto(execution.getVariable("cedulaCliente")),
+                ConectorTransaccional.texto(execution.getVariable("nombre")),
+                ConectorTransaccional.texto(execution.getVariable("direccion")),
+                ConectorTransaccional.texto(execution.getVariable("ciudad")),
+                ConectorTransaccional.entero(execution.getVariable("estrato")),
+                ConectorTransaccional.texto(execution.getVariable("telefono")),
+                ConectorTransaccional.texto(execution.getVariable("cliente_email")));
+
+        ConectorTransaccional.RespuestaId respuesta = conector.post("/api/clientes?view=summary",
+                ESCRITOR.writeValueAsBytes(cliente), null, ConectorTransaccional.LECTOR_ID);
+        Long id = respuesta != null ? respuesta.id() : null;
+        execution.setVariable("clienteId", id);
+        LOGGER.info("Cliente {} registrado con id {}", cliente.cedula(), id);
+    }
+}
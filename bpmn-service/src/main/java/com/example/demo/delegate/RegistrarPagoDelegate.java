@@ -0,0 +1,50 @@
+package com.example.demo.delegate;
+
+import com.example.demo.service.ConectorTransaccional;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.JavaDelegate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * "Registrar pago": registra el pago con la instancia de proceso como clave de idempotencia,
+ * de modo que un reintento del motor no duplica el cobro. Deja el id en facturacionId.
+ */
+@Component("registrarPagoDelegate")
+public class RegistrarPagoDelegate implements JavaDelegate {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RegistrarPagoDelegate.class);
+
+    record Pago(String businessKey, String cedulaCliente, Double montoRecibido, String metodoPago,
+                String numeroTransaccion, String fechaPago, String comprobanteUrl, String observacionesPago) {
+    }
+
+    private static final ObjectWriter ESCRITOR = ConectorTransaccional.JSON.writerFor(Pago.class);
+
+    private final ConectorTransaccional conector;
+
+    public RegistrarPagoDelegate(ConectorTransaccional conector) {
+        this.conector = conector;
+    }
+
+    @Override
+    public void execute(DelegateExecution execution) throws Exception {
+        Pago pago = new Pago(
+                execution.getProcessBusinessKey(),
+                ConectorTransaccional.texto(execution.getVariable("cedulaCliente")),
+                ConectorTransaccional.decimal(execution.getVariable("monto_recibido")),
+                ConectorTransaccional.texto(execution.getVariable("metodo_pago")),
+                ConectorTransaccional.texto(execution.getVariable("numero_transaccion")),
+                ConectorTransaccional.fecha(execution.getVariable("fecha_pago")),
+                ConectorTransaccional.texto(execution.getVariable("comprobante_url")),
+                ConectorTransaccional.texto(execution.getVariable("observaciones_pago")));
+
+        ConectorTransaccional.RespuestaId respuesta = conector.post("/api/facturacion/pago?view=summary",
+                ESCRITOR.writeValueAsBytes(pago), execution.getProcessInstanceId(), ConectorTransaccional.LECTOR_ID);
+        Long id = respuesta != null ? respuesta.id() : null;
+        execution.setVariable("facturacionId", id);
+        LOGGER.info("Pago {} registrado para {} con id {}", pago.numeroTransaccion(), pago.businessKey(), id);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Correo pendiente de envío. Se inserta en la misma transacción que la tarea del proceso que
+ * lo genera, así que solo sale si esa tarea se confirma; el despachador lo envía después.
+ */
+@Entity
+@Table(name = "correos_salientes", indexes = {
+        @Index(name = "idx_correos_salientes_estado", columnList = "estado, proximo_intento")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CorreoSaliente {
+
+    public static final String PENDIENTE = "PENDIENTE";
+    public static final String ENVIANDO = "ENVIANDO";
+    public static final String ENVIADO = "ENVIADO";
+    public static final String FALLIDO = "FALLIDO";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "correos_salientes_seq")
+    @SequenceGenerator(name = "correos_salientes_seq", sequenceName = "correos_salientes_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String destinatario;
+
+    @Column(nullable = false, length = 500)
+    private String asunto;
+
+    @Lob
+    @Column(nullable = false)
+    private String cuerpo;
+
+    @Column(nullable = false)
+    private boolean html;
+
+    @Column(nullable = false, length = 20)
+    private String estado;
+
+    @Column(nullable = false)
+    private int intentos;
+
+    @Column(name = "proximo_intento", nullable = false)
+    private LocalDateTime proximoIntento;
+
+    @Column(name = "ultimo_error", length = 1000)
+    private String ultimoError;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_envio")
+    private LocalDateTime fechaEnvio;
+}
@@ -0,0 +1,29 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.CorreoSaliente;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CorreoSalienteRepository extends JpaRepository<CorreoSaliente, Long> {
+
+    @Query("SELECT c FROM CorreoSaliente c WHERE c.estado = 'PENDIENTE' AND c.proximoIntento <= :ahora " +
+           "ORDER BY c.proximoIntento ASC, c.id ASC")
+    List<CorreoSaliente> findListos(@Param("ahora") LocalDateTime ahora, Pageable pageable);
+
+    // Correos reclamados por un despacho que no terminó (p. ej. por un reinicio)
+    @Modifying
+    @Query("UPDATE CorreoSaliente c SET c.estado = 'PENDIENTE' WHERE c.estado = 'ENVIANDO'")
+    int liberarEnEnvio();
+
+    @Modifying
+    @Query("DELETE FROM CorreoSaliente c WHERE c.estado = 'ENVIADO' AND c.fechaEnvio < :fecha")
+    int eliminarEnviadosAntesDe(@Param("fecha") LocalDateTime fecha);
+}
@@ -0,0 +1,14 @@
+package com.example.demo.script;
+
+import java.util.List;
+
+/**
+ * Estado del engine de scripts compartido y métricas por script, de más a menos ejecutado.
+ */
+public record EstadoScripts(
+        String versionGraal,
+        int fuentesEnCache,
+        long contextosCreados,
+        List<MetricaScript> scripts
+) {
+}
@@ -0,0 +1,100 @@
+package com.example.demo.script;
+
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineFactory;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Fábrica JSR-223 del motor compartido. Se registra con los nombres habituales de JavaScript
+ * para que las tareas con {@code scriptFormat="javascript"} lo usen sin cambiar los BPMN.
+ */
+public class FabricaMotorJavaScript implements ScriptEngineFactory {
+
+    public static final String NOMBRE = "graal.js-compartido";
+
+    private static final List<String> NOMBRES = List.of(NOMBRE, "javascript", "JavaScript", "js");
+
+    private final ScriptsCompartidos scripts;
+    private final MotorJavaScriptCompartido motor;
+
+    public FabricaMotorJavaScript(ScriptsCompartidos scripts) {
+        this.scripts = scripts;
+        this.motor = new MotorJavaScriptCompartido(this, scripts);
+    }
+
+    // Camunda registra la fábrica con este nombre y la busca con scriptEngineNameJavaScript
+    @Override
+    public String getEngineName() {
+        return NOMBRE;
+    }
+
+    @Override
+    public String getEngineVersion() {
+        return scripts.obtenerEstado().versionGraal();
+    }
+
+    @Override
+    public List<String> getExtensions() {
+        return List.of("js");
+    }
+
+    @Override
+    public List<String> getMimeTypes() {
+        return List.of("application/javascript", "text/javascript");
+    }
+
+    @Override
+    public List<String> getNames() {
+        return NOMBRES;
+    }
+
+    // Camunda no compila los scripts cuyo lenguaje se declara como "ECMAScript" (así se
+    // anuncia el motor JSR-223 de Graal), por eso aquí se declara "JavaScript"
+    @Override
+    public String getLanguageName() {
+        return "JavaScript";
+    }
+
+    @Override
+    public String getLanguageVersion() {
+        return "ECMAScript";
+    }
+
+    @Override
+    public Object getParameter(String clave) {
+        return switch (clave) {
+            case ScriptEngine.ENGINE -> getEngineName();
+            case ScriptEngine.ENGINE_VERSION -> getEngineVersion();
+            case ScriptEngine.NAME -> NOMBRE;
+            case ScriptEngine.LANGUAGE -> getLanguageName();
+            case ScriptEngine.LANGUAGE_VERSION -> getLanguageVersion();
+            // Con este parámetro Camunda guarda una sola instancia del motor; el estado por hilo vive en los contextos
+            case "THREADING" -> "MULTITHREADED";
+            default -> null;
+        };
+    }
+
+    @Override
+    public String getMethodCallSyntax(String objeto, String metodo, String... argumentos) {
+        return objeto + "." + metodo + "(" + String.join(", ", argumentos) + ")";
+    }
+
+    @Override
+    public String getOutputStatement(String texto) {
+        return "print(" + texto + ")";
+    }
+
+    @Override
+    public String getProgram(String... sentencias) {
+        return List.of(sentencias).stream().map(s -> s + ";").collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * El motor no guarda estado propio, así que todas las peticiones comparten la misma instancia.
+     */
+    @Override
+    public ScriptEngine getScriptEngine() {
+        return motor;
+    }
+}
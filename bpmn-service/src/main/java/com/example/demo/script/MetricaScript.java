@@ -0,0 +1,17 @@
+package com.example.demo.script;
+
+/**
+ * Tiempos acumulados de un script. Los tiempos medios están en microsegundos; las
+ * compilaciones cuentan cada parseo en un contexto nuevo, no cada ejecución.
+ */
+public record MetricaScript(
+        String hash,
+        String fragmento,
+        boolean aislado,
+        long compilaciones,
+        double compilacionMediaMicros,
+        long evaluaciones,
+        double evaluacionMediaMicros,
+        long errores
+) {
+}
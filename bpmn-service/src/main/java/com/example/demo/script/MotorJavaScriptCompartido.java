@@ -0,0 +1,128 @@
+package com.example.demo.script;
+
+import com.example.demo.script.ScriptsCompartidos.ScriptCompilado;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.SourceSection;
+
+import javax.script.AbstractScriptEngine;
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineFactory;
+import javax.script.ScriptException;
+import javax.script.SimpleBindings;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Adaptador JSR-223 sobre {@link ScriptsCompartidos}, que es la API con la que Camunda
+ * evalúa los scripts. Implementa {@link Compilable} para que Camunda guarde el script
+ * compilado en la definición y no vuelva a pasar el código fuente en cada ejecución.
+ */
+public class MotorJavaScriptCompartido extends AbstractScriptEngine implements Compilable {
+
+    private final FabricaMotorJavaScript fabrica;
+    private final ScriptsCompartidos scripts;
+
+    MotorJavaScriptCompartido(FabricaMotorJavaScript fabrica, ScriptsCompartidos scripts) {
+        this.fabrica = fabrica;
+        this.scripts = scripts;
+    }
+
+    @Override
+    public Object eval(String script, ScriptContext contexto) throws ScriptException {
+        return evaluar(scripts.compilar(script), contexto);
+    }
+
+    @Override
+    public Object eval(Reader lector, ScriptContext contexto) throws ScriptException {
+        return eval(leer(lector), contexto);
+    }
+
+    @Override
+    public CompiledScript compile(String script) {
+        return new ScriptCompiladoJsr(scripts.compilar(script));
+    }
+
+    @Override
+    public CompiledScript compile(Reader lector) throws ScriptException {
+        return compile(leer(lector));
+    }
+
+    @Override
+    public Bindings createBindings() {
+        return new SimpleBindings();
+    }
+
+    @Override
+    public ScriptEngineFactory getFactory() {
+        return fabrica;
+    }
+
+    private Object evaluar(ScriptCompilado script, ScriptContext contexto) throws ScriptException {
+        try {
+            return scripts.evaluar(script, enlaces(contexto));
+        } catch (PolyglotException e) {
+            throw aScriptException(e, script);
+        }
+    }
+
+    private static Map<String, Object> enlaces(ScriptContext contexto) {
+        Bindings motor = contexto.getBindings(ScriptContext.ENGINE_SCOPE);
+        Bindings globales = contexto.getBindings(ScriptContext.GLOBAL_SCOPE);
+        if (globales == null || globales.isEmpty()) {
+            return motor;
+        }
+        Map<String, Object> todos = new HashMap<>(globales);
+        todos.putAll(motor);
+        return todos;
+    }
+
+    private static ScriptException aScriptException(PolyglotException e, ScriptCompilado script) {
+        // Camunda busca la causa original (p. ej. un BpmnError lanzado desde el script)
+        if (e.isHostException() && e.asHostException() instanceof Exception original) {
+            return new ScriptException(original);
+        }
+        SourceSection ubicacion = e.getSourceLocation();
+        ScriptException error = ubicacion == null
+                ? new ScriptException(e.getMessage(), script.fuente().getName(), -1)
+                : new ScriptException(e.getMessage(), script.fuente().getName(),
+                        ubicacion.getStartLine(), ubicacion.getStartColumn());
+        error.initCause(e);
+        return error;
+    }
+
+    private static String leer(Reader lector) throws ScriptException {
+        try {
+            StringWriter codigo = new StringWriter();
+            lector.transferTo(codigo);
+            return codigo.toString();
+        } catch (IOException e) {
+            throw new ScriptException(e);
+        }
+    }
+
+    private final class ScriptCompiladoJsr extends CompiledScript {
+
+        private final ScriptCompilado script;
+
+        ScriptCompiladoJsr(ScriptCompilado script) {
+            this.script = script;
+        }
+
+        @Override
+        public Object eval(ScriptContext contexto) throws ScriptException {
+            return evaluar(script, contexto);
+        }
+
+        @Override
+        public ScriptEngine getEngine() {
+            return MotorJavaScriptCompartido.this;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.demo.script;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.HostAccess;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ejecución de JavaScript sobre un único {@link Engine} de GraalVM compartido por todo el
+ * servicio. Las fuentes se guardan por hash del código, de modo que el engine reutiliza el
+ * árbol ya analizado, y cada hilo conserva su propio {@link Context} con los programas ya
+ * parseados. Tras el calentamiento una tarea de script solo paga la ejecución.
+ *
+ * <p>Un contexto de Graal solo admite un hilo a la vez, por eso el pool es por hilo: los
+ * hilos del job executor y de Tomcat son de larga vida y cada uno crea su contexto una vez.
+ */
+@Component
+public class ScriptsCompartidos {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScriptsCompartidos.class);
+
+    static final String LENGUAJE = "js";
+
+    private static final int LONGITUD_FRAGMENTO = 80;
+
+    private final Engine engine;
+    private final Map<String, ScriptCompilado> fuentes = new ConcurrentHashMap<>();
+    private final Map<String, EstadisticasScript> estadisticas = new ConcurrentHashMap<>();
+    // Scripts con let/const/class de nivel superior: no se pueden repetir en el mismo contexto
+    private final Set<String> aislados = ConcurrentHashMap.newKeySet();
+    private final Queue<Context> contextos = new ConcurrentLinkedQueue<>();
+    private final LongAdder contextosCreados = new LongAdder();
+    private final ThreadLocal<ContextoHilo> contextoHilo = ThreadLocal.withInitial(ContextoHilo::new);
+
+    public ScriptsCompartidos() {
+        this.engine = Engine.newBuilder()
+                .option("engine.WarnInterpreterOnly", "false")
+                .build();
+        LOGGER.info("Engine GraalVM compartido para scripts iniciado (versión {})", engine.getVersion());
+    }
+
+    /**
+     * Devuelve la fuente del script, creándola la primera vez que se ve ese código.
+     */
+    public ScriptCompilado compilar(String codigo) {
+        String hash = hash(codigo);
+        ScriptCompilado script = fuentes.get(hash);
+        if (script != null) {
+            return script;
+        }
+        return fuentes.computeIfAbsent(hash, h -> {
+            String fragmento = fragmento(codigo);
+            estadisticas.put(h, new EstadisticasScript(fragmento));
+            Source fuente = Source.newBuilder(LENGUAJE, codigo, "script-" + h.substring(0, 12) + ".js")
+                    .cached(true)
+                    .buildLiteral();
+            return new ScriptCompilado(h, fuente);
+        });
+    }
+
+    /**
+     * Ejecuta el script en el contexto del hilo actual con los enlaces dados como variables
+     * globales. Los enlaces se retiran al terminar para no filtrar datos entre ejecuciones.
+     */
+    public Object evaluar(ScriptCompilado script, Map<String, ?> enlaces) {
+        EstadisticasScript estadistica = estadisticas.get(script.hash());
+        ContextoHilo hilo = contextoHilo.get();
+        // Una evaluación anidada (p. ej. un listener disparado desde el script) no debe
+        // compartir ni limpiar los globales de la evaluación que la contiene
+        if (aislados.contains(script.hash()) || hilo.enUso) {
+            return evaluarAislado(script, enlaces, estadistica);
+        }
+        try {
+            return hilo.ejecutar(script, enlaces, estadistica);
+        } catch (PolyglotException e) {
+            if (!esRedeclaracion(e)) {
+                throw e;
+            }
+            // La declaración falla antes de ejecutar ninguna sentencia, así que reintentar es seguro
+            aislados.add(script.hash());
+            LOGGER.info("Script {} declara globales léxicos; se ejecutará en contextos aislados",
+                    script.hash().substring(0, 12));
+            return evaluarAislado(script, enlaces, estadistica);
+        }
+    }
+
+    public EstadoScripts obtenerEstado() {
+        List<MetricaScript> metricas = new ArrayList<>();
+        estadisticas.forEach((hash, estadistica) -> metricas.add(estadistica.resumen(hash, aislados.contains(hash))));
+        metricas.sort(Comparator.comparingLong(MetricaScript::evaluaciones).reversed());
+        return new EstadoScripts(engine.getVersion(), fuentes.size(), contextosCreados.sum(), metricas);
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        Context contexto;
+        while ((contexto = contextos.poll()) != null) {
+            try {
+                contexto.close(true);
+            } catch (RuntimeException e) {
+                LOGGER.debug("No se pudo cerrar un contexto de scripts: {}", e.getMessage());
+            }
+        }
+        engine.close(true);
+    }
+
+    private Object evaluarAislado(ScriptCompilado script, Map<String, ?> enlaces, EstadisticasScript estadistica) {
+        try (Context contexto = nuevoContexto(false)) {
+            long inicio = System.nanoTime();
+            Value programa = contexto.parse(script.fuente());
+            estadistica.registrarCompilacion(System.nanoTime() - inicio);
+            return ejecutar(contexto, programa, enlaces, estadistica);
+        }
+    }
+
+    private static Object ejecutar(Context contexto, Value programa, Map<String, ?> enlaces,
+                                   EstadisticasScript estadistica) {
+        Value globales = contexto.getBindings(LENGUAJE);
+        // Las Bindings de Camunda calculan sus entradas en cada recorrido: se recorren una sola vez
+        List<String> nombres = new ArrayList<>(enlaces.size());
+        enlaces.forEach((nombre, valor) -> {
+            globales.putMember(nombre, valor);
+            nombres.add(nombre);
+        });
+        long inicio = System.nanoTime();
+        boolean correcto = false;
+        try {
+            Object resultado = aJava(programa.execute());
+            correcto = true;
+            return resultado;
+        } finally {
+            estadistica.registrarEvaluacion(System.nanoTime() - inicio, correcto);
+            for (String nombre : nombres) {
+                try {
+                    globales.removeMember(nombre);
+                } catch (UnsupportedOperationException e) {
+                    // El script redeclaró el enlace como propiedad no configurable; se sobrescribe en la siguiente ejecución
+                }
+            }
+        }
+    }
+
+    private Context nuevoContexto(boolean compartido) {
+        Context contexto = Context.newBuilder(LENGUAJE)
+                .engine(engine)
+                .allowHostAccess(HostAccess.ALL)
+                .allowHostClassLookup(nombre -> true)
+                .build();
+        if (compartido) {
+            contextos.add(contexto);
+            contextosCreados.increment();
+            LOGGER.debug("Contexto de scripts creado para el hilo {}", Thread.currentThread().getName());
+        }
+        return contexto;
+    }
+
+    private static Object aJava(Value valor) {
+        if (valor.isNull()) {
+            return null;
+        }
+        if (valor.isHostObject()) {
+            return valor.asHostObject();
+        }
+        if (valor.isString()) {
+            return valor.asString();
+        }
+        if (valor.isBoolean()) {
+            return valor.asBoolean();
+        }
+        if (valor.isNumber()) {
+            if (valor.fitsInInt()) {
+                return valor.asInt();
+            }
+            if (valor.fitsInLong()) {
+                return valor.asLong();
+            }
+            return valor.asDouble();
+        }
+        return valor.as(Object.class);
+    }
+
+    private static boolean esRedeclaracion(PolyglotException e) {
+        return e.isSyntaxError() && e.getMessage() != null && e.getMessage().contains("already been declared");
+    }
+
+    private static String hash(String codigo) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] resumen = digest.digest(codigo.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(resumen.length * 2);
+            for (byte b : resumen) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private static String fragmento(String codigo) {
+        String compacto = codigo.strip().replaceAll("\\s+", " ");
+        return compacto.length() <= LONGITUD_FRAGMENTO ? compacto : compacto.substring(0, LONGITUD_FRAGMENTO) + "…";
+    }
+
+    /**
+     * Fuente de un script ya registrada en el engine compartido.
+     */
+    public record ScriptCompilado(String hash, Source fuente) {
+    }
+
+    /**
+     * Contexto de un hilo con los programas que ya parseó, por hash de script.
+     */
+    private final class ContextoHilo {
+
+        private final Context contexto = nuevoContexto(true);
+        private final Map<String, Value> programas = new HashMap<>();
+        private boolean enUso;
+
+        Object ejecutar(ScriptCompilado script, Map<String, ?> enlaces, EstadisticasScript estadistica) {
+            Value programa = programas.get(script.hash());
+            if (programa == null) {
+                long inicio = System.nanoTime();
+                programa = contexto.parse(script.fuente());
+                long duracion = System.nanoTime() - inicio;
+                estadistica.registrarCompilacion(duracion);
+                programas.put(script.hash(), programa);
+                LOGGER.debug("Script {} parseado en {} µs en el hilo {}",
+                        script.hash().substring(0, 12), duracion / 1_000, Thread.currentThread().getName());
+            }
+            enUso = true;
+            try {
+                return ScriptsCompartidos.ejecutar(contexto, programa, enlaces, estadistica);
+            } finally {
+                enUso = false;
+            }
+        }
+    }
+
+    private static final class EstadisticasScript {
+
+        private final String fragmento;
+        private final LongAdder compilaciones = new LongAdder();
+        private final LongAdder nanosCompilacion = new LongAdder();
+        private final LongAdder evaluaciones = new LongAdder();
+        private final LongAdder nanosEvaluacion = new LongAdder();
+        private final LongAdder errores = new LongAdder();
+
+        EstadisticasScript(String fragmento) {
+            this.fragmento = fragmento;
+        }
+
+        void registrarCompilacion(long nanos) {
+            compilaciones.increment();
+            nanosCompilacion.add(nanos);
+        }
+
+        void registrarEvaluacion(long nanos, boolean correcto) {
+            evaluaciones.increment();
+            nanosEvaluacion.add(nanos);
+            if (!correcto) {
+                errores.increment();
+            }
+        }
+
+        MetricaScript resumen(String hash, boolean aislado) {
+            long totalCompilaciones = compilaciones.sum();
+            long totalEvaluaciones = evaluaciones.sum();
+            return new MetricaScript(hash, fragmento, aislado,
+                    totalCompilaciones, media(nanosCompilacion.sum(), totalCompilaciones),
+                    totalEvaluaciones, media(nanosEvaluacion.sum(), totalEvaluaciones),
+                    errores.sum());
+        }
+
+        private static double media(long nanos, long veces) {
+            return veces == 0 ? 0 : nanos / 1_000.0 / veces;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.demo.script;
+
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sustituye el motor JSR-223 de Graal por {@link MotorJavaScriptCompartido} para los scripts
+ * JavaScript de los procesos. Con {@code app.scripts.motor-compartido=false} Camunda vuelve
+ * a usar el motor de Graal por defecto.
+ */
+@Component
+public class ScriptsEnginePlugin extends AbstractProcessEnginePlugin {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScriptsEnginePlugin.class);
+
+    private final ScriptsCompartidos scripts;
+    private final boolean habilitado;
+
+    public ScriptsEnginePlugin(ScriptsCompartidos scripts,
+                               @Value("${app.scripts.motor-compartido:true}") boolean habilitado) {
+        this.scripts = scripts;
+        this.habilitado = habilitado;
+    }
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl configuracion) {
+        if (habilitado) {
+            configuracion.setScriptEngineNameJavaScript(FabricaMotorJavaScript.NOMBRE);
+        }
+    }
+
+    @Override
+    public void postInit(ProcessEngineConfigurationImpl configuracion) {
+        if (!habilitado) {
+            LOGGER.info("Motor de scripts compartido deshabilitado, se usa el motor JSR-223 de Graal");
+            return;
+        }
+        configuracion.getScriptingEngines().addScriptEngineFactory(new FabricaMotorJavaScript(scripts));
+        LOGGER.info("Scripts JavaScript evaluados con el engine GraalVM compartido ({})", FabricaMotorJavaScript.NOMBRE);
+    }
+}
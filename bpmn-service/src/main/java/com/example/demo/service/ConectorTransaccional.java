@@ -0,0 +1,130 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Cliente HTTP compartido por los delegados que llaman al servicio transaccional. Un solo
+ * HttpClient reutiliza las conexiones entre instancias de proceso, y cada delegado guarda
+ * sus ObjectWriter/ObjectReader ya construidos sobre {@link #JSON}.
+ */
+@Service
+public class ConectorTransaccional {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConectorTransaccional.class);
+
+    public static final ObjectMapper JSON = JsonMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    /**
+     * Respuesta {@code ?view=summary} de la que solo interesa el id.
+     */
+    public record RespuestaId(Long id) {
+    }
+
+    public static final ObjectReader LECTOR_ID = JSON.readerFor(RespuestaId.class);
+
+    private final HttpClient httpClient;
+    private final String urlBase;
+    private final Duration timeout;
+
+    public ConectorTransaccional(@Value("${transactional.service.url}") String urlBase,
+                                 @Value("${transactional.service.timeout-ms:10000}") long timeoutMs) {
+        this.urlBase = urlBase.endsWith("/") ? urlBase.substring(0, urlBase.length() - 1) : urlBase;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    /**
+     * POST de un cuerpo JSON ya serializado (o sin cuerpo si es null). Una respuesta que no sea
+     * 2xx lanza excepción para que el motor registre el incidente en lugar de seguir con
+     * variables nulas.
+     */
+    public <T> T post(String ruta, byte[] cuerpo, String claveIdempotencia, ObjectReader lector)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder peticion = HttpRequest.newBuilder(URI.create(urlBase + ruta))
+                .timeout(timeout)
+                .header("Accept", "application/json");
+        if (cuerpo != null) {
+            peticion.header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(cuerpo));
+        } else {
+            peticion.POST(HttpRequest.BodyPublishers.noBody());
+        }
+        if (claveIdempotencia != null) {
+            peticion.header("Idempotency-Key", claveIdempotencia);
+        }
+
+        HttpResponse<byte[]> respuesta = httpClient.send(peticion.build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (respuesta.statusCode() / 100 != 2) {
+            String detalle = new String(respuesta.body(), StandardCharsets.UTF_8);
+            LOGGER.warn("POST {} respondió {}: {}", ruta, respuesta.statusCode(), detalle);
+            throw new IllegalStateException("El servicio transaccional respondió " + respuesta.statusCode() + " en " + ruta);
+        }
+        if (respuesta.body().length == 0) {
+            return null;
+        }
+        return lector.readValue(respuesta.body());
+    }
+
+    public static String parametro(Object valor) {
+        return URLEncoder.encode(texto(valor) == null ? "" : texto(valor), StandardCharsets.UTF_8);
+    }
+
+    // Las variables de formulario llegan como String, Long o Double según el campo
+    public static String texto(Object valor) {
+        return valor == null ? null : valor.toString();
+    }
+
+    public static Integer entero(Object valor) {
+        if (valor instanceof Number numero) {
+            return numero.intValue();
+        }
+        if (valor instanceof String texto && !texto.isBlank()) {
+            return Integer.valueOf(texto.trim());
+        }
+        return null;
+    }
+
+    public static Double decimal(Object valor) {
+        if (valor instanceof Number numero) {
+            return numero.doubleValue();
+        }
+        if (valor instanceof String texto && !texto.isBlank()) {
+            return Double.valueOf(texto.trim());
+        }
+        return null;
+    }
+
+    /**
+     * Fecha en formato ISO local, que es lo que espera LocalDateTime en el servicio.
+     */
+    public static String fecha(Object valor) {
+        if (valor instanceof Date date) {
+            return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()).toString();
+        }
+        return texto(valor);
+    }
+}
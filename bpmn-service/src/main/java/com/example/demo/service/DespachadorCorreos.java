@@ -0,0 +1,301 @@
+package com.example.demo.service;
+
+import com.example.demo.model.CorreoSaliente;
+import com.example.demo.repository.CorreoSalienteRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envía los correos del outbox fuera de las transacciones del motor. Un hilo reclama lotes
+ * de correos listos y los reparte en grupos entre un pool acotado; cada grupo se envía por
+ * una sola conexión SMTP. Los fallos se reintentan con espera exponencial y el ritmo total
+ * de envío se limita para no superar la cuota del servidor de correo.
+ */
+@Service
+public class DespachadorCorreos {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DespachadorCorreos.class);
+
+    private static final int LONGITUD_ERROR = 1000;
+
+    private final CorreoSalienteRepository correoSalienteRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final String remitente;
+    private final long intervaloMs;
+    private final int tamanoLote;
+    private final int hilos;
+    private final int correosPorConexion;
+    private final long nanosEntreCorreos;
+    private final int maxIntentos;
+    private final long esperaBaseMs;
+    private final long esperaMaximaMs;
+    private final long retencionDias;
+    private final Semaphore aviso = new Semaphore(0);
+    private ExecutorService pool;
+    private volatile boolean activo;
+    private long siguienteEnvioNanos;
+    private long proximaPurgaMs;
+
+    public DespachadorCorreos(CorreoSalienteRepository correoSalienteRepository,
+                              JavaMailSender mailSender,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.mail.from}") String remitente,
+                              @Value("${app.mail.despacho.intervalo-ms:5000}") long intervaloMs,
+                              @Value("${app.mail.despacho.tamano-lote:100}") int tamanoLote,
+                              @Value("${app.mail.despacho.hilos:2}") int hilos,
+                              @Value("${app.mail.despacho.correos-por-conexion:25}") int correosPorConexion,
+                              @Value("${app.mail.despacho.max-por-segundo:5}") double maxPorSegundo,
+                              @Value("${app.mail.despacho.max-intentos:6}") int maxIntentos,
+                              @Value("${app.mail.despacho.espera-base-ms:30000}") long esperaBaseMs,
+                              @Value("${app.mail.despacho.espera-maxima-ms:3600000}") long esperaMaximaMs,
+                              @Value("${app.mail.despacho.retencion-dias:7}") long retencionDias) {
+        if (tamanoLote < 1 || hilos < 1 || correosPorConexion < 1 || maxIntentos < 1) {
+            throw new IllegalArgumentException("El lote, los hilos, los correos por conexión y los intentos deben ser positivos");
+        }
+        this.correoSalienteRepository = correoSalienteRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.remitente = remitente;
+        this.intervaloMs = intervaloMs;
+        this.tamanoLote = tamanoLote;
+        this.hilos = hilos;
+        this.correosPorConexion = correosPorConexion;
+        // Un límite no positivo desactiva el control de ritmo
+        this.nanosEntreCorreos = maxPorSegundo > 0 ? (long) (1_000_000_000L / maxPorSegundo) : 0;
+        this.maxIntentos = maxIntentos;
+        this.esperaBaseMs = esperaBaseMs;
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.retencionDias = retencionDias;
+    }
+
+    /**
+     * Despierta al despachador; se llama tras el commit de una transacción que encoló correos.
+     */
+    public void avisar() {
+        aviso.release();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        Integer liberados = transactionTemplate.execute(status -> correoSalienteRepository.liberarEnEnvio());
+        if (liberados != null && liberados > 0) {
+            LOGGER.warn("Correos de un despacho interrumpido devueltos a pendientes: {}", liberados);
+        }
+        AtomicInteger contador = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(hilos, tarea -> {
+            Thread hilo = new Thread(tarea, "correo-envio-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        activo = true;
+        Thread hilo = new Thread(this::ejecutar, "correo-despacho");
+        hilo.setDaemon(true);
+        hilo.start();
+        LOGGER.info("Despachador de correos iniciado ({} hilos, {} correos por conexión)", hilos, correosPorConexion);
+    }
+
+    @PreDestroy
+    public void detener() {
+        activo = false;
+        aviso.release();
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private void ejecutar() {
+        while (activo) {
+            try {
+                aviso.tryAcquire(intervaloMs, TimeUnit.MILLISECONDS);
+                aviso.drainPermits();
+                while (activo && despacharLote() == tamanoLote) {
+                    // Quedan correos listos: seguir sin esperar
+                }
+                purgarSiCorresponde();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                LOGGER.error("Error despachando correos", e);
+            }
+        }
+    }
+
+    private int despacharLote() throws InterruptedException {
+        List<CorreoSaliente> lote = transactionTemplate.execute(status -> {
+            List<CorreoSaliente> listos = correoSalienteRepository.findListos(LocalDateTime.now(), PageRequest.of(0, tamanoLote));
+            listos.forEach(correo -> correo.setEstado(CorreoSaliente.ENVIANDO));
+            return listos;
+        });
+        if (lote == null || lote.isEmpty()) {
+            return 0;
+        }
+
+        List<Future<Map<Long, String>>> grupos = new ArrayList<>();
+        for (int desde = 0; desde < lote.size(); desde += correosPorConexion) {
+            List<CorreoSaliente> grupo = lote.subList(desde, Math.min(desde + correosPorConexion, lote.size()));
+            grupos.add(pool.submit(() -> enviarGrupo(grupo)));
+        }
+        // Id del correo -> error, o null si se envió
+        Map<Long, String> resultados = new HashMap<>();
+        for (Future<Map<Long, String>> grupo : grupos) {
+            try {
+                resultados.putAll(grupo.get());
+            } catch (ExecutionException e) {
+                // enviarGrupo no lanza; los correos de un grupo perdido quedan sin resultado y se liberan
+                LOGGER.error("Error inesperado enviando un grupo de correos", e.getCause());
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> registrarResultados(lote, resultados));
+        return lote.size();
+    }
+
+    private Map<Long, String> enviarGrupo(List<CorreoSaliente> grupo) throws InterruptedException {
+        Map<Long, String> resultados = new HashMap<>();
+        List<MimeMessage> mensajes = new ArrayList<>(grupo.size());
+        Map<MimeMessage, Long> ids = new HashMap<>();
+        for (CorreoSaliente correo : grupo) {
+            try {
+                MimeMessage mensaje = construirMensaje(correo);
+                mensajes.add(mensaje);
+                ids.put(mensaje, correo.getId());
+            } catch (MessagingException e) {
+                resultados.put(correo.getId(), e.getMessage());
+            }
+        }
+        if (mensajes.isEmpty()) {
+            return resultados;
+        }
+
+        esperarTurno(mensajes.size());
+        try {
+            // Un envío con varios mensajes abre una sola conexión SMTP para todo el grupo
+            mailSender.send(mensajes.toArray(MimeMessage[]::new));
+            ids.values().forEach(id -> resultados.put(id, null));
+        } catch (MailSendException e) {
+            // Sin mensajes fallidos la excepción viene del cierre de la conexión: todo se envió
+            Map<Object, Exception> fallidos = e.getFailedMessages();
+            ids.forEach((mensaje, id) -> {
+                Exception error = fallidos.get(mensaje);
+                resultados.put(id, error == null ? null : descripcion(error));
+            });
+        } catch (MailException e) {
+            ids.values().forEach(id -> resultados.put(id, descripcion(e)));
+        }
+        return resultados;
+    }
+
+    private MimeMessage construirMensaje(CorreoSaliente correo) throws MessagingException {
+        MimeMessage mensaje = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mensaje, false, "UTF-8");
+        helper.setFrom(remitente);
+        helper.setTo(correo.getDestinatario());
+        helper.setSubject(correo.getAsunto());
+        helper.setText(correo.getCuerpo(), correo.isHtml());
+        return mensaje;
+    }
+
+    /**
+     * Reserva el turno de envío de un grupo dentro del ritmo máximo y espera hasta que llegue.
+     */
+    private void esperarTurno(int correos) throws InterruptedException {
+        if (nanosEntreCorreos == 0) {
+            return;
+        }
+        long espera;
+        synchronized (this) {
+            long ahora = System.nanoTime();
+            long inicio = Math.max(ahora, siguienteEnvioNanos);
+            siguienteEnvioNanos = inicio + correos * nanosEntreCorreos;
+            espera = inicio - ahora;
+        }
+        if (espera > 0) {
+            TimeUnit.NANOSECONDS.sleep(espera);
+        }
+    }
+
+    private void registrarResultados(List<CorreoSaliente> lote, Map<Long, String> resultados) {
+        LocalDateTime ahora = LocalDateTime.now();
+        int enviados = 0;
+        int reintentos = 0;
+        int fallidos = 0;
+        for (CorreoSaliente correo : correoSalienteRepository.findAllById(lote.stream().map(CorreoSaliente::getId).toList())) {
+            if (!resultados.containsKey(correo.getId())) {
+                correo.setEstado(CorreoSaliente.PENDIENTE);
+                continue;
+            }
+            String error = resultados.get(correo.getId());
+            correo.setIntentos(correo.getIntentos() + 1);
+            if (error == null) {
+                correo.setEstado(CorreoSaliente.ENVIADO);
+                correo.setFechaEnvio(ahora);
+                correo.setUltimoError(null);
+                enviados++;
+                continue;
+            }
+            correo.setUltimoError(error.length() > LONGITUD_ERROR ? error.substring(0, LONGITUD_ERROR) : error);
+            if (correo.getIntentos() >= maxIntentos) {
+                correo.setEstado(CorreoSaliente.FALLIDO);
+                LOGGER.error("Correo {} a {} descartado tras {} intentos: {}",
+                        correo.getId(), correo.getDestinatario(), correo.getIntentos(), error);
+                fallidos++;
+            } else {
+                correo.setEstado(CorreoSaliente.PENDIENTE);
+                correo.setProximoIntento(ahora.plus(Duration.ofMillis(espera(correo.getIntentos()))));
+                reintentos++;
+            }
+        }
+        LOGGER.info("Lote de correos despachado: {} enviados, {} para reintento, {} fallidos", enviados, reintentos, fallidos);
+    }
+
+    private long espera(int intentos) {
+        long espera = esperaBaseMs << Math.min(intentos - 1, 20);
+        return Math.min(espera, esperaMaximaMs);
+    }
+
+    private void purgarSiCorresponde() {
+        long ahora = System.currentTimeMillis();
+        if (ahora < proximaPurgaMs) {
+            return;
+        }
+        proximaPurgaMs = ahora + TimeUnit.HOURS.toMillis(1);
+        Integer eliminados = transactionTemplate.execute(status -> correoSalienteRepository
+                .eliminarEnviadosAntesDe(LocalDateTime.now().minusDays(retencionDias)));
+        if (eliminados != null && eliminados > 0) {
+            LOGGER.info("Correos enviados purgados: {}", eliminados);
+        }
+    }
+
+    private static String descripcion(Exception e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+}
@@ -1,87 +1,97 @@
 package com.example.demo.service;
 
+import com.example.demo.model.CorreoSaliente;
+import com.example.demo.repository.CorreoSalienteRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Correos del proceso de instalación. Los correos no se envían en la tarea que los genera:
+ * se encolan en el outbox dentro de la transacción del motor y {@link DespachadorCorreos}
+ * los envía tras el commit, de modo que los hilos del motor no esperan al servidor SMTP.
+ */
 @Service
 public class EmailService {
     
     private static final Logger LOGGER = LoggerFactory.getLogger(EmailService.class);
     
     @Autowired
-    private JavaMailSender mailSender;
+    private CorreoSalienteRepository correoSalienteRepository;
+    
+    @Autowired
+    private DespachadorCorreos despachadorCorreos;
     
     @Autowired
     private TemplateEngine templateEngine;
     
-    @Value("${app.mail.from}")
-    private String fromEmail;
+    @Autowired
+    private PlantillasCorreo plantillasCorreo;
     
     @Value("${app.mail.enabled:true}")
     private boolean emailEnabled;
     
     /**
-     * Envía un correo simple
+     * Encola un correo simple
      */
     public void sendSimpleEmail(String to, String subject, String text) {
+        encolar(to, subject, text, false);
+    }
+    
+    /**
+     * Encola un correo HTML usando plantilla Thymeleaf
+     */
+    public void sendHtmlEmail(String to, String subject, String templateName, Map<String, Object> variables) {
         if (!emailEnabled) {
             LOGGER.info("Email deshabilitado. No se envió: {} a {}", subject, to);
             return;
         }
         
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(text);
-            
-            mailSender.send(message);
-            LOGGER.info("Email enviado exitosamente a: {}", to);
-        } catch (Exception e) {
-            LOGGER.error("Error enviando email a {}: {}", to, e.getMessage(), e);
-        }
+        Context context = new Context();
+        context.setVariables(variables);
+        
+        String htmlContent = templateEngine.process(templateName, context);
+        encolar(to, subject, htmlContent, true);
     }
     
-    /**
-     * Envía un correo HTML usando plantilla Thymeleaf
-     */
-    public void sendHtmlEmail(String to, String subject, String templateName, Map<String, Object> variables) {
+    private void encolar(String to, String subject, String cuerpo, boolean html) {
         if (!emailEnabled) {
             LOGGER.info("Email deshabilitado. No se envió: {} a {}", subject, to);
             return;
         }
         
-        try {
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
-            
-            Context context = new Context();
-            context.setVariables(variables);
-            
-            String htmlContent = templateEngine.process(templateName, context);
-            
-            helper.setFrom(fromEmail);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(htmlContent, true);
-            
-            mailSender.send(mimeMessage);
-            LOGGER.info("Email HTML enviado exitosamente a: {}", to);
-        } catch (MessagingException e) {
-            LOGGER.error("Error enviando email HTML a {}: {}", to, e.getMessage(), e);
+        LocalDateTime ahora = LocalDateTime.now();
+        CorreoSaliente correo = new CorreoSaliente();
+        correo.setDestinatario(to);
+        correo.setAsunto(subject);
+        correo.setCuerpo(cuerpo);
+        correo.setHtml(html);
+        correo.setEstado(CorreoSaliente.PENDIENTE);
+        correo.setProximoIntento(ahora);
+        correo.setFechaCreacion(ahora);
+        // Se une a la transacción del motor: si la tarea se revierte, el correo no sale
+        correoSalienteRepository.save(correo);
+        LOGGER.info("Email encolado para: {}", to);
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    despachadorCorreos.avisar();
+                }
+            });
+        } else {
+            despachadorCorreos.avisar();
         }
     }
     
@@ -89,114 +99,73 @@ public class EmailService {
      * Notifica solicitud inviable
      */
     public void notificarSolicitudInviable(String clienteEmail, String solicitudId) {
-        String subject = "Gas Corocora - Solicitud Inviable";
-        String text = String.format(
-            "Estimado cliente,\n\n" +
-            "Lamentamos informarle que su solicitud de conexión #%s no puede ser procesada " +
-            "debido a que la zona solicitada no cuenta con red de gas disponible.\n\n" +
-            "Para más información, puede contactarnos.\n\n" +
-            "Atentamente,\n" +
-            "Gas Corocora - Área Técnica",
-            solicitudId
-        );
-        
-        sendSimpleEmail(clienteEmail, subject, text);
+        notificar(clienteEmail, TipoNotificacion.SOLICITUD_INVIABLE, variables("solicitudId", solicitudId));
     }
     
     /**
      * Envía cotización al cliente
      */
     public void enviarCotizacion(String clienteEmail, String solicitudId, double montoConexion, double descuento) {
-        String subject = "Gas Corocora - Cotización de Instalación";
         double montoAPagar = montoConexion - (montoConexion * descuento / 100);
         
-        String text = String.format(
-            "Estimado cliente,\n\n" +
-            "Nos complace enviarle la cotización para la instalación de gas:\n\n" +
-            "Solicitud: %s\n" +
-            "Costo de conexión: $%.2f\n" +
-            "Descuento aplicado: %.0f%%\n" +
-            "Total a pagar: $%.2f\n\n" +
-            "Esta cotización es válida por 5 días hábiles.\n\n" +
-            "Para continuar con el proceso, debe confirmar su aceptación y realizar el pago.\n\n" +
-            "Atentamente,\n" +
-            "Gas Corocora - Área Comercial",
-            solicitudId, montoConexion, descuento, montoAPagar
-        );
-        
-        sendSimpleEmail(clienteEmail, subject, text);
+        notificar(clienteEmail, TipoNotificacion.COTIZACION, variables(
+            "solicitudId", solicitudId,
+            "montoConexion", montoConexion,
+            "descuento", descuento,
+            "montoAPagar", montoAPagar
+        ));
     }
     
     /**
      * Notifica cancelación de solicitud
      */
     public void notificarCancelacionSolicitud(String clienteEmail, String solicitudId) {
-        String subject = "Gas Corocora - Solicitud Cancelada";
-        String text = String.format(
-            "Estimado cliente,\n\n" +
-            "Su solicitud de conexión #%s ha sido cancelada por falta de respuesta " +
-            "dentro del plazo establecido de 5 días.\n\n" +
-            "Si desea reiniciar el proceso, puede realizar una nueva solicitud.\n\n" +
-            "Atentamente,\n" +
-            "Gas Corocora",
-            solicitudId
-        );
-        
-        sendSimpleEmail(clienteEmail, subject, text);
+        notificar(clienteEmail, TipoNotificacion.SOLICITUD_CANCELADA, variables("solicitudId", solicitudId));
     }
     
     /**
      * Notifica problemas en instalación
      */
     public void notificarProblemasInstalacion(String clienteEmail, String solicitudId, String problemas) {
-        String subject = "Gas Corocora - Problemas en Instalación";
-        String text = String.format(
-            "Estimado cliente,\n\n" +
-            "Durante la verificación de su instalación #%s se detectaron los siguientes problemas:\n\n" +
-            "%s\n\n" +
-            "Nuestro equipo técnico se pondrá en contacto para resolverlos.\n\n" +
-            "Atentamente,\n" +
-            "Gas Corocora - Área Técnica",
-            solicitudId, problemas
-        );
-        
-        sendSimpleEmail(clienteEmail, subject, text);
+        notificar(clienteEmail, TipoNotificacion.PROBLEMAS_INSTALACION, variables(
+            "solicitudId", solicitudId,
+            "problemas", problemas
+        ));
     }
     
     /**
      * Notifica activación del servicio
      */
     public void notificarActivacionServicio(String clienteEmail, String solicitudId, String numeroMedidor) {
-        String subject = "Gas Corocora - Servicio Activado";
-        String text = String.format(
-            "Estimado cliente,\n\n" +
-            "¡Felicitaciones! Su servicio de gas ha sido activado exitosamente.\n\n" +
-            "Solicitud: %s\n" +
-            "Número de medidor: %s\n\n" +
-            "En breve recibirá su primera factura.\n\n" +
-            "Atentamente,\n" +
-            "Gas Corocora - Área de Facturación",
-            solicitudId, numeroMedidor
-        );
-        
-        sendSimpleEmail(clienteEmail, subject, text);
+        notificar(clienteEmail, TipoNotificacion.SERVICIO_ACTIVADO, variables(
+            "solicitudId", solicitudId,
+            "numeroMedidor", numeroMedidor
+        ));
     }
     
     /**
      * Notifica facturación iniciada
      */
     public void notificarFacturacionIniciada(String clienteEmail, String solicitudId) {
-        String subject = "Gas Corocora - Facturación Iniciada";
-        String text = String.format(
-            "Estimado cliente,\n\n" +
-            "Su servicio de gas ha sido habilitado para facturación.\n\n" +
-            "Solicitud: %s\n\n" +
-            "Recibirá su factura mensualmente según el ciclo de facturación asignado.\n\n" +
-            "Atentamente,\n" +
-            "Gas Corocora - Área de Facturación",
-            solicitudId
-        );
+        notificar(clienteEmail, TipoNotificacion.FACTURACION_INICIADA, variables("solicitudId", solicitudId));
+    }
+    
+    private void notificar(String clienteEmail, TipoNotificacion tipo, Map<String, Object> variables) {
+        if (!emailEnabled) {
+            LOGGER.info("Email deshabilitado. No se envió: {} a {}", tipo, clienteEmail);
+            return;
+        }
         
-        sendSimpleEmail(clienteEmail, subject, text);
+        PlantillasCorreo.CorreoRenderizado correo = plantillasCorreo.renderizar(tipo, variables);
+        sendSimpleEmail(clienteEmail, correo.asunto(), correo.cuerpo());
+    }
+    
+    // Map.of no admite valores nulos y las variables del proceso pueden faltar
+    private static Map<String, Object> variables(Object... claveValor) {
+        Map<String, Object> variables = new HashMap<>(claveValor.length);
+        for (int i = 0; i < claveValor.length; i += 2) {
+            variables.put((String) claveValor[i], claveValor[i + 1]);
+        }
+        return variables;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,166 @@
+package com.example.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro de las plantillas de texto de las notificaciones. Usa un motor Thymeleaf propio en
+ * modo TEXT que parsea cada plantilla una sola vez y la conserva en caché; la plantilla de cada
+ * tipo y locale se resuelve la primera vez que se pide. Cada hilo reutiliza su contexto y su
+ * buffer de salida entre renderizados. Las expresiones se evalúan con SpEL: el dialecto
+ * estándar de Thymeleaf requiere OGNL, que no está en el classpath.
+ *
+ * <p>Para traducir una notificación basta con añadir {@code <plantilla>_<idioma>.txt} o
+ * {@code <plantilla>_<idioma>_<PAÍS>.txt} junto a la plantilla base.
+ */
+@Component
+public class PlantillasCorreo {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PlantillasCorreo.class);
+
+    private static final String CARPETA = "templates/correos/";
+    private static final String EXTENSION = ".txt";
+
+    // Un buffer que creció por un correo excepcional no se conserva en el hilo
+    private static final int CAPACIDAD_MAXIMA_BUFFER = 64 * 1024;
+
+    private final SpringTemplateEngine motor;
+    private final Locale localePorDefecto;
+    private final Map<ClavePlantilla, String> plantillas = new ConcurrentHashMap<>();
+    private final ThreadLocal<Renderizador> renderizadores = ThreadLocal.withInitial(Renderizador::new);
+
+    public PlantillasCorreo(@Value("${app.mail.locale:es-CO}") String locale) {
+        this.localePorDefecto = Locale.forLanguageTag(locale);
+
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver(PlantillasCorreo.class.getClassLoader());
+        resolver.setPrefix(CARPETA);
+        resolver.setSuffix(EXTENSION);
+        resolver.setTemplateMode(TemplateMode.TEXT);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+        this.motor = new SpringTemplateEngine();
+        this.motor.setTemplateResolver(resolver);
+
+        // Parsear todas las plantillas al arrancar: un error de sintaxis falla aquí y no en un proceso
+        Context vacio = new Context(localePorDefecto);
+        for (TipoNotificacion tipo : TipoNotificacion.values()) {
+            motor.process(plantilla(tipo, localePorDefecto), vacio, Writer.nullWriter());
+        }
+        LOGGER.info("Plantillas de notificación cargadas: {} (locale {})", TipoNotificacion.values().length, localePorDefecto);
+    }
+
+    public CorreoRenderizado renderizar(TipoNotificacion tipo, Map<String, Object> variables) {
+        return renderizar(tipo, localePorDefecto, variables);
+    }
+
+    public CorreoRenderizado renderizar(TipoNotificacion tipo, Locale locale, Map<String, Object> variables) {
+        String plantilla = plantilla(tipo, locale);
+        Renderizador renderizador = renderizadores.get();
+        Context contexto = renderizador.contexto;
+        StringBuilder texto = renderizador.salida.texto;
+        contexto.clearVariables();
+        contexto.setLocale(locale);
+        contexto.setVariables(variables);
+        texto.setLength(0);
+        try {
+            motor.process(plantilla, contexto, renderizador.salida);
+            return separar(texto);
+        } finally {
+            contexto.clearVariables();
+            if (texto.capacity() > CAPACIDAD_MAXIMA_BUFFER) {
+                renderizadores.remove();
+            }
+        }
+    }
+
+    private String plantilla(TipoNotificacion tipo, Locale locale) {
+        return plantillas.computeIfAbsent(new ClavePlantilla(tipo, locale), this::resolver);
+    }
+
+    /**
+     * Elige la variante más específica disponible: idioma y país, solo idioma o la base.
+     */
+    private String resolver(ClavePlantilla clave) {
+        String base = clave.tipo().getPlantilla();
+        Locale locale = clave.locale();
+        for (String candidata : new String[]{
+                base + "_" + locale.getLanguage() + "_" + locale.getCountry(),
+                base + "_" + locale.getLanguage()}) {
+            if (!locale.getLanguage().isEmpty()
+                    && PlantillasCorreo.class.getClassLoader().getResource(CARPETA + candidata + EXTENSION) != null) {
+                return candidata;
+            }
+        }
+        return base;
+    }
+
+    private static CorreoRenderizado separar(StringBuilder texto) {
+        int finAsunto = texto.indexOf("\n");
+        if (finAsunto < 0) {
+            throw new IllegalStateException("La plantilla de correo no tiene cuerpo: " + texto);
+        }
+        int inicioCuerpo = finAsunto;
+        while (inicioCuerpo < texto.length() && Character.isWhitespace(texto.charAt(inicioCuerpo))) {
+            inicioCuerpo++;
+        }
+        int finCuerpo = texto.length();
+        while (finCuerpo > inicioCuerpo && Character.isWhitespace(texto.charAt(finCuerpo - 1))) {
+            finCuerpo--;
+        }
+        return new CorreoRenderizado(texto.substring(0, finAsunto).strip(), texto.substring(inicioCuerpo, finCuerpo));
+    }
+
+    public record CorreoRenderizado(String asunto, String cuerpo) {
+    }
+
+    private record ClavePlantilla(TipoNotificacion tipo, Locale locale) {
+    }
+
+    private static final class Renderizador {
+
+        private final Context contexto = new Context();
+        private final SalidaTexto salida = new SalidaTexto();
+    }
+
+    /**
+     * Writer sobre un StringBuilder reutilizable, sin la sincronización de StringWriter.
+     */
+    private static final class SalidaTexto extends Writer {
+
+        private final StringBuilder texto = new StringBuilder(1024);
+
+        @Override
+        public void write(char[] caracteres, int desde, int longitud) {
+            texto.append(caracteres, desde, longitud);
+        }
+
+        @Override
+        public void write(String cadena, int desde, int longitud) {
+            texto.append(cadena, desde, desde + longitud);
+        }
+
+        @Override
+        public void write(int caracter) {
+            texto.append((char) caracter);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
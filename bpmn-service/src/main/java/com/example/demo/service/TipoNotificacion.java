@@ -0,0 +1,25 @@
+package com.example.demo.service;
+
+/**
+ * Notificaciones al cliente y la plantilla de texto de cada una en {@code templates/correos}.
+ * La primera línea de la plantilla es el asunto; el cuerpo empieza tras la línea en blanco.
+ */
+public enum TipoNotificacion {
+
+    SOLICITUD_INVIABLE("solicitud-inviable"),
+    COTIZACION("cotizacion"),
+    SOLICITUD_CANCELADA("solicitud-cancelada"),
+    PROBLEMAS_INSTALACION("problemas-instalacion"),
+    SERVICIO_ACTIVADO("servicio-activado"),
+    FACTURACION_INICIADA("facturacion-iniciada");
+
+    private final String plantilla;
+
+    TipoNotificacion(String plantilla) {
+        this.plantilla = plantilla;
+    }
+
+    public String getPlantilla() {
+        return plantilla;
+    }
+}
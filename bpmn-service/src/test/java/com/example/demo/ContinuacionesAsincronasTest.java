@@ -0,0 +1,178 @@
+package com.example.demo;
+
+import com.example.demo.config.PoliticaJobs;
+import com.example.demo.delegate.RegistrarPagoDelegate;
+import com.example.demo.script.ScriptsCompartidos;
+import com.example.demo.script.ScriptsEnginePlugin;
+import com.example.demo.service.ConectorTransaccional;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+import org.camunda.spin.plugin.impl.SpinProcessEnginePlugin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Con transactional-service respondiendo con retardo, completar "Recibir pago de instalación"
+ * en el proceso real no debe esperar a "Registrar pago": la llamada corre en un job y la
+ * latencia de completar la tarea queda muy por debajo del retardo del servicio.
+ */
+class ContinuacionesAsincronasTest {
+
+    private static final String PROCESO = "processes/instalacion gas/instalacion_gas_subproceso.bpmn";
+    private static final String CLAVE_PROCESO = "Process_19yx4pt";
+    private static final String RECIBIR_PAGO = "Activity_0zzargi";
+
+    private static final long RETARDO_MS = 1_500;
+    private static final long LATENCIA_MAXIMA_MS = RETARDO_MS / 3;
+    private static final int MEDICIONES = 5;
+
+    private static final byte[] PAGO = ("{\"id\":3,\"businessKey\":\"TEST\",\"estado\":\"PAGADO\","
+            + "\"numeroServicio\":null,\"fechaActivacion\":null}").getBytes(StandardCharsets.UTF_8);
+
+    private final Set<String> clavesRecibidas = ConcurrentHashMap.newKeySet();
+
+    private HttpServer servidor;
+    private ScriptsCompartidos scripts;
+    private ProcessEngine motor;
+    private RuntimeService runtimeService;
+    private TaskService taskService;
+
+    @BeforeEach
+    void preparar() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        servidor.createContext("/api/facturacion/pago", this::responderPago);
+        servidor.setExecutor(Executors.newFixedThreadPool(4));
+        servidor.start();
+        ConectorTransaccional conector = new ConectorTransaccional(
+                "http://localhost:" + servidor.getAddress().getPort(), 10_000);
+
+        Map<Object, Object> beans = new HashMap<>();
+        beans.put("registrarPagoDelegate", new RegistrarPagoDelegate(conector));
+        beans.put("politicaJobs", new PoliticaJobs("PT1S,PT5S", 40, 60, 100, 80));
+
+        // Tras el pago el proceso sigue hasta "Limpiar variables de inspección", en JavaScript
+        scripts = new ScriptsCompartidos();
+
+        StandaloneInMemProcessEngineConfiguration configuracion = new StandaloneInMemProcessEngineConfiguration();
+        configuracion.setProcessEnginePlugins(new ArrayList<>(List.of(
+                new SpinProcessEnginePlugin(), new ScriptsEnginePlugin(scripts, true))));
+        configuracion.setJdbcUrl("jdbc:h2:mem:continuaciones-test;DB_CLOSE_DELAY=-1");
+        configuracion.setHistory(ProcessEngineConfiguration.HISTORY_NONE);
+        configuracion.setJobExecutorActivate(true);
+        configuracion.setJobExecutorAcquireByPriority(true);
+        configuracion.setBeans(beans);
+        motor = configuracion.buildProcessEngine();
+        runtimeService = motor.getRuntimeService();
+        taskService = motor.getTaskService();
+        motor.getRepositoryService().createDeployment()
+                .addClasspathResource(PROCESO)
+                .deploy();
+    }
+
+    @AfterEach
+    void cerrar() {
+        if (motor != null) {
+            motor.close();
+        }
+        if (scripts != null) {
+            scripts.cerrar();
+        }
+        if (servidor != null) {
+            servidor.stop(0);
+        }
+    }
+
+    @Test
+    void completarPagoNoEsperaAlServicioTransaccional() throws InterruptedException {
+        // Calentamiento: la primera ejecución carga clases y compila el proceso
+        completar(iniciarEnRecibirPago("TEST-0"));
+
+        List<String> instancias = new ArrayList<>();
+        long peor = 0;
+        for (int i = 1; i <= MEDICIONES; i++) {
+            String instanciaId = iniciarEnRecibirPago("TEST-" + i);
+            instancias.add(instanciaId);
+            peor = Math.max(peor, completar(instanciaId));
+        }
+        assertThat(peor).as("latencia de completar la tarea (ms)").isLessThan(LATENCIA_MAXIMA_MS);
+
+        // El pago se registra igualmente, en segundo plano y con la instancia como clave
+        long limite = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        while (motor.getManagementService().createJobQuery().count() > 0 && System.currentTimeMillis() < limite) {
+            Thread.sleep(100);
+        }
+        assertThat(motor.getManagementService().createJobQuery().count()).isZero();
+        assertThat(clavesRecibidas).containsAll(instancias);
+        for (String instanciaId : instancias) {
+            assertThat(runtimeService.getVariable(instanciaId, "facturacionId")).isEqualTo(3L);
+        }
+    }
+
+    private String iniciarEnRecibirPago(String businessKey) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("cedulaCliente", "1000123456");
+        variables.put("monto_recibido", 539647.31);
+        variables.put("metodo_pago", "PSE");
+        variables.put("numero_transaccion", "TX-98765432");
+        variables.put("fecha_pago", "2025-01-15T10:00:00");
+        return runtimeService.createProcessInstanceByKey(CLAVE_PROCESO)
+                .businessKey(businessKey)
+                .setVariables(variables)
+                .startBeforeActivity(RECIBIR_PAGO)
+                .execute()
+                .getId();
+    }
+
+    private long completar(String instanciaId) {
+        String tareaId = taskService.createTaskQuery()
+                .processInstanceId(instanciaId)
+                .taskDefinitionKey(RECIBIR_PAGO)
+                .singleResult()
+                .getId();
+        long inicio = System.nanoTime();
+        taskService.complete(tareaId);
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+    }
+
+    private void responderPago(HttpExchange intercambio) throws IOException {
+        try (InputStream entrada = intercambio.getRequestBody()) {
+            entrada.readAllBytes();
+        }
+        String clave = intercambio.getRequestHeaders().getFirst("Idempotency-Key");
+        if (clave != null) {
+            clavesRecibidas.add(clave);
+        }
+        try {
+            Thread.sleep(RETARDO_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        intercambio.getResponseHeaders().add("Content-Type", "application/json");
+        intercambio.sendResponseHeaders(200, PAGO.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(PAGO);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.demo.script;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.camunda.spin.plugin.impl.SpinProcessEnginePlugin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Una tarea con {@code scriptFormat="javascript"} en un motor real se ejecuta con el engine
+ * compartido: Camunda encuentra la fábrica por el nombre configurado en el plugin.
+ */
+class ScriptsEnginePluginTest {
+
+    private static final String CLAVE_PROCESO = "proceso_script";
+
+    private ScriptsCompartidos scripts;
+    private ProcessEngine motor;
+    private RuntimeService runtimeService;
+
+    @BeforeEach
+    void preparar() {
+        scripts = new ScriptsCompartidos();
+
+        StandaloneInMemProcessEngineConfiguration configuracion = new StandaloneInMemProcessEngineConfiguration();
+        configuracion.setProcessEnginePlugins(new ArrayList<>(List.of(
+                new SpinProcessEnginePlugin(), new ScriptsEnginePlugin(scripts, true))));
+        configuracion.setJdbcUrl("jdbc:h2:mem:scripts-test;DB_CLOSE_DELAY=-1");
+        configuracion.setHistory(ProcessEngineConfiguration.HISTORY_NONE);
+        configuracion.setJobExecutorActivate(false);
+        motor = configuracion.buildProcessEngine();
+        runtimeService = motor.getRuntimeService();
+
+        BpmnModelInstance modelo = Bpmn.createExecutableProcess(CLAVE_PROCESO)
+                .startEvent()
+                .scriptTask("Task_Script")
+                    .scriptFormat("javascript")
+                    .scriptText("execution.setVariable(\"total\", monto * 2);\n"
+                            + "execution.removeVariable(\"temporal\");")
+                .userTask("Task_Esperar")
+                .endEvent()
+                .done();
+        motor.getRepositoryService().createDeployment()
+                .addModelInstance(CLAVE_PROCESO + ".bpmn", modelo)
+                .deploy();
+    }
+
+    @AfterEach
+    void cerrar() {
+        if (motor != null) {
+            motor.close();
+        }
+        if (scripts != null) {
+            scripts.cerrar();
+        }
+    }
+
+    @Test
+    void ejecutaLaTareaDeScriptConElEngineCompartido() {
+        String primera = iniciar(21);
+        String segunda = iniciar(50);
+
+        assertThat(((Number) runtimeService.getVariable(primera, "total")).intValue()).isEqualTo(42);
+        assertThat(((Number) runtimeService.getVariable(segunda, "total")).intValue()).isEqualTo(100);
+        assertThat(runtimeService.getVariable(primera, "temporal")).isNull();
+
+        // Las dos instancias reutilizan la misma fuente del engine compartido; la otra fuente en
+        // caché es el script de entorno que Spin registra para JavaScript
+        assertThat(scripts.obtenerEstado().scripts())
+                .filteredOn(metrica -> metrica.fragmento().contains("\"total\""))
+                .singleElement()
+                .satisfies(metrica -> {
+                    assertThat(metrica.evaluaciones()).isEqualTo(2);
+                    assertThat(metrica.errores()).isZero();
+                });
+    }
+
+    private String iniciar(int monto) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("monto", monto);
+        variables.put("temporal", "borrar");
+        return runtimeService.startProcessInstanceByKey(CLAVE_PROCESO, variables).getId();
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.demo.service;
+
+import com.example.demo.model.CorreoSaliente;
+import com.example.demo.repository.CorreoSalienteRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.thymeleaf.TemplateEngine;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Outbox de correos contra un servidor SMTP GreenMail: los correos salen solo tras el commit,
+ * un lote viaja por una sola conexión, los fallos se reintentan con espera creciente hasta
+ * quedar FALLIDO y un rollback descarta el correo.
+ */
+@DataJpaTest(properties = {
+        "app.mail.from=pruebas@gascorocora.co",
+        "app.mail.despacho.intervalo-ms=50",
+        "app.mail.despacho.tamano-lote=100",
+        "app.mail.despacho.correos-por-conexion=25",
+        "app.mail.despacho.max-por-segundo=0",
+        "app.mail.despacho.max-intentos=3",
+        "app.mail.despacho.espera-base-ms=100",
+        "app.mail.despacho.espera-maxima-ms=1000"
+})
+@Import({EmailService.class, DespachadorCorreos.class, PlantillasCorreo.class, DespachadorCorreosTest.Smtp.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DespachadorCorreosTest {
+
+    @RegisterExtension
+    static final GreenMailExtension GREEN_MAIL = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private DespachadorCorreos despachadorCorreos;
+
+    @Autowired
+    private CorreoSalienteRepository correoSalienteRepository;
+
+    @Autowired
+    private SmtpContado smtp;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void preparar() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        correoSalienteRepository.deleteAll();
+        smtp.conexiones.clear();
+        smtp.fallar = false;
+    }
+
+    @Test
+    void encolaEnLaTransaccionYEnviaTrasElCommit() {
+        transactionTemplate.executeWithoutResult(status -> {
+            emailService.sendSimpleEmail("cliente@correo.com", "Cotización SOL-1", "Total a pagar: $450000");
+            // Dentro de la transacción el correo solo está encolado
+            assertThat(GREEN_MAIL.getReceivedMessages()).isEmpty();
+        });
+
+        assertThat(GREEN_MAIL.waitForIncomingEmail(5_000, 1)).isTrue();
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(correoSalienteRepository.findAll())
+                .singleElement()
+                .satisfies(correo -> {
+                    assertThat(correo.getEstado()).isEqualTo(CorreoSaliente.ENVIADO);
+                    assertThat(correo.getIntentos()).isEqualTo(1);
+                    assertThat(correo.getFechaEnvio()).isNotNull();
+                }));
+    }
+
+    @Test
+    void unLoteViajaPorUnaSolaConexion() throws MessagingException {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < 10; i++) {
+                emailService.sendSimpleEmail("cliente" + i + "@correo.com", "Servicio activado SOL-" + i, "Medidor MED-" + i);
+            }
+        });
+
+        assertThat(GREEN_MAIL.waitForIncomingEmail(5_000, 10)).isTrue();
+        assertThat(GREEN_MAIL.getReceivedMessages()).hasSize(10);
+        assertThat(GREEN_MAIL.getReceivedMessages()[0].getFrom()[0].toString()).isEqualTo("pruebas@gascorocora.co");
+        assertThat(smtp.conexiones).hasSize(1);
+    }
+
+    @Test
+    void reintentaConEsperaCrecienteHastaFallido() {
+        smtp.fallar = true;
+        transactionTemplate.executeWithoutResult(status ->
+                emailService.sendSimpleEmail("cliente@correo.com", "Cotización SOL-2", "Total a pagar: $450000"));
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> assertThat(correoSalienteRepository.findAll())
+                .singleElement()
+                .satisfies(correo -> assertThat(correo.getEstado()).isEqualTo(CorreoSaliente.FALLIDO)));
+
+        CorreoSaliente correo = correoSalienteRepository.findAll().get(0);
+        assertThat(correo.getIntentos()).isEqualTo(3);
+        assertThat(correo.getUltimoError()).contains("Servidor SMTP no disponible");
+        // Un intento por conexión, separados por la espera base y luego por el doble
+        assertThat(smtp.conexiones).hasSize(3);
+        assertThat(smtp.conexiones.get(1) - smtp.conexiones.get(0)).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(smtp.conexiones.get(2) - smtp.conexiones.get(1)).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+        assertThat(GREEN_MAIL.getReceivedMessages()).isEmpty();
+    }
+
+    @Test
+    void elRollbackDescartaElCorreo() throws InterruptedException {
+        transactionTemplate.executeWithoutResult(status -> {
+            emailService.sendSimpleEmail("cliente@correo.com", "Solicitud cancelada SOL-3", "Sin respuesta en 5 días");
+            status.setRollbackOnly();
+        });
+        despachadorCorreos.avisar();
+
+        // Varios ciclos del despachador sin nada que enviar
+        Thread.sleep(500);
+        assertThat(correoSalienteRepository.count()).isZero();
+        assertThat(smtp.conexiones).isEmpty();
+        assertThat(GREEN_MAIL.getReceivedMessages()).isEmpty();
+    }
+
+    /**
+     * JavaMailSender hacia GreenMail que registra cada conexión SMTP y puede simular un
+     * servidor caído.
+     */
+    static class SmtpContado extends JavaMailSenderImpl {
+
+        final List<Long> conexiones = new CopyOnWriteArrayList<>();
+        volatile boolean fallar;
+
+        @Override
+        protected Transport connectTransport() throws MessagingException {
+            conexiones.add(System.nanoTime());
+            if (fallar) {
+                throw new MessagingException("Servidor SMTP no disponible");
+            }
+            return super.connectTransport();
+        }
+    }
+
+    @TestConfiguration
+    static class Smtp {
+
+        @Bean
+        SmtpContado mailSender() {
+            SmtpContado mailSender = new SmtpContado();
+            mailSender.setHost("localhost");
+            mailSender.setPort(ServerSetupTest.SMTP.getPort());
+            return mailSender;
+        }
+
+        @Bean
+        TemplateEngine templateEngine() {
+            return new TemplateEngine();
+        }
+    }
+}
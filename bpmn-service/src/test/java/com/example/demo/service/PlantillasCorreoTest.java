@@ -0,0 +1,56 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cada tipo de notificación se renderiza con el motor propio de {@link PlantillasCorreo}, sin
+ * contexto de Spring, igual que al arrancar la aplicación.
+ */
+class PlantillasCorreoTest {
+
+    private static final Map<String, Object> SOLICITUD = Map.of(
+            "solicitudId", "SOL-2025-10001",
+            "montoConexion", 450_000.0,
+            "descuento", 10.0,
+            "montoAPagar", 405_000.0,
+            "problemas", "Fuga en la unión del medidor",
+            "numeroMedidor", "MED-700001");
+
+    private final PlantillasCorreo plantillas = new PlantillasCorreo("es-CO");
+
+    @ParameterizedTest
+    @EnumSource(TipoNotificacion.class)
+    void renderizaCadaTipo(TipoNotificacion tipo) {
+        PlantillasCorreo.CorreoRenderizado correo = plantillas.renderizar(tipo, SOLICITUD);
+
+        assertThat(correo.asunto()).startsWith("Gas Corocora - ");
+        assertThat(correo.cuerpo())
+                .startsWith("Estimado cliente,")
+                .contains("SOL-2025-10001")
+                .doesNotContain("[(", "${");
+    }
+
+    @Test
+    void formateaLosMontosDeLaCotizacion() {
+        String cuerpo = plantillas.renderizar(TipoNotificacion.COTIZACION, SOLICITUD).cuerpo();
+
+        assertThat(cuerpo)
+                .contains("Costo de conexión: $450000,00")
+                .contains("Descuento aplicado: 10%")
+                .contains("Total a pagar: $405000,00");
+    }
+
+    @Test
+    void incluyeLosDatosPropiosDeCadaNotificacion() {
+        assertThat(plantillas.renderizar(TipoNotificacion.PROBLEMAS_INSTALACION, SOLICITUD).cuerpo())
+                .contains("Fuga en la unión del medidor");
+        assertThat(plantillas.renderizar(TipoNotificacion.SERVICIO_ACTIVADO, SOLICITUD).cuerpo())
+                .contains("Número de medidor: MED-700001");
+    }
+}
@@ -0,0 +1,20 @@
+package com.gascorocora.client.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+@Configuration
+public class TransactionalClientConfig {
+
+    @Value("${transactional.service.url}")
+    private String transactionalServiceUrl;
+
+    @Bean
+    public WebClient transactionalWebClient() {
+        return WebClient.builder()
+                .baseUrl(transactionalServiceUrl)
+                .build();
+    }
+}
@@ -0,0 +1,74 @@
+package com.gascorocora.client.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Genera business keys SOL-N únicas. Reserva bloques de números en transactional-service
+ * y los entrega en memoria sin bloqueo; solo el recambio de bloque se sincroniza.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BusinessKeyService {
+
+    private static final int TAMANO_BLOQUE = 50;
+
+    private final WebClient transactionalWebClient;
+    private volatile Bloque actual = new Bloque(1, 0);
+
+    public String nextBusinessKey() {
+        return "SOL-" + siguiente();
+    }
+
+    private long siguiente() {
+        while (true) {
+            Bloque bloque = actual;
+            long valor = bloque.siguiente.getAndIncrement();
+            if (valor <= bloque.fin) {
+                return valor;
+            }
+            synchronized (this) {
+                if (actual == bloque) {
+                    actual = reservarBloque();
+                }
+            }
+        }
+    }
+
+    private Bloque reservarBloque() {
+        Map<String, Object> bloque = transactionalWebClient.post()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/identificadores/SOLICITUD/bloque")
+                        .queryParam("tamano", TAMANO_BLOQUE)
+                        .build())
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
+                .block();
+
+        if (bloque == null) {
+            throw new RuntimeException("No se pudo reservar un bloque de business keys");
+        }
+        long inicio = ((Number) bloque.get("inicio")).longValue();
+        long fin = ((Number) bloque.get("fin")).longValue();
+        log.debug("Bloque de business keys reservado: {} - {}", inicio, fin);
+        return new Bloque(inicio, fin);
+    }
+
+    private static final class Bloque {
+
+        private final AtomicLong siguiente;
+        private final long fin;
+
+        private Bloque(long inicio, long fin) {
+            this.siguiente = new AtomicLong(inicio);
+            this.fin = fin;
+        }
+    }
+}
@@ -14,6 +14,7 @@ import java.util.*;
 public class ProcessService {
 
     private final WebClient camundaWebClient;
+    private final BusinessKeyService businessKeyService;
 
     public Map<String, Object> getProcessInstanceByBusinessKey(String businessKey) {
         List<Map<String, Object>> instances = camundaWebClient.get()
@@ -44,7 +45,7 @@ public class ProcessService {
 
     public Map<String, Object> startNewRequest(String nombre, String cedula, String direccion, 
                                                String telefono, String email, String estrato) {
-        String businessKey = "SOL-" + System.currentTimeMillis();
+        String businessKey = businessKeyService.nextBusinessKey();
         
         Map<String, Object> variables = new HashMap<>();
         variables.put("nombreCliente", Map.of("value", nombre, "type", "String"));
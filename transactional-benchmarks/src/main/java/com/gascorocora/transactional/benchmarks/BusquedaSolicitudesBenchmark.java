@@ -0,0 +1,47 @@
+package com.gascorocora.transactional.benchmarks;
+
+import com.gascorocora.transactional.dto.PaginaBusqueda;
+import com.gascorocora.transactional.dto.PaginaSolicitudes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lecturas por índice sobre solicitudes: búsqueda por cédula, por estado y rango de fechas,
+ * y la primera página del listado por keyset. Con los índices compuestos el tiempo debe
+ * mantenerse casi plano entre 10k y 1M filas.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class BusquedaSolicitudesBenchmark {
+
+    private static final int LIMITE = 50;
+
+    @Benchmark
+    public PaginaBusqueda buscarPorCedula(EntornoTransactional entorno) {
+        return entorno.solicitudService.buscar(entorno.cedulaAleatoria(), null, null, null, null, LIMITE);
+    }
+
+    @Benchmark
+    public PaginaBusqueda buscarPorEstadoYRango(EntornoTransactional entorno) {
+        String estado = DatosSemilla.ESTADOS[ThreadLocalRandom.current().nextInt(DatosSemilla.ESTADOS.length)];
+        LocalDateTime desde = entorno.inicioDatos.plusDays(ThreadLocalRandom.current().nextInt(358));
+        return entorno.solicitudService.buscar(null, estado, desde, desde.plusDays(7), null, LIMITE);
+    }
+
+    @Benchmark
+    public PaginaSolicitudes primeraPagina(EntornoTransactional entorno) {
+        return entorno.solicitudService.obtenerPagina(null, LIMITE);
+    }
+}
@@ -0,0 +1,46 @@
+package com.gascorocora.transactional.benchmarks;
+
+import com.gascorocora.transactional.dto.ClienteDTO;
+import com.gascorocora.transactional.model.Cliente;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Upsert de clientes por cédula: rama de actualización (cédula existente) y de alta.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class ClienteServiceBenchmark {
+
+    @Benchmark
+    public Cliente registrarClienteExistente(EntornoTransactional entorno) {
+        return entorno.clienteService.registrarCliente(cliente(entorno.indiceAleatorio()));
+    }
+
+    @Benchmark
+    public Cliente registrarClienteNuevo(EntornoTransactional entorno) {
+        return entorno.clienteService.registrarCliente(cliente(entorno.indiceNuevo()));
+    }
+
+    private ClienteDTO cliente(long indice) {
+        ClienteDTO dto = new ClienteDTO();
+        dto.setCedula(DatosSemilla.cedula(indice));
+        dto.setNombre("Cliente " + indice);
+        dto.setDireccion("Carrera " + (indice % 150) + " # " + (indice % 89));
+        dto.setCiudad("Villavicencio");
+        dto.setEstrato((int) (indice % 6) + 1);
+        dto.setTelefono("3" + (100_000_000 + indice));
+        dto.setEmail("cliente" + indice + "@correo.com");
+        return dto;
+    }
+}
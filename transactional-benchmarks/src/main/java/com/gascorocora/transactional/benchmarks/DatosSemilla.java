@@ -0,0 +1,107 @@
+package com.gascorocora.transactional.benchmarks;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Carga filas sintéticas directamente por JDBC en lotes, sin pasar por los servicios, para que
+ * la preparación de 1M de filas no domine el tiempo de cada trial. Las claves son
+ * deterministas (BENCH-0000001, cédula 1000000001...) para que los benchmarks puedan elegir
+ * registros existentes al azar.
+ */
+final class DatosSemilla {
+
+    static final String[] ESTADOS = {"INICIADO", "COTIZADO", "PAGADO", "ACTIVADO"};
+
+    private static final int FILAS_POR_LOTE = 10_000;
+    private static final long CEDULA_BASE = 1_000_000_000L;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    DatosSemilla(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    static String businessKey(long indice) {
+        return String.format("BENCH-%07d", indice);
+    }
+
+    static String cedula(long indice) {
+        return String.valueOf(CEDULA_BASE + indice);
+    }
+
+    /**
+     * Fecha de creación de la fila {@code indice}: repartidas en el último año y crecientes
+     * con el id, como en producción.
+     */
+    static LocalDateTime fechaCreacion(LocalDateTime inicio, long indice, int filas) {
+        return inicio.plusSeconds(indice * (365L * 24 * 3600) / filas);
+    }
+
+    void cargar(int filas, LocalDateTime inicio) {
+        cargarClientes(filas);
+        cargarSolicitudes(filas, inicio);
+        cargarFacturacion(filas / 2, inicio);
+    }
+
+    private void cargarClientes(int filas) {
+        String sql = "INSERT INTO clientes (id, cedula, nombre, direccion, ciudad, estrato, telefono, email, " +
+                "fecha_registro, activo) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        insertar(sql, filas, i -> new Object[]{
+                i, cedula(i), "Cliente " + i, "Calle " + (i % 200) + " # " + (i % 97) + "-" + (i % 53),
+                "Villavicencio", (int) (i % 6) + 1, "3" + (100_000_000 + i), "cliente" + i + "@correo.com",
+                ahora, true});
+    }
+
+    private void cargarSolicitudes(int filas, LocalDateTime inicio) {
+        String sql = "INSERT INTO solicitudes (id, business_key, nombre_cliente, cedula_cliente, direccion, " +
+                "telefono, email, estrato, cobertura, cotizacion, pagado, estado, fecha_creacion, " +
+                "fecha_actualizacion, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        insertar(sql, filas, i -> {
+            Timestamp fecha = Timestamp.valueOf(fechaCreacion(inicio, i, filas));
+            return new Object[]{
+                    i, businessKey(i), "Cliente " + i, cedula(i), "Calle " + (i % 200) + " # " + (i % 97),
+                    "3" + (100_000_000 + i), "cliente" + i + "@correo.com", (int) (i % 6) + 1,
+                    true, 850_000.0 + (i % 1000), i % 2 == 0, ESTADOS[(int) (i % ESTADOS.length)],
+                    fecha, fecha, 0L};
+        });
+    }
+
+    private void cargarFacturacion(int filas, LocalDateTime inicio) {
+        String sql = "INSERT INTO facturacion (id, business_key, cedula_cliente, monto_recibido, metodo_pago, " +
+                "numero_transaccion, fecha_pago, numero_servicio, fecha_activacion, estado, fecha_registro) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        insertar(sql, filas, i -> {
+            Timestamp fecha = Timestamp.valueOf(fechaCreacion(inicio, i, filas));
+            boolean activado = i % 2 == 0;
+            return new Object[]{
+                    i, businessKey(i), cedula(i), 850_000.0 + (i % 1000), "PSE", "TX-" + i, fecha,
+                    activado ? String.format("GC-%06d-%04d", i / 10_000, i % 10_000) : null,
+                    activado ? fecha : null, activado ? "ACTIVADO" : "PAGADO", fecha};
+        });
+    }
+
+    private void insertar(String sql, int filas, Fila fila) {
+        List<Object[]> lote = new ArrayList<>(FILAS_POR_LOTE);
+        for (long i = 1; i <= filas; i++) {
+            lote.add(fila.valores(i));
+            if (lote.size() == FILAS_POR_LOTE) {
+                jdbcTemplate.batchUpdate(sql, lote);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, lote);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Fila {
+        Object[] valores(long indice);
+    }
+}
@@ -0,0 +1,86 @@
+package com.gascorocora.transactional.benchmarks;
+
+import com.gascorocora.transactional.TransactionalApplication;
+import com.gascorocora.transactional.config.SecuenciasInitializer;
+import com.gascorocora.transactional.service.ClienteService;
+import com.gascorocora.transactional.service.SolicitudService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contexto completo de transactional-service sobre una H2 en memoria sembrada con
+ * {@code filas} solicitudes y clientes (y la mitad de facturaciones). Se levanta una vez por
+ * trial, de modo que cada tamaño parte de una base limpia.
+ */
+@State(Scope.Benchmark)
+public class EntornoTransactional {
+
+    @Param({"10000", "100000", "1000000"})
+    public int filas;
+
+    public SolicitudService solicitudService;
+    public ClienteService clienteService;
+    public LocalDateTime inicioDatos;
+
+    private ConfigurableApplicationContext contexto;
+    private final AtomicLong siguienteNueva = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        // Argumentos de línea de comandos: tienen prioridad sobre application.properties
+        contexto = new SpringApplicationBuilder(TransactionalApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmarks;DB_CLOSE_DELAY=-1;LAZY_QUERY_EXECUTION=1",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.h2.console.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.gascorocora=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN");
+
+        inicioDatos = LocalDateTime.now().minusDays(365);
+        new DatosSemilla(contexto.getBean(JdbcTemplate.class)).cargar(filas, inicioDatos);
+        contexto.getBean(SecuenciasInitializer.class).alinearSecuencias();
+        siguienteNueva.set(filas);
+
+        solicitudService = contexto.getBean(SolicitudService.class);
+        clienteService = contexto.getBean(ClienteService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    public long indiceAleatorio() {
+        return ThreadLocalRandom.current().nextLong(1, filas + 1);
+    }
+
+    public String businessKeyAleatoria() {
+        return DatosSemilla.businessKey(indiceAleatorio());
+    }
+
+    public String cedulaAleatoria() {
+        return DatosSemilla.cedula(indiceAleatorio());
+    }
+
+    /**
+     * Índice aún no usado, para los benchmarks que insertan filas nuevas.
+     */
+    public long indiceNuevo() {
+        return siguienteNueva.incrementAndGet();
+    }
+}
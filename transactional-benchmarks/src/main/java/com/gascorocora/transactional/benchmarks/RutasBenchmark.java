@@ -0,0 +1,84 @@
+package com.gascorocora.transactional.benchmarks;
+
+import com.gascorocora.transactional.service.OptimizadorRutas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calidad de los itinerarios frente al tiempo de cómputo. Cada parámetro de plazo limita la
+ * mejora local (0 = solo vecino más cercano); el tiempo lo mide JMH y al final de cada prueba
+ * se imprime la distancia media relativa al vecino más cercano sobre el mismo conjunto de días.
+ * Las paradas se generan con semilla fija dentro de Villavicencio, con origen en una base.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RutasBenchmark {
+
+    private static final int DIAS = 32;
+
+    @Param({"10", "25", "50", "100"})
+    public int paradas;
+
+    @Param({"0", "1", "10", "100"})
+    public int plazoMs;
+
+    private final OptimizadorRutas optimizador = new OptimizadorRutas();
+    private double[][][] dias;
+    private double[] distanciaVecino;
+    private double sumaRelativa;
+    private long corridas;
+    private int siguiente;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random random = new Random(42);
+        dias = new double[DIAS][][];
+        distanciaVecino = new double[DIAS];
+        for (int d = 0; d < DIAS; d++) {
+            double[] latitudes = new double[paradas + 1];
+            double[] longitudes = new double[paradas + 1];
+            latitudes[0] = 4.142;
+            longitudes[0] = -73.626;
+            for (int i = 1; i <= paradas; i++) {
+                latitudes[i] = 4.08 + random.nextDouble() * 0.12;
+                longitudes[i] = -73.70 + random.nextDouble() * 0.15;
+            }
+            dias[d] = OptimizadorRutas.matrizDistancias(latitudes, longitudes);
+            distanciaVecino[d] = optimizador.vecinoMasCercanoSolo(dias[d]).distancia();
+        }
+    }
+
+    @Benchmark
+    public OptimizadorRutas.Recorrido optimizar() {
+        int dia = siguiente++ & (DIAS - 1);
+        OptimizadorRutas.Recorrido recorrido = optimizador.optimizar(dias[dia],
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(plazoMs));
+        sumaRelativa += recorrido.distancia() / distanciaVecino[dia];
+        corridas++;
+        return recorrido;
+    }
+
+    @TearDown(Level.Trial)
+    public void reportarCalidad() {
+        System.out.printf("%n[calidad] paradas=%d plazoMs=%d distancia/vecino-mas-cercano=%.4f (%d corridas)%n",
+                paradas, plazoMs, sumaRelativa / corridas, corridas);
+    }
+}
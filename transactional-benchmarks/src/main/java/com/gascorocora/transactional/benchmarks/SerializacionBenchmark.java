@@ -0,0 +1,84 @@
+package com.gascorocora.transactional.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.gascorocora.transactional.dto.FacturacionResumen;
+import com.gascorocora.transactional.dto.SolicitudResumen;
+import com.gascorocora.transactional.model.Facturacion;
+import com.gascorocora.transactional.model.Solicitud;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización JSON de las entidades completas frente a sus proyecciones resumen, con un
+ * ObjectMapper configurado como el de Spring Boot. No necesita base de datos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacionBenchmark {
+
+    private ObjectWriter solicitudWriter;
+    private ObjectWriter facturacionWriter;
+    private ObjectWriter solicitudResumenWriter;
+    private ObjectWriter facturacionResumenWriter;
+    private Solicitud solicitud;
+    private Facturacion facturacion;
+    private SolicitudResumen solicitudResumen;
+    private FacturacionResumen facturacionResumen;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        var objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        solicitudWriter = objectMapper.writerFor(Solicitud.class);
+        facturacionWriter = objectMapper.writerFor(Facturacion.class);
+        solicitudResumenWriter = objectMapper.writerFor(SolicitudResumen.class);
+        facturacionResumenWriter = objectMapper.writerFor(FacturacionResumen.class);
+
+        LocalDateTime ahora = LocalDateTime.now();
+        solicitud = new Solicitud(1234567L, "BENCH-1234567", "María Fernanda Peña", "1000123456",
+                "Calle 37 # 29-45 Barrio Barzal", "3101234567", "maria.pena@correo.com", 3, true,
+                1_250_000.0, "APROBADA", "PENDIENTE", true, "PAGADO", ahora, ahora, 4L);
+        facturacion = new Facturacion(7654321L, "BENCH-1234567", "1000123456", 1_250_000.0, "PSE",
+                "TX-98765432", ahora, "https://comprobantes.gascorocora.co/TX-98765432.pdf",
+                "Pago recibido sin novedad", "GC-000123-4567", ahora, "ACTIVADO", ahora, ahora);
+        solicitudResumen = SolicitudResumen.de(solicitud);
+        facturacionResumen = FacturacionResumen.de(facturacion);
+    }
+
+    @Benchmark
+    public byte[] solicitud() throws JsonProcessingException {
+        return solicitudWriter.writeValueAsBytes(solicitud);
+    }
+
+    @Benchmark
+    public byte[] facturacion() throws JsonProcessingException {
+        return facturacionWriter.writeValueAsBytes(facturacion);
+    }
+
+    @Benchmark
+    public byte[] solicitudResumen() throws JsonProcessingException {
+        return solicitudResumenWriter.writeValueAsBytes(solicitudResumen);
+    }
+
+    @Benchmark
+    public byte[] facturacionResumen() throws JsonProcessingException {
+        return facturacionResumenWriter.writeValueAsBytes(facturacionResumen);
+    }
+}
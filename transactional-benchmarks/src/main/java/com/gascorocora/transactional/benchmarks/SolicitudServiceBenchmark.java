@@ -0,0 +1,69 @@
+package com.gascorocora.transactional.benchmarks;
+
+import com.gascorocora.transactional.dto.SolicitudDTO;
+import com.gascorocora.transactional.dto.SolicitudPatchDTO;
+import com.gascorocora.transactional.model.Solicitud;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escritura de solicitudes: alta y las actualizaciones de un campo que hacen find-then-save,
+ * junto al PATCH por UPDATE directo como referencia.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class SolicitudServiceBenchmark {
+
+    @Benchmark
+    public Solicitud crearSolicitud(EntornoTransactional entorno) {
+        long indice = entorno.indiceNuevo();
+        SolicitudDTO dto = new SolicitudDTO();
+        dto.setBusinessKey(DatosSemilla.businessKey(indice));
+        dto.setNombreCliente("Cliente " + indice);
+        dto.setCedulaCliente(DatosSemilla.cedula(indice));
+        dto.setDireccion("Calle " + (indice % 200) + " # " + (indice % 97));
+        dto.setTelefono("3" + (100_000_000 + indice));
+        dto.setEmail("cliente" + indice + "@correo.com");
+        dto.setEstrato((int) (indice % 6) + 1);
+        return entorno.solicitudService.crearSolicitud(dto);
+    }
+
+    @Benchmark
+    public Solicitud actualizarCotizacion(EntornoTransactional entorno) {
+        return entorno.solicitudService.actualizarCotizacion(entorno.businessKeyAleatoria(),
+                800_000.0 + ThreadLocalRandom.current().nextInt(100_000));
+    }
+
+    @Benchmark
+    public Solicitud actualizarEstado(EntornoTransactional entorno) {
+        String estado = DatosSemilla.ESTADOS[ThreadLocalRandom.current().nextInt(DatosSemilla.ESTADOS.length)];
+        return entorno.solicitudService.actualizarEstado(entorno.businessKeyAleatoria(), estado);
+    }
+
+    @Benchmark
+    public Solicitud registrarPago(EntornoTransactional entorno) {
+        return entorno.solicitudService.registrarPago(entorno.businessKeyAleatoria(),
+                ThreadLocalRandom.current().nextBoolean());
+    }
+
+    @Benchmark
+    public long actualizarParcialCotizacion(EntornoTransactional entorno) {
+        // Como un cliente: lee la versión (GET, en caché) y la envía como esperada en el PATCH
+        String businessKey = entorno.businessKeyAleatoria();
+        long version = entorno.solicitudService.obtenerSolicitud(businessKey).getVersion();
+        SolicitudPatchDTO patch = new SolicitudPatchDTO();
+        patch.setCotizacion(800_000.0 + ThreadLocalRandom.current().nextInt(100_000));
+        return entorno.solicitudService.actualizarParcial(businessKey, patch, version);
+    }
+}
@@ -0,0 +1,36 @@
+package com.gascorocora.transactional.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Caché en proceso para las consultas por clave más frecuentes. Con
+ * {@code transactional.cache.enabled=false} no se habilita el caching y los
+ * {@code @Cacheable} consultan siempre la base de datos.
+ */
+@Configuration
+@EnableCaching
+@ConditionalOnProperty(name = "transactional.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheConfig {
+
+    public static final String SOLICITUDES = "solicitudes";
+    public static final String CLIENTES = "clientes";
+    public static final String FACTURACION = "facturacion";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${transactional.cache.spec}") String spec) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+        caffeineCacheManager.setCacheSpecification(spec);
+        caffeineCacheManager.setCacheNames(List.of(SOLICITUDES, CLIENTES, FACTURACION));
+        // Las invalidaciones se aplican tras el commit para no recachear datos aún no confirmados
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
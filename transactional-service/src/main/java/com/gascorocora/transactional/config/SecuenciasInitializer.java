@@ -0,0 +1,61 @@
+package com.gascorocora.transactional.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Alinea las secuencias de IDs con los datos existentes. Las tablas creadas antes del
+ * cambio a IDs por secuencia ya tienen filas con IDs de columna IDENTITY, por lo que la
+ * secuencia debe arrancar por encima del máximo actual.
+ *
+ * <p>Se ejecuta al terminar de crear los singletons, con el esquema ya actualizado por
+ * Hibernate y antes de que arranque el servidor web, así que ninguna petición inserta con
+ * la secuencia sin alinear.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SecuenciasInitializer implements SmartInitializingSingleton {
+
+    // Debe coincidir con el allocationSize de los @SequenceGenerator
+    private static final int TAMANO_ASIGNACION = 50;
+
+    private static final Map<String, String> SECUENCIAS = Map.of(
+            "clientes_seq", "clientes",
+            "solicitudes_seq", "solicitudes",
+            "facturacion_seq", "facturacion"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        alinearSecuencias();
+    }
+
+    public void alinearSecuencias() {
+        SECUENCIAS.forEach(this::alinearSecuencia);
+    }
+
+    private void alinearSecuencia(String secuencia, String tabla) {
+        long maximoId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + tabla, Long.class);
+        List<Long> siguiente = jdbcTemplate.queryForList(
+                "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = ?",
+                Long.class, secuencia.toUpperCase());
+
+        // Con el optimizador pooled el valor de la secuencia es el límite superior del bloque
+        long reinicio = maximoId + TAMANO_ASIGNACION;
+        if (maximoId == 0 || siguiente.isEmpty() || siguiente.get(0) >= reinicio) {
+            return;
+        }
+
+        jdbcTemplate.execute("ALTER SEQUENCE " + secuencia + " RESTART WITH " + reinicio);
+        log.info("Secuencia {} reiniciada en {} (máximo id en {}: {})", secuencia, reinicio, tabla, maximoId);
+    }
+}
@@ -0,0 +1,109 @@
+package com.gascorocora.transactional.controller;
+
+import com.gascorocora.transactional.dto.ItinerarioTecnico;
+import com.gascorocora.transactional.dto.PropuestaCita;
+import com.gascorocora.transactional.dto.ReservaCita;
+import com.gascorocora.transactional.dto.SolicitudCita;
+import com.gascorocora.transactional.model.CitaTecnica;
+import com.gascorocora.transactional.model.Tecnico;
+import com.gascorocora.transactional.service.AgendaService;
+import com.gascorocora.transactional.service.RutasService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/agenda")
+@RequiredArgsConstructor
+public class AgendaController {
+
+    private final AgendaService agendaService;
+    private final RutasService rutasService;
+
+    @PostMapping("/tecnicos")
+    public ResponseEntity<Tecnico> registrarTecnico(@RequestBody Tecnico tecnico) {
+        try {
+            return ResponseEntity.ok(agendaService.registrarTecnico(tecnico));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/tecnicos")
+    public ResponseEntity<List<Tecnico>> obtenerTecnicos() {
+        return ResponseEntity.ok(agendaService.obtenerTecnicos());
+    }
+
+    @GetMapping("/tecnicos/{id}/citas")
+    public ResponseEntity<List<CitaTecnica>> obtenerCitasTecnico(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta) {
+        return ResponseEntity.ok(agendaService.obtenerCitasTecnico(id, desde, hasta));
+    }
+
+    /**
+     * Propone en bloque el primer horario libre para cada solicitud, en el mismo orden. No
+     * reserva: el agente confirma con POST /citas.
+     */
+    @PostMapping("/propuestas")
+    public ResponseEntity<List<PropuestaCita>> proponer(@RequestBody List<SolicitudCita> peticiones) {
+        return ResponseEntity.ok(agendaService.proponer(peticiones));
+    }
+
+    @PostMapping("/citas")
+    public ResponseEntity<CitaTecnica> reservar(@RequestBody ReservaCita reserva) {
+        try {
+            return ResponseEntity.ok(agendaService.reservar(reserva));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/citas/primera")
+    public ResponseEntity<CitaTecnica> reservarPrimera(@RequestBody SolicitudCita peticion) {
+        try {
+            return ResponseEntity.ok(agendaService.reservarPrimera(peticion));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @GetMapping("/citas")
+    public ResponseEntity<List<CitaTecnica>> obtenerCitasSolicitud(@RequestParam String businessKey) {
+        return ResponseEntity.ok(agendaService.obtenerCitasSolicitud(businessKey));
+    }
+
+    @DeleteMapping("/citas/{id}")
+    public ResponseEntity<Void> cancelar(@PathVariable Long id) {
+        try {
+            agendaService.cancelar(id);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Ordena el recorrido del día de cada técnico. Con aplicar=true reprograma las citas a los
+     * horarios del itinerario optimizado.
+     */
+    @PostMapping("/itinerarios/{fecha}")
+    public ResponseEntity<List<ItinerarioTecnico>> optimizarItinerarios(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
+            @RequestParam(defaultValue = "false") boolean aplicar) {
+        return ResponseEntity.ok(rutasService.optimizar(fecha, aplicar));
+    }
+}
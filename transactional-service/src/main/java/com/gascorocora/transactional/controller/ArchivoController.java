@@ -0,0 +1,23 @@
+package com.gascorocora.transactional.controller;
+
+import com.gascorocora.transactional.dto.ResultadoArchivo;
+import com.gascorocora.transactional.service.ArchivoService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/archivo")
+@RequiredArgsConstructor
+@Slf4j
+public class ArchivoController {
+
+    private final ArchivoService archivoService;
+
+    @PostMapping("/ejecutar")
+    public ResponseEntity<ResultadoArchivo> ejecutar() {
+        log.info("REST: Ejecutando archivo de registros terminados");
+        return ResponseEntity.ok(archivoService.archivar());
+    }
+}
@@ -0,0 +1,25 @@
+package com.gascorocora.transactional.controller;
+
+import com.gascorocora.transactional.dto.ResultadoBusqueda;
+import com.gascorocora.transactional.service.IndiceBusquedaService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/busqueda")
+@RequiredArgsConstructor
+public class BusquedaController {
+
+    private final IndiceBusquedaService indiceBusquedaService;
+
+    @GetMapping
+    public ResponseEntity<List<ResultadoBusqueda>> buscar(@RequestParam("q") String texto,
+                                                          @RequestParam(defaultValue = "20") int limite) {
+        return ResponseEntity.ok()
+                .header("X-Indice-Listo", String.valueOf(indiceBusquedaService.isListo()))
+                .body(indiceBusquedaService.buscar(texto, limite));
+    }
+}
@@ -0,0 +1,47 @@
+package com.gascorocora.transactional.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final ObjectProvider<CacheManager> cacheManagerProvider;
+
+    @GetMapping("/estadisticas")
+    public ResponseEntity<Map<String, Object>> obtenerEstadisticas() {
+        Map<String, Object> respuesta = new LinkedHashMap<>();
+        CacheManager cacheManager = cacheManagerProvider.getIfAvailable();
+        respuesta.put("habilitada", cacheManager != null);
+        if (cacheManager == null) {
+            return ResponseEntity.ok(respuesta);
+        }
+
+        for (String nombre : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(nombre);
+            if (cache != null && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativa) {
+                CacheStats stats = nativa.stats();
+                Map<String, Object> detalle = new LinkedHashMap<>();
+                detalle.put("entradas", nativa.estimatedSize());
+                detalle.put("aciertos", stats.hitCount());
+                detalle.put("fallos", stats.missCount());
+                detalle.put("desalojos", stats.evictionCount());
+                detalle.put("tasaAciertos", stats.hitRate());
+                respuesta.put(nombre, detalle);
+            }
+        }
+        return ResponseEntity.ok(respuesta);
+    }
+}
@@ -0,0 +1,38 @@
+package com.gascorocora.transactional.controller;
+
+import com.gascorocora.transactional.dto.PaginaCambios;
+import com.gascorocora.transactional.service.FeedCambiosService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/cambios")
+@RequiredArgsConstructor
+public class CambiosController {
+
+    private final FeedCambiosService feedCambiosService;
+
+    /**
+     * Long-poll: con esperaMs > 0 la petición queda abierta hasta que haya eventos después
+     * de {@code desde}. El cliente continúa con el siguientePosicion de la respuesta.
+     */
+    @GetMapping
+    public DeferredResult<PaginaCambios> obtenerCambios(
+            @RequestParam(defaultValue = "0") long desde,
+            @RequestParam(defaultValue = "100") int limite,
+            @RequestParam(defaultValue = "0") long esperaMs) {
+        return feedCambiosService.esperar(desde, limite, esperaMs);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter suscribir(
+            @RequestParam(required = false) Long desde,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long ultimoEvento) {
+        // Al reconectar, el navegador envía Last-Event-ID con la última posición recibida
+        long posicion = ultimoEvento != null ? ultimoEvento : (desde != null ? desde : 0);
+        return feedCambiosService.suscribir(posicion);
+    }
+}
@@ -0,0 +1,51 @@
+package com.gascorocora.transactional.controller;
+
+import com.gascorocora.transactional.dto.ResumenCicloFacturacion;
+import com.gascorocora.transactional.service.CicloFacturacionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+
+@RestController
+@RequestMapping("/api/ciclos-facturacion")
+@RequiredArgsConstructor
+@Slf4j
+public class CicloFacturacionController {
+
+    private final CicloFacturacionService cicloFacturacionService;
+
+    /**
+     * Inicia (o reanuda) en segundo plano el ciclo del periodo yyyy-MM. El avance se consulta
+     * con GET sobre el mismo recurso.
+     */
+    @PostMapping("/{periodo}")
+    public ResponseEntity<Void> iniciarCiclo(@PathVariable String periodo) {
+        YearMonth mes;
+        try {
+            mes = YearMonth.parse(periodo);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        log.info("REST: Iniciando ciclo de facturación {}", mes);
+        if (!cicloFacturacionService.iniciar(mes)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.accepted().build();
+    }
+
+    @GetMapping("/{periodo}")
+    public ResponseEntity<ResumenCicloFacturacion> obtenerCiclo(@PathVariable String periodo) {
+        try {
+            return ResponseEntity.ok(cicloFacturacionService.obtenerResumen(YearMonth.parse(periodo)));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
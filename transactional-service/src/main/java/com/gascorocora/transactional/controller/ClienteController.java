@@ -1,13 +1,20 @@
 package com.gascorocora.transactional.controller;
 
 import com.gascorocora.transactional.dto.ClienteDTO;
+import com.gascorocora.transactional.dto.ClienteResumen;
+import com.gascorocora.transactional.dto.ResultadoCargaMasiva;
 import com.gascorocora.transactional.model.Cliente;
+import com.gascorocora.transactional.service.CargaMasivaService;
 import com.gascorocora.transactional.service.ClienteService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+
 @RestController
 @RequestMapping("/api/clientes")
 @RequiredArgsConstructor
@@ -15,6 +22,7 @@ import org.springframework.web.bind.annotation.*;
 public class ClienteController {
 
     private final ClienteService clienteService;
+    private final CargaMasivaService cargaMasivaService;
 
     @PostMapping
     public ResponseEntity<Cliente> registrarCliente(@RequestBody ClienteDTO clienteDTO) {
@@ -23,10 +31,29 @@ public class ClienteController {
         return ResponseEntity.ok(cliente);
     }
 
+    @PostMapping(params = "view=summary")
+    public ResponseEntity<ClienteResumen> registrarClienteResumen(@RequestBody ClienteDTO clienteDTO) {
+        log.info("REST: Registrando cliente {}", clienteDTO.getCedula());
+        return ResponseEntity.ok(ClienteResumen.de(clienteService.registrarCliente(clienteDTO)));
+    }
+
+    @PostMapping(value = "/lote", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ResultadoCargaMasiva> registrarClientes(HttpServletRequest request) throws IOException {
+        log.info("REST: Carga masiva de clientes");
+        return ResponseEntity.ok(cargaMasivaService.cargarClientes(request.getInputStream()));
+    }
+
     @GetMapping("/{cedula}")
     public ResponseEntity<Cliente> obtenerCliente(@PathVariable String cedula) {
         return clienteService.obtenerPorCedula(cedula)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    @GetMapping(value = "/{cedula}", params = "view=summary")
+    public ResponseEntity<ClienteResumen> obtenerClienteResumen(@PathVariable String cedula) {
+        return clienteService.obtenerResumenPorCedula(cedula)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
 }
@@ -0,0 +1,45 @@
+package com.gascorocora.transactional.controller;
+
+import com.gascorocora.transactional.dto.CoberturaResponse;
+import com.gascorocora.transactional.dto.ConsultaCobertura;
+import com.gascorocora.transactional.dto.EstadoCobertura;
+import com.gascorocora.transactional.service.CoberturaService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cobertura")
+@RequiredArgsConstructor
+public class CoberturaController {
+
+    private final CoberturaService coberturaService;
+
+    @GetMapping
+    public ResponseEntity<CoberturaResponse> verificar(@RequestParam Double latitud,
+                                                       @RequestParam Double longitud) {
+        try {
+            return ResponseEntity.ok(coberturaService.verificar(latitud, longitud));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new CoberturaResponse(false, e.getMessage(), null));
+        }
+    }
+
+    @PostMapping("/lote")
+    public ResponseEntity<List<CoberturaResponse>> verificarLote(@RequestBody List<ConsultaCobertura> consultas) {
+        return ResponseEntity.ok(coberturaService.verificarLote(consultas));
+    }
+
+    @GetMapping("/estado")
+    public ResponseEntity<EstadoCobertura> obtenerEstado() {
+        return ResponseEntity.ok(coberturaService.obtenerEstado());
+    }
+
+    @PostMapping("/recargar")
+    public ResponseEntity<EstadoCobertura> recargar() {
+        coberturaService.recargarSiCambio();
+        return ResponseEntity.ok(coberturaService.obtenerEstado());
+    }
+}
@@ -0,0 +1,37 @@
+package com.gascorocora.transactional.controller;
+
+import com.gascorocora.transactional.dto.ResultadoConciliacion;
+import com.gascorocora.transactional.service.ConciliacionBancariaService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/conciliaciones")
+@RequiredArgsConstructor
+@Slf4j
+public class ConciliacionController {
+
+    private final ConciliacionBancariaService conciliacionService;
+
+    // El cuerpo de la petición es el extracto tal como lo entrega el banco
+    @PostMapping
+    public ResponseEntity<ResultadoConciliacion> conciliarContenido(HttpServletRequest request) throws IOException {
+        log.info("REST: Conciliando extracto recibido");
+        return ResponseEntity.ok(conciliacionService.conciliarContenido(request.getInputStream()));
+    }
+
+    @PostMapping("/archivo")
+    public ResponseEntity<ResultadoConciliacion> conciliarArchivo(@RequestParam String nombre) throws IOException {
+        log.info("REST: Conciliando extracto {}", nombre);
+        try {
+            return ResponseEntity.ok(conciliacionService.conciliarArchivo(nombre));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.gascorocora.transactional.controller;
+
+import com.gascorocora.transactional.dto.EstadisticasResponse;
+import com.gascorocora.transactional.service.EstadisticasService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/estadisticas")
+@RequiredArgsConstructor
+@Slf4j
+public class EstadisticasController {
+
+    private final EstadisticasService estadisticasService;
+
+    @GetMapping
+    public ResponseEntity<EstadisticasResponse> obtenerEstadisticas() {
+        return ResponseEntity.ok(estadisticasService.obtenerEstadisticas());
+    }
+
+    @PostMapping("/reconciliar")
+    public ResponseEntity<EstadisticasResponse> reconciliar() {
+        log.info("REST: Reconciliando estadísticas");
+        estadisticasService.reconciliar();
+        return ResponseEntity.ok(estadisticasService.obtenerEstadisticas());
+    }
+}
@@ -1,12 +1,27 @@
 package com.gascorocora.transactional.controller;
 
 import com.gascorocora.transactional.dto.FacturacionDTO;
+import com.gascorocora.transactional.dto.FacturacionResumen;
 import com.gascorocora.transactional.model.Facturacion;
+import com.gascorocora.transactional.service.ExportacionFacturacionService;
 import com.gascorocora.transactional.service.FacturacionService;
+import com.gascorocora.transactional.service.IdempotenciaService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/facturacion")
@@ -14,21 +29,56 @@ import org.springframework.web.bind.annotation.*;
 @Slf4j
 public class FacturacionController {
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final FacturacionService facturacionService;
+    private final IdempotenciaService idempotenciaService;
+    private final ExportacionFacturacionService exportacionFacturacionService;
 
     @PostMapping("/pago")
-    public ResponseEntity<Facturacion> registrarPago(@RequestBody FacturacionDTO facturacionDTO) {
+    public ResponseEntity<Facturacion> registrarPago(@RequestBody FacturacionDTO facturacionDTO,
+                                                     @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String claveIdempotencia) {
+        log.info("REST: Registrando pago para {}", facturacionDTO.getBusinessKey());
+        try {
+            return ResponseEntity.ok(registrarPagoIdempotente(facturacionDTO, claveIdempotencia));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @PostMapping(value = "/pago", params = "view=summary")
+    public ResponseEntity<FacturacionResumen> registrarPagoResumen(@RequestBody FacturacionDTO facturacionDTO,
+                                                                   @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String claveIdempotencia) {
         log.info("REST: Registrando pago para {}", facturacionDTO.getBusinessKey());
-        Facturacion facturacion = facturacionService.registrarPago(facturacionDTO);
-        return ResponseEntity.ok(facturacion);
+        try {
+            return ResponseEntity.ok(FacturacionResumen.de(registrarPagoIdempotente(facturacionDTO, claveIdempotencia)));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 
     @PostMapping("/activar")
     public ResponseEntity<Facturacion> activarServicio(@RequestParam String businessKey, 
-                                                        @RequestParam String cedulaCliente) {
+                                                        @RequestParam String cedulaCliente,
+                                                        @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String claveIdempotencia) {
         log.info("REST: Activando servicio para {}", businessKey);
-        Facturacion facturacion = facturacionService.activarServicio(businessKey, cedulaCliente);
-        return ResponseEntity.ok(facturacion);
+        try {
+            return ResponseEntity.ok(activarServicioIdempotente(businessKey, cedulaCliente, claveIdempotencia));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @PostMapping(value = "/activar", params = "view=summary")
+    public ResponseEntity<FacturacionResumen> activarServicioResumen(@RequestParam String businessKey,
+                                                                     @RequestParam String cedulaCliente,
+                                                                     @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String claveIdempotencia) {
+        log.info("REST: Activando servicio para {}", businessKey);
+        try {
+            return ResponseEntity.ok(FacturacionResumen.de(activarServicioIdempotente(businessKey, cedulaCliente, claveIdempotencia)));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 
     @GetMapping("/{businessKey}")
@@ -40,4 +90,74 @@ public class FacturacionController {
             return ResponseEntity.notFound().build();
         }
     }
+
+    @GetMapping(value = "/{businessKey}", params = "view=summary")
+    public ResponseEntity<FacturacionResumen> obtenerFacturacionResumen(@PathVariable String businessKey) {
+        try {
+            return ResponseEntity.ok(facturacionService.obtenerResumenPorBusinessKey(businessKey));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Exportación completa para finanzas en CSV o NDJSON, con filtros por estado y por rango
+     * de fecha de registro [desde, hasta). Con gzip=true la respuesta va comprimida.
+     */
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportarFacturacion(
+            @RequestParam(defaultValue = ExportacionFacturacionService.FORMATO_CSV) String formato,
+            @RequestParam(required = false) String estado,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        boolean ndjson = ExportacionFacturacionService.FORMATO_NDJSON.equalsIgnoreCase(formato);
+        if (!ndjson && !ExportacionFacturacionService.FORMATO_CSV.equalsIgnoreCase(formato)) {
+            return ResponseEntity.badRequest().build();
+        }
+        log.info("REST: Exportando facturación en {} (estado={}, desde={}, hasta={})", formato, estado, desde, hasta);
+        String formatoNormalizado = ndjson
+                ? ExportacionFacturacionService.FORMATO_NDJSON : ExportacionFacturacionService.FORMATO_CSV;
+        StreamingResponseBody body = salida -> exportacionFacturacionService.exportar(
+                formatoNormalizado, estado, desde, hasta, gzip, salida);
+
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("facturacion." + formatoNormalizado)
+                        .build()
+                        .toString());
+        if (gzip) {
+            respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return respuesta.body(body);
+    }
+
+    private Facturacion registrarPagoIdempotente(FacturacionDTO facturacionDTO, String claveIdempotencia) {
+        return conIdempotencia(FacturacionService.OPERACION_PAGO, claveIdempotencia,
+                () -> facturacionService.registrarPago(facturacionDTO, claveIdempotencia));
+    }
+
+    private Facturacion activarServicioIdempotente(String businessKey, String cedulaCliente, String claveIdempotencia) {
+        return conIdempotencia(FacturacionService.OPERACION_ACTIVACION, claveIdempotencia,
+                () -> facturacionService.activarServicio(businessKey, cedulaCliente, claveIdempotencia));
+    }
+
+    private Facturacion conIdempotencia(String operacion, String clave, Supplier<Facturacion> ejecutar) {
+        if (clave == null) {
+            return ejecutar.get();
+        }
+
+        Optional<Facturacion> almacenada = idempotenciaService.buscar(operacion, clave, Facturacion.class);
+        if (almacenada.isPresent()) {
+            return almacenada.get();
+        }
+        try {
+            return ejecutar.get();
+        } catch (DataIntegrityViolationException e) {
+            // Otra petición con la misma clave se confirmó primero: devolver su respuesta
+            return idempotenciaService.buscar(operacion, clave, Facturacion.class)
+                    .orElseThrow(() -> e);
+        }
+    }
 }
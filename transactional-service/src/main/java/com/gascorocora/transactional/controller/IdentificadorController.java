@@ -0,0 +1,28 @@
+package com.gascorocora.transactional.controller;
+
+import com.gascorocora.transactional.dto.BloqueIdentificadores;
+import com.gascorocora.transactional.service.IdentificadorService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/identificadores")
+@RequiredArgsConstructor
+@Slf4j
+public class IdentificadorController {
+
+    private final IdentificadorService identificadorService;
+
+    @PostMapping("/{nombre}/bloque")
+    public ResponseEntity<BloqueIdentificadores> reservarBloque(@PathVariable String nombre,
+                                                                @RequestParam(defaultValue = "100") int tamano) {
+        log.info("REST: Reservando bloque de {} identificadores para {}", tamano, nombre);
+        try {
+            return ResponseEntity.ok(identificadorService.reservarBloque(nombre, tamano));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -1,25 +1,67 @@
 package com.gascorocora.transactional.controller;
 
+import com.gascorocora.transactional.dto.PaginaBusqueda;
+import com.gascorocora.transactional.dto.PaginaSolicitudes;
+import com.gascorocora.transactional.dto.ResultadoCargaMasiva;
 import com.gascorocora.transactional.dto.SolicitudDTO;
+import com.gascorocora.transactional.dto.SolicitudPatchDTO;
+import com.gascorocora.transactional.dto.SolicitudResumen;
 import com.gascorocora.transactional.model.Solicitud;
+import com.gascorocora.transactional.service.CargaMasivaService;
+import com.gascorocora.transactional.service.IdempotenciaService;
+import com.gascorocora.transactional.service.SolicitudNoEncontradaException;
 import com.gascorocora.transactional.service.SolicitudService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/solicitudes")
 @RequiredArgsConstructor
 public class SolicitudController {
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final SolicitudService solicitudService;
+    private final CargaMasivaService cargaMasivaService;
+    private final IdempotenciaService idempotenciaService;
 
     @PostMapping
-    public ResponseEntity<Solicitud> crearSolicitud(@RequestBody SolicitudDTO dto) {
-        return ResponseEntity.ok(solicitudService.crearSolicitud(dto));
+    public ResponseEntity<Solicitud> crearSolicitud(@RequestBody SolicitudDTO dto,
+                                                    @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String claveIdempotencia) {
+        try {
+            return ResponseEntity.ok(crearSolicitudIdempotente(dto, claveIdempotencia));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @PostMapping(params = "view=summary")
+    public ResponseEntity<SolicitudResumen> crearSolicitudResumen(@RequestBody SolicitudDTO dto,
+                                                                  @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String claveIdempotencia) {
+        try {
+            return ResponseEntity.ok(SolicitudResumen.de(crearSolicitudIdempotente(dto, claveIdempotencia)));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @PostMapping(value = "/lote", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ResultadoCargaMasiva> registrarSolicitudes(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(cargaMasivaService.cargarSolicitudes(request.getInputStream()));
     }
 
     @GetMapping("/{businessKey}")
@@ -27,9 +69,66 @@ public class SolicitudController {
         return ResponseEntity.ok(solicitudService.obtenerSolicitud(businessKey));
     }
 
+    @GetMapping(value = "/{businessKey}", params = "view=summary")
+    public ResponseEntity<SolicitudResumen> obtenerResumen(@PathVariable String businessKey) {
+        return ResponseEntity.ok(solicitudService.obtenerResumen(businessKey));
+    }
+
     @GetMapping
-    public ResponseEntity<List<Solicitud>> obtenerTodasSolicitudes() {
-        return ResponseEntity.ok(solicitudService.obtenerTodasSolicitudes());
+    public ResponseEntity<PaginaSolicitudes> obtenerSolicitudes(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limite) {
+        try {
+            return ResponseEntity.ok(solicitudService.obtenerPagina(cursor, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/buscar")
+    public ResponseEntity<PaginaBusqueda> buscarSolicitudes(
+            @RequestParam(required = false) String cedula,
+            @RequestParam(required = false) String estado,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limite) {
+        try {
+            return ResponseEntity.ok(solicitudService.buscar(cedula, estado, desde, hasta, cursor, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping(value = "/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarSolicitudes() {
+        StreamingResponseBody body = solicitudService::exportarSolicitudesNdjson;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Sin versión esperada (en el cuerpo o en {@code If-Match}) se responde 428: un PATCH a
+     * ciegas pisaría los cambios de otro cliente.
+     */
+    @PatchMapping("/{businessKey}")
+    public ResponseEntity<Void> actualizarParcial(
+            @PathVariable String businessKey,
+            @RequestBody SolicitudPatchDTO patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            Long esperada = versionEsperada(patch.getVersion(), ifMatch);
+            if (esperada == null) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+            }
+            long version = solicitudService.actualizarParcial(businessKey, patch, esperada);
+            return ResponseEntity.noContent().eTag(String.valueOf(version)).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (SolicitudNoEncontradaException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
 
     @PutMapping("/{businessKey}/cobertura")
@@ -73,4 +172,56 @@ public class SolicitudController {
             @RequestBody Map<String, String> request) {
         return ResponseEntity.ok(solicitudService.actualizarEstado(businessKey, request.get("estado")));
     }
+
+    // Otra petición modificó la fila entre la lectura del cliente y su escritura
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Void> conflictoDeVersion() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    /**
+     * Versión del cuerpo o de {@code If-Match} (con o sin comillas y prefijo {@code W/}); si
+     * vienen ambas deben coincidir.
+     */
+    private static Long versionEsperada(Long enCuerpo, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return enCuerpo;
+        }
+        String etiqueta = ifMatch.strip();
+        if (etiqueta.startsWith("W/")) {
+            etiqueta = etiqueta.substring(2);
+        }
+        if (etiqueta.length() >= 2 && etiqueta.startsWith("\"") && etiqueta.endsWith("\"")) {
+            etiqueta = etiqueta.substring(1, etiqueta.length() - 1);
+        }
+        long enCabecera;
+        try {
+            enCabecera = Long.parseLong(etiqueta);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match no contiene una versión: " + ifMatch, e);
+        }
+        if (enCuerpo != null && enCuerpo != enCabecera) {
+            throw new IllegalArgumentException("La versión del cuerpo no coincide con If-Match");
+        }
+        return enCabecera;
+    }
+
+    private Solicitud crearSolicitudIdempotente(SolicitudDTO dto, String claveIdempotencia) {
+        if (claveIdempotencia == null) {
+            return solicitudService.crearSolicitud(dto);
+        }
+
+        Optional<Solicitud> almacenada = idempotenciaService.buscar(
+                SolicitudService.OPERACION_CREACION, claveIdempotencia, Solicitud.class);
+        if (almacenada.isPresent()) {
+            return almacenada.get();
+        }
+        try {
+            return solicitudService.crearSolicitud(dto, claveIdempotencia);
+        } catch (DataIntegrityViolationException e) {
+            // Otra petición con la misma clave se confirmó primero: devolver su respuesta
+            return idempotenciaService.buscar(SolicitudService.OPERACION_CREACION, claveIdempotencia, Solicitud.class)
+                    .orElseThrow(() -> e);
+        }
+    }
 }
@@ -0,0 +1,44 @@
+package com.gascorocora.transactional.controller;
+
+import com.gascorocora.transactional.dto.ResultadoSimulacionTarifas;
+import com.gascorocora.transactional.dto.TarifaEstrato;
+import com.gascorocora.transactional.service.TarifasService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/tarifas")
+@RequiredArgsConstructor
+@Slf4j
+public class TarifasController {
+
+    private final TarifasService tarifasService;
+
+    @GetMapping
+    public ResponseEntity<List<TarifaEstrato>> obtenerTarifas() {
+        return ResponseEntity.ok(tarifasService.obtenerTarifas());
+    }
+
+    @GetMapping("/cotizacion")
+    public ResponseEntity<TarifaEstrato> cotizar(@RequestParam String estrato) {
+        return ResponseEntity.ok(tarifasService.cotizar(estrato));
+    }
+
+    /**
+     * Simula sobre todos los clientes activos el ingreso por conexión con las tarifas
+     * propuestas. No modifica la tabla vigente.
+     */
+    @PostMapping("/simulacion")
+    public ResponseEntity<ResultadoSimulacionTarifas> simular(@RequestBody List<TarifaEstrato> propuesta) {
+        log.info("REST: Simulando {} tarifas propuestas", propuesta.size());
+        try {
+            return ResponseEntity.ok(tarifasService.simular(propuesta));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
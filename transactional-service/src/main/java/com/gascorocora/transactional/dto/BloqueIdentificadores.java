@@ -0,0 +1,14 @@
+package com.gascorocora.transactional.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BloqueIdentificadores {
+    private String nombre;
+    private long inicio; // inclusivo
+    private long fin;    // inclusivo
+}
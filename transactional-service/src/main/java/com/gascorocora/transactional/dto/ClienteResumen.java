@@ -0,0 +1,20 @@
+package com.gascorocora.transactional.dto;
+
+import com.gascorocora.transactional.model.Cliente;
+
+/**
+ * Proyección de cliente para respuestas {@code ?view=summary}.
+ */
+public record ClienteResumen(
+        Long id,
+        String cedula,
+        String nombre,
+        String ciudad,
+        Integer estrato,
+        Boolean activo) {
+
+    public static ClienteResumen de(Cliente cliente) {
+        return new ClienteResumen(cliente.getId(), cliente.getCedula(), cliente.getNombre(),
+                cliente.getCiudad(), cliente.getEstrato(), cliente.getActivo());
+    }
+}
@@ -10,4 +10,6 @@ import lombok.NoArgsConstructor;
 public class CoberturaResponse {
     private boolean tieneCobiertura;
     private String mensaje;
+    // Zona o tramo de red que da la cobertura, si la hay
+    private String zona;
 }
@@ -0,0 +1,13 @@
+package com.gascorocora.transactional.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsultaCobertura {
+    private Double latitud;
+    private Double longitud;
+}
@@ -0,0 +1,17 @@
+package com.gascorocora.transactional.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeltaEstrato {
+    // Null agrupa los clientes que caen en la regla por defecto
+    private Integer estrato;
+    private long clientes;
+    private double ingresoActual;
+    private double ingresoPropuesto;
+    private double delta;
+}
@@ -0,0 +1,18 @@
+package com.gascorocora.transactional.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticasResponse {
+    private Map<String, Long> solicitudesPorEstado;
+    private Map<String, Long> solicitudesPorEstrato;
+    private Map<String, Long> facturacionPorEstado;
+    private LocalDateTime ultimaReconciliacion;
+}
@@ -0,0 +1,20 @@
+package com.gascorocora.transactional.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadoCobertura {
+    private String archivo;
+    private int zonas;
+    private int tramos;
+    private int celdas;
+    private double tamanoCelda;
+    private LocalDateTime fechaCarga;
+    private long duracionCargaMs;
+}
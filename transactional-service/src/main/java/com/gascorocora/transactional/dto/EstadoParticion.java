@@ -0,0 +1,18 @@
+package com.gascorocora.transactional.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadoParticion {
+    private int particion;
+    private long ultimoId;
+    private long filasProcesadas;
+    private long facturasEmitidas;
+    private long duracionMs;
+    private double filasPorSegundo;
+    private boolean completado;
+}
@@ -0,0 +1,24 @@
+package com.gascorocora.transactional.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.gascorocora.transactional.model.EventoCambio;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento del feed de cambios. {@code datos} es la entidad serializada al confirmar la
+ * transacción y se emite tal cual, sin volver a parsearla.
+ */
+public record EventoCambioDTO(
+        Long posicion,
+        String entidad,
+        String clave,
+        String operacion,
+        @JsonRawValue String datos,
+        LocalDateTime fecha) {
+
+    public static EventoCambioDTO de(EventoCambio evento) {
+        return new EventoCambioDTO(evento.getPosicion(), evento.getEntidad(), evento.getClave(),
+                evento.getOperacion(), evento.getDatos(), evento.getFechaCreacion());
+    }
+}
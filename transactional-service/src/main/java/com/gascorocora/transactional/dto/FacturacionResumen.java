@@ -0,0 +1,21 @@
+package com.gascorocora.transactional.dto;
+
+import com.gascorocora.transactional.model.Facturacion;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de facturación con los campos que leen los conectores del proceso.
+ */
+public record FacturacionResumen(
+        Long id,
+        String businessKey,
+        String estado,
+        String numeroServicio,
+        LocalDateTime fechaActivacion) {
+
+    public static FacturacionResumen de(Facturacion facturacion) {
+        return new FacturacionResumen(facturacion.getId(), facturacion.getBusinessKey(), facturacion.getEstado(),
+                facturacion.getNumeroServicio(), facturacion.getFechaActivacion());
+    }
+}
@@ -0,0 +1,23 @@
+package com.gascorocora.transactional.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItinerarioTecnico {
+    private Long tecnicoId;
+    private LocalDate fecha;
+    private List<ParadaItinerario> paradas;
+    private double distanciaActualMetros;
+    private double distanciaOptimizadaMetros;
+    private int mejoras;
+    private long duracionMs;
+    private boolean aplicado;
+    private String mensaje;
+}
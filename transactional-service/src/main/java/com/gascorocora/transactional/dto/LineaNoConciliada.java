@@ -0,0 +1,19 @@
+package com.gascorocora.transactional.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LineaNoConciliada {
+    private long linea;
+    private String numeroTransaccion;
+    private BigDecimal montoExtracto;
+    private Double montoRegistrado;
+    private String motivo; // SIN_COINCIDENCIA, MONTO_DIFERENTE, DUPLICADA, AMBIGUA, INVALIDA
+    private String detalle;
+}
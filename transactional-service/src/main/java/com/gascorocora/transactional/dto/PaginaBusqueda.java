@@ -0,0 +1,16 @@
+package com.gascorocora.transactional.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaBusqueda {
+    private List<SolicitudResumen> contenido;
+    private String siguienteCursor; // null cuando no hay más resultados
+    private boolean hayMas;
+}
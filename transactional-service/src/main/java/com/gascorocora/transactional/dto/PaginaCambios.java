@@ -0,0 +1,16 @@
+package com.gascorocora.transactional.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaCambios {
+    private List<EventoCambioDTO> eventos;
+    // Offset desde el que continuar en la siguiente lectura
+    private long siguientePosicion;
+}
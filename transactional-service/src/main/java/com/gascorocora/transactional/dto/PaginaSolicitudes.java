@@ -0,0 +1,17 @@
+package com.gascorocora.transactional.dto;
+
+import com.gascorocora.transactional.model.Solicitud;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaSolicitudes {
+    private List<Solicitud> contenido;
+    private String siguienteCursor; // null cuando no hay más resultados
+    private boolean hayMas;
+}
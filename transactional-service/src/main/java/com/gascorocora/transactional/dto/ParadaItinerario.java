@@ -0,0 +1,22 @@
+package com.gascorocora.transactional.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParadaItinerario {
+    private int orden;
+    private Long citaId;
+    private String businessKey;
+    private String tipo;
+    private Double latitud;
+    private Double longitud;
+    private LocalDateTime inicioActual;
+    private LocalDateTime inicioPropuesto;
+    private LocalDateTime finPropuesto;
+}
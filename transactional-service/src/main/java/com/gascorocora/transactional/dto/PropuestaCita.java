@@ -0,0 +1,20 @@
+package com.gascorocora.transactional.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropuestaCita {
+    private String businessKey;
+    private String tipo;
+    private Long tecnicoId;
+    private String nombreTecnico;
+    private LocalDateTime inicio;
+    private LocalDateTime fin;
+    private String mensaje;
+}
@@ -0,0 +1,19 @@
+package com.gascorocora.transactional.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservaCita {
+    private String businessKey;
+    private String tipo;
+    private Long tecnicoId;
+    private LocalDateTime inicio;
+    private Double latitud;
+    private Double longitud;
+}
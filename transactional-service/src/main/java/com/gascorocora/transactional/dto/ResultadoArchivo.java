@@ -0,0 +1,17 @@
+package com.gascorocora.transactional.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoArchivo {
+    private long solicitudesArchivadas;
+    private long facturacionesArchivadas;
+    private LocalDateTime fechaLimite;
+    private long duracionMs;
+}
@@ -0,0 +1,13 @@
+package com.gascorocora.transactional.dto;
+
+/**
+ * Coincidencia del índice de búsqueda de clientes y solicitudes.
+ */
+public record ResultadoBusqueda(
+        String tipo,
+        String clave,
+        String nombre,
+        String direccion,
+        String ciudad,
+        double puntaje) {
+}
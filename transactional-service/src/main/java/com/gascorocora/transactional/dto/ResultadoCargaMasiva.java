@@ -0,0 +1,18 @@
+package com.gascorocora.transactional.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoCargaMasiva {
+    private int total;
+    private int creados;
+    private int actualizados;
+    private int errores;
+    private List<ResultadoRegistro> resultados;
+}
@@ -0,0 +1,29 @@
+package com.gascorocora.transactional.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoConciliacion {
+    private String archivo;
+    private long lineasLeidas;
+    private long conciliadas;
+    private long sinCoincidencia;
+    private long montoDiferente;
+    private long duplicadas;
+    private long invalidas;
+    // Líneas cuyo número de transacción está registrado en varios pagos
+    private long ambiguas;
+    // Números de transacción registrados en más de un pago sin conciliar
+    private long transaccionesRepetidas;
+    // Pagos registrados que no aparecieron en este extracto
+    private long pendientesSinExtracto;
+    private long duracionMs;
+    // Detalle de las líneas no conciliadas, limitado por transactional.conciliacion.detalle-maximo
+    private List<LineaNoConciliada> noConciliadas;
+}
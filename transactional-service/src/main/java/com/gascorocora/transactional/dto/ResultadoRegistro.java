@@ -0,0 +1,16 @@
+package com.gascorocora.transactional.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoRegistro {
+    private int indice;
+    private String clave;
+    private String estado; // CREADO, ACTUALIZADO, ERROR
+    private Long id;
+    private String mensaje;
+}
@@ -0,0 +1,20 @@
+package com.gascorocora.transactional.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoSimulacionTarifas {
+    private long clientes;
+    private double ingresoActual;
+    private double ingresoPropuesto;
+    private double delta;
+    private double deltaPorcentual;
+    private List<DeltaEstrato> estratos;
+    private long duracionMs;
+}
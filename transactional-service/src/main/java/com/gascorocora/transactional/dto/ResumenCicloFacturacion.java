@@ -0,0 +1,18 @@
+package com.gascorocora.transactional.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenCicloFacturacion {
+    private String periodo;
+    private boolean enEjecucion;
+    private long filasProcesadas;
+    private long facturasEmitidas;
+    private List<EstadoParticion> particiones;
+}
@@ -0,0 +1,23 @@
+package com.gascorocora.transactional.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Petición de propuesta de cita para una solicitud: tipo INSPECCION o INSTALACION, zona de
+ * la red y fecha mínima (ahora si no se indica).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolicitudCita {
+    private String businessKey;
+    private String tipo;
+    private String zona;
+    private LocalDateTime desde;
+    private Double latitud;
+    private Double longitud;
+}
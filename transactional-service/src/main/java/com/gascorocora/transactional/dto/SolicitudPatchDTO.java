@@ -0,0 +1,23 @@
+package com.gascorocora.transactional.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cambios parciales sobre una solicitud: solo se actualizan los campos no nulos.
+ * La versión esperada es obligatoria, aquí o en la cabecera {@code If-Match}; la actualización
+ * falla cuando la fila ya fue modificada.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolicitudPatchDTO {
+    private Boolean cobertura;
+    private Double cotizacion;
+    private String estadoInspeccion;
+    private String estadoInstalacion;
+    private Boolean pagado;
+    private String estado;
+    private Long version;
+}
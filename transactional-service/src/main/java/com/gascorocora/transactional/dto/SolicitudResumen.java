@@ -0,0 +1,24 @@
+package com.gascorocora.transactional.dto;
+
+import com.gascorocora.transactional.model.Solicitud;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de solicitud con las columnas necesarias para listados, búsquedas y
+ * respuestas {@code ?view=summary}.
+ */
+public record SolicitudResumen(
+        Long id,
+        String businessKey,
+        String nombreCliente,
+        String cedulaCliente,
+        String estado,
+        Integer estrato,
+        LocalDateTime fechaCreacion) {
+
+    public static SolicitudResumen de(Solicitud solicitud) {
+        return new SolicitudResumen(solicitud.getId(), solicitud.getBusinessKey(), solicitud.getNombreCliente(),
+                solicitud.getCedulaCliente(), solicitud.getEstado(), solicitud.getEstrato(), solicitud.getFechaCreacion());
+    }
+}
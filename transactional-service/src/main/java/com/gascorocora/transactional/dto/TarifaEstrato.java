@@ -0,0 +1,19 @@
+package com.gascorocora.transactional.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Fila de la tabla de cotización por estrato. Estrato null es la regla por defecto; si no se
+ * indica conexionAPagar se calcula como conexion con el descuento (%) aplicado.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TarifaEstrato {
+    private Integer estrato;
+    private Double descuento;
+    private Double conexion;
+    private Double conexionAPagar;
+}
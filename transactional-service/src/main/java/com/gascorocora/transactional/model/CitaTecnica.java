@@ -0,0 +1,59 @@
+package com.gascorocora.transactional.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cita de inspección o instalación reservada en la agenda de un técnico. La restricción única
+ * por técnico e inicio es la última defensa contra la doble reserva.
+ */
+@Entity
+@Table(name = "citas_tecnicas",
+        uniqueConstraints = @UniqueConstraint(name = "uk_citas_tecnico_inicio",
+                columnNames = {"tecnico_id", "inicio"}),
+        indexes = {
+                @Index(name = "idx_citas_fin", columnList = "fin"),
+                @Index(name = "idx_citas_business_key", columnList = "business_key")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CitaTecnica {
+
+    public static final String INSPECCION = "INSPECCION";
+    public static final String INSTALACION = "INSTALACION";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "citas_tecnicas_seq")
+    @SequenceGenerator(name = "citas_tecnicas_seq", sequenceName = "citas_tecnicas_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "tecnico_id", nullable = false)
+    private Long tecnicoId;
+
+    @Column(name = "business_key", nullable = false)
+    private String businessKey;
+
+    @Column(nullable = false, length = 20)
+    private String tipo;
+
+    @Column(nullable = false)
+    private LocalDateTime inicio;
+
+    @Column(nullable = false)
+    private LocalDateTime fin;
+
+    // Ubicación de la visita, usada para ordenar el recorrido del día
+    @Column
+    private Double latitud;
+
+    @Column
+    private Double longitud;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+}
@@ -0,0 +1,24 @@
+package com.gascorocora.transactional.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Marca de agua persistida de un generador de identificadores: último valor ya
+ * entregado en bloque. Los valores se reparten en memoria desde {@code IdentificadorService}.
+ */
+@Entity
+@Table(name = "contadores_identificador")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContadorIdentificador {
+
+    @Id
+    private String nombre;
+
+    @Column(name = "valor_maximo", nullable = false)
+    private Long valorMaximo;
+}
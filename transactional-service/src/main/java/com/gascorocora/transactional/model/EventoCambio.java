@@ -0,0 +1,51 @@
+package com.gascorocora.transactional.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fila del outbox. Se inserta en la misma transacción que el cambio que describe; el relay
+ * le asigna después una posición consecutiva, que es el offset que ven los consumidores.
+ */
+@Entity
+@Table(name = "eventos_cambio", indexes = {
+        @Index(name = "idx_eventos_cambio_posicion", columnList = "posicion", unique = true),
+        @Index(name = "idx_eventos_cambio_fecha_publicacion", columnList = "fecha_publicacion")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoCambio {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "eventos_cambio_seq")
+    @SequenceGenerator(name = "eventos_cambio_seq", sequenceName = "eventos_cambio_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String entidad; // SOLICITUD, CLIENTE, FACTURACION
+
+    @Column(nullable = false)
+    private String clave;
+
+    @Column(nullable = false)
+    private String operacion; // CREADO, ACTUALIZADO
+
+    @Lob
+    @Column
+    private String datos;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    // Nula hasta que el relay publica el evento
+    @Column(name = "posicion")
+    private Long posicion;
+
+    @Column(name = "fecha_publicacion")
+    private LocalDateTime fechaPublicacion;
+}
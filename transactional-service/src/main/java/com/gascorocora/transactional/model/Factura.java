@@ -0,0 +1,59 @@
+package com.gascorocora.transactional.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Factura mensual de un servicio activado. Un servicio tiene como máximo una factura por
+ * periodo (yyyy-MM).
+ */
+@Entity
+@Table(name = "facturas",
+        uniqueConstraints = @UniqueConstraint(name = "uk_facturas_periodo_business_key",
+                columnNames = {"periodo", "business_key"}),
+        indexes = @Index(name = "idx_facturas_cedula_periodo", columnList = "cedula_cliente, periodo"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Factura {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "facturas_seq")
+    @SequenceGenerator(name = "facturas_seq", sequenceName = "facturas_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 7)
+    private String periodo;
+
+    @Column(name = "business_key", nullable = false)
+    private String businessKey;
+
+    @Column(name = "cedula_cliente", nullable = false)
+    private String cedulaCliente;
+
+    @Column(name = "numero_servicio")
+    private String numeroServicio;
+
+    @Column(nullable = false)
+    private Integer estrato;
+
+    @Column(name = "cargo_fijo", nullable = false)
+    private Double cargoFijo;
+
+    // Negativo para subsidio (estratos 1-3), positivo para contribución (5-6)
+    @Column(name = "ajuste_estrato", nullable = false)
+    private Double ajusteEstrato;
+
+    @Column(nullable = false)
+    private Double total;
+
+    @Column(nullable = false)
+    private Integer particion;
+
+    @Column(name = "fecha_emision", nullable = false)
+    private LocalDateTime fechaEmision;
+}
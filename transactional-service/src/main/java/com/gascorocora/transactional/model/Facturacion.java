@@ -8,14 +8,17 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "facturacion")
+@Table(name = "facturacion", indexes = {
+        @Index(name = "idx_facturacion_fecha_conciliacion", columnList = "fecha_conciliacion")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Facturacion {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "facturacion_seq")
+    @SequenceGenerator(name = "facturacion_seq", sequenceName = "facturacion_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "business_key", nullable = false, unique = true)
@@ -54,6 +57,10 @@ public class Facturacion {
     @Column(name = "fecha_registro")
     private LocalDateTime fechaRegistro;
 
+    // Fecha en que el pago se confirmó contra el extracto bancario
+    @Column(name = "fecha_conciliacion")
+    private LocalDateTime fechaConciliacion;
+
     @PrePersist
     protected void onCreate() {
         fechaRegistro = LocalDateTime.now();
@@ -0,0 +1,92 @@
+package com.gascorocora.transactional.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Copia en frío de una facturación activada. Conserva el id original.
+ */
+@Entity
+@Table(name = "facturacion_archivo", indexes = {
+        @Index(name = "idx_facturacion_archivo_cedula", columnList = "cedula_cliente")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacturacionArchivada {
+
+    @Id
+    private Long id;
+
+    @Column(name = "business_key", nullable = false, unique = true)
+    private String businessKey;
+
+    @Column(name = "cedula_cliente", nullable = false)
+    private String cedulaCliente;
+
+    @Column(name = "monto_recibido")
+    private Double montoRecibido;
+
+    @Column(name = "metodo_pago")
+    private String metodoPago;
+
+    @Column(name = "numero_transaccion")
+    private String numeroTransaccion;
+
+    @Column(name = "fecha_pago")
+    private LocalDateTime fechaPago;
+
+    @Column(name = "comprobante_url")
+    private String comprobanteUrl;
+
+    @Column(name = "observaciones_pago")
+    private String observacionesPago;
+
+    @Column(name = "numero_servicio", unique = true)
+    private String numeroServicio;
+
+    @Column(name = "fecha_activacion")
+    private LocalDateTime fechaActivacion;
+
+    @Column(name = "estado")
+    private String estado;
+
+    @Column(name = "fecha_registro")
+    private LocalDateTime fechaRegistro;
+
+    @Column(name = "fecha_conciliacion")
+    private LocalDateTime fechaConciliacion;
+
+    @Column(name = "fecha_archivo", nullable = false)
+    private LocalDateTime fechaArchivo;
+
+    public static FacturacionArchivada de(Facturacion facturacion) {
+        FacturacionArchivada archivada = new FacturacionArchivada();
+        archivada.setId(facturacion.getId());
+        archivada.setBusinessKey(facturacion.getBusinessKey());
+        archivada.setCedulaCliente(facturacion.getCedulaCliente());
+        archivada.setMontoRecibido(facturacion.getMontoRecibido());
+        archivada.setMetodoPago(facturacion.getMetodoPago());
+        archivada.setNumeroTransaccion(facturacion.getNumeroTransaccion());
+        archivada.setFechaPago(facturacion.getFechaPago());
+        archivada.setComprobanteUrl(facturacion.getComprobanteUrl());
+        archivada.setObservacionesPago(facturacion.getObservacionesPago());
+        archivada.setNumeroServicio(facturacion.getNumeroServicio());
+        archivada.setFechaActivacion(facturacion.getFechaActivacion());
+        archivada.setEstado(facturacion.getEstado());
+        archivada.setFechaRegistro(facturacion.getFechaRegistro());
+        archivada.setFechaConciliacion(facturacion.getFechaConciliacion());
+        archivada.setFechaArchivo(LocalDateTime.now());
+        return archivada;
+    }
+
+    public Facturacion aFacturacion() {
+        return new Facturacion(id, businessKey, cedulaCliente, montoRecibido, metodoPago, numeroTransaccion,
+                fechaPago, comprobanteUrl, observacionesPago, numeroServicio, fechaActivacion, estado,
+                fechaRegistro, fechaConciliacion);
+    }
+}
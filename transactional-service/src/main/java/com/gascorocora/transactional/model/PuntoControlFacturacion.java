@@ -0,0 +1,54 @@
+package com.gascorocora.transactional.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Avance de una partición del ciclo de facturación. Se actualiza en la misma transacción
+ * que cada lote de facturas, así que al reanudar se continúa exactamente después del último
+ * lote confirmado.
+ */
+@Entity
+@Table(name = "puntos_control_facturacion")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PuntoControlFacturacion {
+
+    // periodo:particion
+    @Id
+    private String id;
+
+    @Column(nullable = false, length = 7)
+    private String periodo;
+
+    @Column(nullable = false)
+    private Integer particion;
+
+    @Column(name = "total_particiones", nullable = false)
+    private Integer totalParticiones;
+
+    // Último id de facturación procesado
+    @Column(name = "ultimo_id", nullable = false)
+    private Long ultimoId;
+
+    @Column(name = "filas_procesadas", nullable = false)
+    private Long filasProcesadas;
+
+    @Column(name = "facturas_emitidas", nullable = false)
+    private Long facturasEmitidas;
+
+    // Tiempo efectivo de procesamiento acumulado entre ejecuciones
+    @Column(name = "duracion_ms", nullable = false)
+    private Long duracionMs;
+
+    @Column(nullable = false)
+    private Boolean completado;
+
+    @Column(name = "fecha_actualizacion")
+    private LocalDateTime fechaActualizacion;
+}
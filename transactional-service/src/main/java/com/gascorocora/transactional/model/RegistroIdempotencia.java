@@ -0,0 +1,32 @@
+package com.gascorocora.transactional.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "registros_idempotencia", indexes = {
+        @Index(name = "idx_idempotencia_fecha_expiracion", columnList = "fecha_expiracion")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegistroIdempotencia {
+
+    // operacion:clave enviada en el header Idempotency-Key
+    @Id
+    private String clave;
+
+    @Lob
+    @Column(nullable = false)
+    private String respuesta;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_expiracion", nullable = false)
+    private LocalDateTime fechaExpiracion;
+}
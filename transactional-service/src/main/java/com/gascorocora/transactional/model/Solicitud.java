@@ -4,18 +4,24 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "solicitudes")
+@Table(name = "solicitudes", indexes = {
+        @Index(name = "idx_solicitudes_fecha_creacion_id", columnList = "fecha_creacion, id"),
+        @Index(name = "idx_solicitudes_cedula_fecha", columnList = "cedula_cliente, fecha_creacion, id"),
+        @Index(name = "idx_solicitudes_estado_fecha", columnList = "estado, fecha_creacion, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Solicitud {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "solicitudes_seq")
+    @SequenceGenerator(name = "solicitudes_seq", sequenceName = "solicitudes_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = true, unique = true)
@@ -24,7 +30,7 @@ public class Solicitud {
     @Column(nullable = false)
     private String nombreCliente;
 
-    @Column(nullable = false)
+    @Column(name = "cedula_cliente", nullable = false)
     private String cedulaCliente;
 
     @Column(nullable = false)
@@ -54,15 +60,22 @@ public class Solicitud {
     @Column
     private Boolean pagado;
 
-    @Column
+    @Column(name = "estado")
     private String estado;
 
-    @Column(nullable = false)
+    @Column(name = "fecha_creacion", nullable = false)
     private LocalDateTime fechaCreacion;
 
     @Column
     private LocalDateTime fechaActualizacion;
 
+    // El default cubre las filas existentes al añadir la columna; con columnDefinition
+    // Hibernate lo copiaba al cast del incremento en los UPDATE por criteria
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         fechaCreacion = LocalDateTime.now();
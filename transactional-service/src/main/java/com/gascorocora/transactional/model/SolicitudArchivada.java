@@ -0,0 +1,109 @@
+package com.gascorocora.transactional.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Copia en frío de una solicitud en estado terminal. Conserva el id y la versión originales
+ * para que la lectura desde el archivo sea indistinguible de la tabla activa.
+ */
+@Entity
+@Table(name = "solicitudes_archivo", indexes = {
+        @Index(name = "idx_solicitudes_archivo_cedula", columnList = "cedula_cliente")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolicitudArchivada {
+
+    @Id
+    private Long id;
+
+    @Column(unique = true)
+    private String businessKey;
+
+    @Column(nullable = false)
+    private String nombreCliente;
+
+    @Column(name = "cedula_cliente", nullable = false)
+    private String cedulaCliente;
+
+    @Column(nullable = false)
+    private String direccion;
+
+    @Column(nullable = false)
+    private String telefono;
+
+    @Column(nullable = false)
+    private String email;
+
+    @Column(nullable = false)
+    private Integer estrato;
+
+    @Column
+    private Boolean cobertura;
+
+    @Column
+    private Double cotizacion;
+
+    @Column
+    private String estadoInspeccion;
+
+    @Column
+    private String estadoInstalacion;
+
+    @Column
+    private Boolean pagado;
+
+    @Column(name = "estado")
+    private String estado;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column
+    private LocalDateTime fechaActualizacion;
+
+    @Column
+    private Long version;
+
+    @Column(name = "fecha_archivo", nullable = false)
+    private LocalDateTime fechaArchivo;
+
+    public static SolicitudArchivada de(Solicitud solicitud) {
+        SolicitudArchivada archivada = new SolicitudArchivada();
+        archivada.setId(solicitud.getId());
+        archivada.setBusinessKey(solicitud.getBusinessKey());
+        archivada.setNombreCliente(solicitud.getNombreCliente());
+        archivada.setCedulaCliente(solicitud.getCedulaCliente());
+        archivada.setDireccion(solicitud.getDireccion());
+        archivada.setTelefono(solicitud.getTelefono());
+        archivada.setEmail(solicitud.getEmail());
+        archivada.setEstrato(solicitud.getEstrato());
+        archivada.setCobertura(solicitud.getCobertura());
+        archivada.setCotizacion(solicitud.getCotizacion());
+        archivada.setEstadoInspeccion(solicitud.getEstadoInspeccion());
+        archivada.setEstadoInstalacion(solicitud.getEstadoInstalacion());
+        archivada.setPagado(solicitud.getPagado());
+        archivada.setEstado(solicitud.getEstado());
+        archivada.setFechaCreacion(solicitud.getFechaCreacion());
+        archivada.setFechaActualizacion(solicitud.getFechaActualizacion());
+        archivada.setVersion(solicitud.getVersion());
+        archivada.setFechaArchivo(LocalDateTime.now());
+        return archivada;
+    }
+
+    /**
+     * Reconstruye la solicitud (desacoplada del contexto de persistencia) para las lecturas
+     * que no la encuentran en la tabla activa.
+     */
+    public Solicitud aSolicitud() {
+        return new Solicitud(id, businessKey, nombreCliente, cedulaCliente, direccion, telefono, email,
+                estrato, cobertura, cotizacion, estadoInspeccion, estadoInstalacion, pagado, estado,
+                fechaCreacion, fechaActualizacion, version);
+    }
+}
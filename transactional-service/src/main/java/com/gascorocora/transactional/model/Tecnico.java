@@ -0,0 +1,39 @@
+package com.gascorocora.transactional.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Técnico del área técnica que atiende inspecciones e instalaciones en una zona de la red.
+ */
+@Entity
+@Table(name = "tecnicos", indexes = @Index(name = "idx_tecnicos_zona", columnList = "zona"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Tecnico {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tecnicos_seq")
+    @SequenceGenerator(name = "tecnicos_seq", sequenceName = "tecnicos_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String nombre;
+
+    // Misma zona que devuelve la verificación de cobertura
+    @Column(nullable = false)
+    private String zona;
+
+    // Punto de partida del recorrido diario; sin base el recorrido arranca en la primera visita
+    @Column(name = "latitud_base")
+    private Double latitudBase;
+
+    @Column(name = "longitud_base")
+    private Double longitudBase;
+
+    @Column(nullable = false)
+    private Boolean activo = true;
+}
@@ -0,0 +1,22 @@
+package com.gascorocora.transactional.repository;
+
+import com.gascorocora.transactional.model.CitaTecnica;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CitaTecnicaRepository extends JpaRepository<CitaTecnica, Long> {
+
+    List<CitaTecnica> findByFinAfter(LocalDateTime fecha);
+
+    List<CitaTecnica> findByTecnicoIdAndFinAfterAndInicioBeforeOrderByInicioAsc(
+            Long tecnicoId, LocalDateTime desde, LocalDateTime hasta);
+
+    List<CitaTecnica> findByBusinessKeyOrderByInicioAsc(String businessKey);
+
+    List<CitaTecnica> findByInicioGreaterThanEqualAndInicioLessThanOrderByTecnicoIdAscInicioAsc(
+            LocalDateTime desde, LocalDateTime hasta);
+}
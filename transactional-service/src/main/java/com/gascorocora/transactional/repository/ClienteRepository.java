@@ -1,13 +1,37 @@
 package com.gascorocora.transactional.repository;
 
+import com.gascorocora.transactional.dto.ClienteResumen;
 import com.gascorocora.transactional.model.Cliente;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     Optional<Cliente> findByCedula(String cedula);
     boolean existsByCedula(String cedula);
+    List<Cliente> findByCedulaIn(Collection<String> cedulas);
+
+    @Query("SELECT new com.gascorocora.transactional.dto.ClienteResumen(" +
+           "c.id, c.cedula, c.nombre, c.ciudad, c.estrato, c.activo) " +
+           "FROM Cliente c WHERE c.cedula = :cedula")
+    Optional<ClienteResumen> findResumenByCedula(@Param("cedula") String cedula);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Cliente c ORDER BY c.id")
+    Stream<Cliente> streamTodos();
 }
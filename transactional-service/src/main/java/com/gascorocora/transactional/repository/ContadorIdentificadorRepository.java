@@ -0,0 +1,16 @@
+package com.gascorocora.transactional.repository;
+
+import com.gascorocora.transactional.model.ContadorIdentificador;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ContadorIdentificadorRepository extends JpaRepository<ContadorIdentificador, String> {
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ContadorIdentificador c SET c.valorMaximo = c.valorMaximo + :tamano WHERE c.nombre = :nombre")
+    int avanzar(@Param("nombre") String nombre, @Param("tamano") long tamano);
+}
@@ -0,0 +1,29 @@
+package com.gascorocora.transactional.repository;
+
+import com.gascorocora.transactional.model.EventoCambio;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EventoCambioRepository extends JpaRepository<EventoCambio, Long> {
+
+    @Query("SELECT e FROM EventoCambio e WHERE e.posicion IS NULL ORDER BY e.id ASC")
+    List<EventoCambio> findPendientes(Pageable pageable);
+
+    @Query("SELECT e FROM EventoCambio e WHERE e.posicion > :desde ORDER BY e.posicion ASC")
+    List<EventoCambio> findPublicadosDespuesDe(@Param("desde") long desde, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(e.posicion), 0) FROM EventoCambio e")
+    long findUltimaPosicion();
+
+    @Modifying
+    @Query("DELETE FROM EventoCambio e WHERE e.fechaPublicacion < :fecha AND e.posicion < :posicion")
+    int eliminarPublicadosAntesDe(@Param("fecha") LocalDateTime fecha, @Param("posicion") long posicion);
+}
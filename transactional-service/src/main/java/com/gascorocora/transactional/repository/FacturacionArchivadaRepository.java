@@ -0,0 +1,33 @@
+package com.gascorocora.transactional.repository;
+
+import com.gascorocora.transactional.model.FacturacionArchivada;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+@Repository
+public interface FacturacionArchivadaRepository extends JpaRepository<FacturacionArchivada, Long> {
+
+    Optional<FacturacionArchivada> findByBusinessKey(String businessKey);
+
+    boolean existsByBusinessKey(String businessKey);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT f.numeroServicio FROM FacturacionArchivada f WHERE f.numeroServicio IS NOT NULL")
+    Stream<String> streamNumerosServicio();
+
+    @Query("SELECT f.estado, COUNT(f) FROM FacturacionArchivada f GROUP BY f.estado")
+    List<Object[]> contarPorEstado();
+}
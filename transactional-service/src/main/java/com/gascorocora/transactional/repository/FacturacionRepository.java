@@ -1,13 +1,63 @@
 package com.gascorocora.transactional.repository;
 
+import com.gascorocora.transactional.dto.FacturacionResumen;
 import com.gascorocora.transactional.model.Facturacion;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface FacturacionRepository extends JpaRepository<Facturacion, Long> {
     Optional<Facturacion> findByBusinessKey(String businessKey);
     Optional<Facturacion> findByNumeroServicio(String numeroServicio);
+
+    @Query("SELECT new com.gascorocora.transactional.dto.FacturacionResumen(" +
+           "f.id, f.businessKey, f.estado, f.numeroServicio, f.fechaActivacion) " +
+           "FROM Facturacion f WHERE f.businessKey = :businessKey")
+    Optional<FacturacionResumen> findResumenByBusinessKey(@Param("businessKey") String businessKey);
+
+    // Solo para inicializar el contador: se recorre una vez y se compara numéricamente
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT f.numeroServicio FROM Facturacion f WHERE f.numeroServicio IS NOT NULL")
+    Stream<String> streamNumerosServicio();
+
+    @Query("SELECT f.estado, COUNT(f) FROM Facturacion f GROUP BY f.estado")
+    List<Object[]> contarPorEstado();
+
+    @Query("SELECT f.id FROM Facturacion f " +
+           "WHERE f.estado IN :estados AND COALESCE(f.fechaActivacion, f.fechaRegistro) < :limite " +
+           "ORDER BY f.id ASC")
+    List<Long> findIdsArchivables(@Param("estados") Collection<String> estados,
+                                  @Param("limite") LocalDateTime limite,
+                                  Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM Facturacion f " +
+           "WHERE f.id IN :ids AND f.estado IN :estados AND COALESCE(f.fechaActivacion, f.fechaRegistro) < :limite")
+    List<Facturacion> bloquearArchivables(@Param("ids") Collection<Long> ids,
+                                          @Param("estados") Collection<String> estados,
+                                          @Param("limite") LocalDateTime limite);
+
+    // Pagos registrados a mano aún sin confirmar contra el extracto bancario
+    @Query("SELECT f.id, f.numeroTransaccion, f.montoRecibido FROM Facturacion f " +
+           "WHERE f.numeroTransaccion IS NOT NULL AND f.fechaConciliacion IS NULL")
+    List<Object[]> findTransaccionesSinConciliar();
 }
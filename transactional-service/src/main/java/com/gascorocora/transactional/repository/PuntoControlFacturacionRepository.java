@@ -0,0 +1,13 @@
+package com.gascorocora.transactional.repository;
+
+import com.gascorocora.transactional.model.PuntoControlFacturacion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PuntoControlFacturacionRepository extends JpaRepository<PuntoControlFacturacion, String> {
+
+    List<PuntoControlFacturacion> findByPeriodoOrderByParticionAsc(String periodo);
+}
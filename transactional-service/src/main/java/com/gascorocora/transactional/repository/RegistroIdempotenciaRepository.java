@@ -0,0 +1,18 @@
+package com.gascorocora.transactional.repository;
+
+import com.gascorocora.transactional.model.RegistroIdempotencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface RegistroIdempotenciaRepository extends JpaRepository<RegistroIdempotencia, String> {
+
+    @Modifying
+    @Query("DELETE FROM RegistroIdempotencia r WHERE r.fechaExpiracion < :fecha")
+    int eliminarExpirados(@Param("fecha") LocalDateTime fecha);
+}
@@ -0,0 +1,28 @@
+package com.gascorocora.transactional.repository;
+
+import com.gascorocora.transactional.model.SolicitudArchivada;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SolicitudArchivadaRepository extends JpaRepository<SolicitudArchivada, Long> {
+
+    Optional<SolicitudArchivada> findByBusinessKey(String businessKey);
+
+    boolean existsByBusinessKey(String businessKey);
+
+    @Query("SELECT s.businessKey FROM SolicitudArchivada s WHERE s.businessKey IN :businessKeys")
+    List<String> findBusinessKeysIn(@Param("businessKeys") Collection<String> businessKeys);
+
+    @Query("SELECT s.estado, COUNT(s) FROM SolicitudArchivada s GROUP BY s.estado")
+    List<Object[]> contarPorEstado();
+
+    @Query("SELECT s.estrato, COUNT(s) FROM SolicitudArchivada s GROUP BY s.estrato")
+    List<Object[]> contarPorEstrato();
+}
@@ -1,10 +1,25 @@
 package com.gascorocora.transactional.repository;
 
+import com.gascorocora.transactional.dto.SolicitudResumen;
 import com.gascorocora.transactional.model.Solicitud;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface SolicitudRepository extends JpaRepository<Solicitud, Long> {
@@ -12,4 +27,55 @@ public interface SolicitudRepository extends JpaRepository<Solicitud, Long> {
     Optional<Solicitud> findByBusinessKey(String businessKey);
     
     boolean existsByBusinessKey(String businessKey);
+
+    List<Solicitud> findByBusinessKeyIn(Collection<String> businessKeys);
+
+    @Query("SELECT new com.gascorocora.transactional.dto.SolicitudResumen(" +
+           "s.id, s.businessKey, s.nombreCliente, s.cedulaCliente, s.estado, s.estrato, s.fechaCreacion) " +
+           "FROM Solicitud s WHERE s.businessKey = :businessKey")
+    Optional<SolicitudResumen> findResumenByBusinessKey(@Param("businessKey") String businessKey);
+
+    @Query("SELECT s.estado FROM Solicitud s WHERE s.businessKey = :businessKey")
+    Optional<String> findEstadoByBusinessKey(@Param("businessKey") String businessKey);
+
+    @Query("SELECT s.estado, COUNT(s) FROM Solicitud s GROUP BY s.estado")
+    List<Object[]> contarPorEstado();
+
+    @Query("SELECT s.estrato, COUNT(s) FROM Solicitud s GROUP BY s.estrato")
+    List<Object[]> contarPorEstrato();
+
+    // Candidatas a archivo: estado terminal y sin cambios desde la fecha límite
+    @Query("SELECT s.id FROM Solicitud s " +
+           "WHERE s.estado IN :estados AND s.fechaActualizacion < :limite ORDER BY s.id ASC")
+    List<Long> findIdsArchivables(@Param("estados") Collection<String> estados,
+                                  @Param("limite") LocalDateTime limite,
+                                  Pageable pageable);
+
+    // Bloquea las candidatas y vuelve a comprobar el criterio: las modificadas desde la
+    // selección de IDs dejan de ser archivables y no se tocan
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Solicitud s " +
+           "WHERE s.id IN :ids AND s.estado IN :estados AND s.fechaActualizacion < :limite")
+    List<Solicitud> bloquearArchivables(@Param("ids") Collection<Long> ids,
+                                        @Param("estados") Collection<String> estados,
+                                        @Param("limite") LocalDateTime limite);
+
+    // Paginación por keyset sobre (fechaCreacion, id): no usa OFFSET
+    @Query("SELECT s FROM Solicitud s ORDER BY s.fechaCreacion ASC, s.id ASC")
+    List<Solicitud> findPrimeraPagina(Pageable pageable);
+
+    @Query("SELECT s FROM Solicitud s " +
+           "WHERE s.fechaCreacion > :fecha OR (s.fechaCreacion = :fecha AND s.id > :id) " +
+           "ORDER BY s.fechaCreacion ASC, s.id ASC")
+    List<Solicitud> findPaginaDespuesDe(@Param("fecha") LocalDateTime fecha,
+                                        @Param("id") Long id,
+                                        Pageable pageable);
+
+    // Recorrido forward-only para exportación en streaming
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s FROM Solicitud s ORDER BY s.fechaCreacion ASC, s.id ASC")
+    Stream<Solicitud> streamTodas();
 }
@@ -0,0 +1,13 @@
+package com.gascorocora.transactional.repository;
+
+import com.gascorocora.transactional.model.Tecnico;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TecnicoRepository extends JpaRepository<Tecnico, Long> {
+
+    List<Tecnico> findByActivoTrue();
+}
@@ -0,0 +1,427 @@
+package com.gascorocora.transactional.service;
+
+import com.gascorocora.transactional.dto.PropuestaCita;
+import com.gascorocora.transactional.dto.ReservaCita;
+import com.gascorocora.transactional.dto.SolicitudCita;
+import com.gascorocora.transactional.model.CitaTecnica;
+import com.gascorocora.transactional.model.Tecnico;
+import com.gascorocora.transactional.repository.CitaTecnicaRepository;
+import com.gascorocora.transactional.repository.TecnicoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Agenda de citas de inspección e instalación. Cada técnico tiene su calendario en memoria
+ * ({@link AgendaTecnico}) y la base de datos es la fuente de verdad que se recarga al iniciar.
+ * Las reservas toman una franja de un arreglo fijo de candados según el id del técnico, de
+ * modo que reservas sobre técnicos distintos casi nunca compiten por el mismo candado.
+ */
+@Service
+@Slf4j
+public class AgendaService {
+
+    private static final int INTENTOS_RESERVA = 3;
+
+    private final TecnicoRepository tecnicoRepository;
+    private final CitaTecnicaRepository citaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LocalTime horaInicio;
+    private final LocalTime horaFin;
+    private final Duration duracionInspeccion;
+    private final Duration duracionInstalacion;
+    private final int granularidadMinutos;
+    private final int horizonteDias;
+    private final ReentrantLock[] franjas;
+
+    private final Map<Long, TecnicoAgenda> tecnicos = new ConcurrentHashMap<>();
+    private final Map<String, List<TecnicoAgenda>> tecnicosPorZona = new ConcurrentHashMap<>();
+
+    private record TecnicoAgenda(Tecnico tecnico, AgendaTecnico agenda) {
+    }
+
+    public AgendaService(TecnicoRepository tecnicoRepository,
+                         CitaTecnicaRepository citaRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${transactional.agenda.hora-inicio:07:00}") LocalTime horaInicio,
+                         @Value("${transactional.agenda.hora-fin:17:00}") LocalTime horaFin,
+                         @Value("${transactional.agenda.duracion-inspeccion-minutos:60}") int duracionInspeccion,
+                         @Value("${transactional.agenda.duracion-instalacion-minutos:180}") int duracionInstalacion,
+                         @Value("${transactional.agenda.granularidad-minutos:30}") int granularidadMinutos,
+                         @Value("${transactional.agenda.horizonte-dias:30}") int horizonteDias,
+                         @Value("${transactional.agenda.franjas-bloqueo:64}") int franjasBloqueo) {
+        this.tecnicoRepository = tecnicoRepository;
+        this.citaRepository = citaRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.horaInicio = horaInicio;
+        this.horaFin = horaFin;
+        this.duracionInspeccion = Duration.ofMinutes(duracionInspeccion);
+        this.duracionInstalacion = Duration.ofMinutes(duracionInstalacion);
+        this.granularidadMinutos = granularidadMinutos;
+        this.horizonteDias = horizonteDias;
+        long minutosJornada = Duration.between(horaInicio, horaFin).toMinutes();
+        if (Math.max(duracionInspeccion, duracionInstalacion) > minutosJornada) {
+            throw new IllegalArgumentException("Las citas deben caber en la jornada del área técnica");
+        }
+        this.franjas = new ReentrantLock[franjasBloqueo];
+        for (int i = 0; i < franjasBloqueo; i++) {
+            franjas[i] = new ReentrantLock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarAgendas() {
+        long inicio = System.currentTimeMillis();
+        tecnicoRepository.findByActivoTrue().forEach(this::indexarTecnico);
+        List<CitaTecnica> citas = citaRepository.findByFinAfter(LocalDateTime.now().minusDays(1));
+        for (CitaTecnica cita : citas) {
+            TecnicoAgenda tecnico = tecnicos.get(cita.getTecnicoId());
+            if (tecnico != null) {
+                tecnico.agenda().agregar(cita.getInicio(), cita.getFin());
+            }
+        }
+        log.info("Agendas cargadas: {} técnicos, {} citas vigentes en {} ms",
+                tecnicos.size(), citas.size(), System.currentTimeMillis() - inicio);
+    }
+
+    // Las citas ya pasadas no participan en ninguna búsqueda
+    @Scheduled(cron = "${transactional.agenda.depuracion-cron:0 30 0 * * *}")
+    public void depurarAgendas() {
+        LocalDateTime limite = LocalDateTime.now().minusDays(1);
+        int depuradas = 0;
+        for (TecnicoAgenda tecnico : tecnicos.values()) {
+            ReentrantLock candado = franja(tecnico.tecnico().getId());
+            candado.lock();
+            try {
+                depuradas += tecnico.agenda().depurarAntesDe(limite);
+            } finally {
+                candado.unlock();
+            }
+        }
+        log.debug("Agendas depuradas: {} citas vencidas", depuradas);
+    }
+
+    public Tecnico registrarTecnico(Tecnico tecnico) {
+        if (tecnico.getNombre() == null || tecnico.getZona() == null) {
+            throw new IllegalArgumentException("El técnico requiere nombre y zona");
+        }
+        tecnico.setId(null);
+        tecnico.setActivo(true);
+        Tecnico guardado = tecnicoRepository.save(tecnico);
+        indexarTecnico(guardado);
+        log.info("Técnico {} registrado en la zona {}", guardado.getId(), guardado.getZona());
+        return guardado;
+    }
+
+    public List<Tecnico> obtenerTecnicos() {
+        return tecnicos.values().stream().map(TecnicoAgenda::tecnico).toList();
+    }
+
+    /**
+     * Propone para cada petición el primer horario libre entre los técnicos de su zona. Las
+     * propuestas de un mismo lote no se pisan entre sí, pero no reservan nada: dos lotes
+     * concurrentes pueden proponer el mismo horario y solo la primera reserva gana.
+     */
+    public List<PropuestaCita> proponer(List<SolicitudCita> peticiones) {
+        Map<Long, AgendaTecnico> provisionales = new HashMap<>();
+        List<PropuestaCita> propuestas = new ArrayList<>(peticiones.size());
+        for (SolicitudCita peticion : peticiones) {
+            PropuestaCita propuesta = proponer(peticion, provisionales);
+            if (propuesta.getInicio() != null) {
+                provisionales.computeIfAbsent(propuesta.getTecnicoId(), id -> new AgendaTecnico())
+                        .agregar(propuesta.getInicio(), propuesta.getFin());
+            }
+            propuestas.add(propuesta);
+        }
+        return propuestas;
+    }
+
+    public CitaTecnica reservar(ReservaCita reserva) {
+        if (reserva.getTecnicoId() == null || reserva.getInicio() == null || reserva.getBusinessKey() == null) {
+            throw new IllegalArgumentException("La reserva requiere businessKey, técnico e inicio");
+        }
+        TecnicoAgenda tecnico = tecnicos.get(reserva.getTecnicoId());
+        if (tecnico == null) {
+            throw new RuntimeException("Técnico no encontrado: " + reserva.getTecnicoId());
+        }
+        Duration duracion = duracion(reserva.getTipo());
+        LocalDateTime inicio = reserva.getInicio().truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime fin = inicio.plus(duracion);
+        validarHorario(inicio, duracion);
+
+        ReentrantLock candado = franja(reserva.getTecnicoId());
+        candado.lock();
+        try {
+            if (tecnico.agenda().conflicto(inicio, fin) != null) {
+                throw new IllegalStateException("El horario ya está reservado para el técnico " + reserva.getTecnicoId());
+            }
+            CitaTecnica cita;
+            try {
+                cita = transactionTemplate.execute(status -> citaRepository.save(new CitaTecnica(
+                        null, reserva.getTecnicoId(), reserva.getBusinessKey(), reserva.getTipo(),
+                        inicio, fin, reserva.getLatitud(), reserva.getLongitud(), LocalDateTime.now())));
+            } catch (DataIntegrityViolationException e) {
+                // Otra instancia del servicio reservó el mismo inicio
+                throw new IllegalStateException("El horario ya está reservado para el técnico " + reserva.getTecnicoId());
+            }
+            tecnico.agenda().agregar(inicio, fin);
+            log.info("Cita {} {} reservada para {} con el técnico {} a las {}",
+                    cita.getId(), cita.getTipo(), cita.getBusinessKey(), cita.getTecnicoId(), inicio);
+            return cita;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Reserva el primer horario libre de la zona. Si otro agente toma el horario entre la
+     * propuesta y la reserva se vuelve a proponer.
+     */
+    public CitaTecnica reservarPrimera(SolicitudCita peticion) {
+        for (int intento = 1; ; intento++) {
+            PropuestaCita propuesta = proponer(peticion, Map.of());
+            if (propuesta.getInicio() == null) {
+                throw new IllegalStateException(propuesta.getMensaje());
+            }
+            try {
+                return reservar(new ReservaCita(peticion.getBusinessKey(), peticion.getTipo(),
+                        propuesta.getTecnicoId(), propuesta.getInicio(),
+                        peticion.getLatitud(), peticion.getLongitud()));
+            } catch (IllegalStateException e) {
+                if (intento >= INTENTOS_RESERVA) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    public void cancelar(Long id) {
+        CitaTecnica cita = citaRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Cita no encontrada: " + id));
+        ReentrantLock candado = franja(cita.getTecnicoId());
+        candado.lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> citaRepository.deleteById(id));
+            TecnicoAgenda tecnico = tecnicos.get(cita.getTecnicoId());
+            if (tecnico != null) {
+                tecnico.agenda().quitar(cita.getInicio());
+            }
+        } finally {
+            candado.unlock();
+        }
+        log.info("Cita {} cancelada", id);
+    }
+
+    /**
+     * Mueve citas de un técnico a nuevos inicios conservando su duración, como un todo: si
+     * algún horario nuevo choca con el resto de su agenda, ya pasó o cae fuera de la jornada no
+     * se mueve ninguna.
+     */
+    public void reprogramar(Long tecnicoId, Map<Long, LocalDateTime> nuevosInicios) {
+        if (nuevosInicios == null || nuevosInicios.entrySet().stream()
+                .anyMatch(nuevo -> nuevo.getKey() == null || nuevo.getValue() == null)) {
+            throw new IllegalArgumentException("La reprogramación requiere cada cita y su nuevo inicio");
+        }
+        TecnicoAgenda tecnico = tecnicos.get(tecnicoId);
+        if (tecnico == null) {
+            throw new RuntimeException("Técnico no encontrado: " + tecnicoId);
+        }
+        ReentrantLock candado = franja(tecnicoId);
+        candado.lock();
+        try {
+            List<CitaTecnica> citas = citaRepository.findAllById(nuevosInicios.keySet());
+            if (citas.size() != nuevosInicios.size()
+                    || citas.stream().anyMatch(cita -> !tecnicoId.equals(cita.getTecnicoId()))) {
+                throw new IllegalArgumentException("Las citas no pertenecen al técnico " + tecnicoId);
+            }
+            for (CitaTecnica cita : citas) {
+                validarHorario(nuevosInicios.get(cita.getId()), Duration.between(cita.getInicio(), cita.getFin()));
+            }
+            AgendaTecnico agenda = tecnico.agenda();
+            citas.forEach(cita -> agenda.quitar(cita.getInicio()));
+            List<CitaTecnica> agregadas = new ArrayList<>();
+            try {
+                for (CitaTecnica cita : citas) {
+                    LocalDateTime inicio = nuevosInicios.get(cita.getId());
+                    LocalDateTime fin = inicio.plus(Duration.between(cita.getInicio(), cita.getFin()));
+                    if (agenda.conflicto(inicio, fin) != null) {
+                        throw new IllegalStateException("El horario " + inicio + " ya está reservado para el técnico " + tecnicoId);
+                    }
+                    agenda.agregar(inicio, fin);
+                    agregadas.add(cita);
+                }
+                transactionTemplate.executeWithoutResult(status -> {
+                    List<CitaTecnica> gestionadas = citaRepository.findAllById(nuevosInicios.keySet());
+                    // Primero se sacan de rango para no violar uk_citas_tecnico_inicio al intercambiar horarios
+                    gestionadas.forEach(cita -> cita.setInicio(cita.getInicio().minusYears(1000)));
+                    citaRepository.flush();
+                    for (CitaTecnica cita : gestionadas) {
+                        Duration duracion = Duration.between(cita.getInicio().plusYears(1000), cita.getFin());
+                        cita.setInicio(nuevosInicios.get(cita.getId()));
+                        cita.setFin(cita.getInicio().plus(duracion));
+                    }
+                });
+            } catch (RuntimeException e) {
+                agregadas.forEach(cita -> agenda.quitar(nuevosInicios.get(cita.getId())));
+                citas.forEach(cita -> agenda.agregar(cita.getInicio(), cita.getFin()));
+                throw e;
+            }
+        } finally {
+            candado.unlock();
+        }
+        log.info("{} citas reprogramadas para el técnico {}", nuevosInicios.size(), tecnicoId);
+    }
+
+    public Tecnico obtenerTecnico(Long id) {
+        TecnicoAgenda tecnico = tecnicos.get(id);
+        return tecnico != null ? tecnico.tecnico() : null;
+    }
+
+    /**
+     * Primer inicio válido (jornada y granularidad) a partir de una fecha.
+     */
+    LocalDateTime siguienteInicio(LocalDateTime desde, Duration duracion) {
+        return ajustarAJornada(redondear(desde), duracion);
+    }
+
+    public List<CitaTecnica> obtenerCitasTecnico(Long tecnicoId, LocalDateTime desde, LocalDateTime hasta) {
+        return citaRepository.findByTecnicoIdAndFinAfterAndInicioBeforeOrderByInicioAsc(tecnicoId, desde, hasta);
+    }
+
+    public List<CitaTecnica> obtenerCitasSolicitud(String businessKey) {
+        return citaRepository.findByBusinessKeyOrderByInicioAsc(businessKey);
+    }
+
+    private PropuestaCita proponer(SolicitudCita peticion, Map<Long, AgendaTecnico> provisionales) {
+        Duration duracion;
+        try {
+            duracion = duracion(peticion.getTipo());
+        } catch (IllegalArgumentException e) {
+            return sinPropuesta(peticion, e.getMessage());
+        }
+        List<TecnicoAgenda> candidatos = peticion.getZona() == null ? null : tecnicosPorZona.get(peticion.getZona());
+        if (candidatos == null || candidatos.isEmpty()) {
+            return sinPropuesta(peticion, "No hay técnicos en la zona " + peticion.getZona());
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDateTime desde = peticion.getDesde() == null || peticion.getDesde().isBefore(ahora)
+                ? ahora : peticion.getDesde();
+        LocalDateTime limite = desde.plusDays(horizonteDias);
+
+        TecnicoAgenda elegido = null;
+        LocalDateTime mejor = null;
+        for (TecnicoAgenda candidato : candidatos) {
+            // El horizonte se acorta al mejor horario hallado: los demás técnicos solo compiten por antes
+            LocalDateTime hueco = primerHueco(candidato, provisionales.get(candidato.tecnico().getId()),
+                    desde, duracion, mejor == null ? limite : mejor);
+            if (hueco != null && (mejor == null || hueco.isBefore(mejor))) {
+                mejor = hueco;
+                elegido = candidato;
+            }
+        }
+        if (elegido == null) {
+            return sinPropuesta(peticion, "Sin horarios libres en los próximos " + horizonteDias + " días");
+        }
+        return new PropuestaCita(peticion.getBusinessKey(), peticion.getTipo(), elegido.tecnico().getId(),
+                elegido.tecnico().getNombre(), mejor, mejor.plus(duracion), "Horario disponible");
+    }
+
+    private LocalDateTime primerHueco(TecnicoAgenda tecnico, AgendaTecnico provisional,
+                                      LocalDateTime desde, Duration duracion, LocalDateTime limite) {
+        ReentrantLock candado = franja(tecnico.tecnico().getId());
+        candado.lock();
+        try {
+            LocalDateTime candidato = ajustarAJornada(redondear(desde), duracion);
+            while (candidato.isBefore(limite)) {
+                LocalDateTime fin = candidato.plus(duracion);
+                LocalDateTime conflicto = tecnico.agenda().conflicto(candidato, fin);
+                if (conflicto == null && provisional != null) {
+                    conflicto = provisional.conflicto(candidato, fin);
+                }
+                if (conflicto == null) {
+                    return candidato;
+                }
+                candidato = ajustarAJornada(redondear(conflicto), duracion);
+            }
+            return null;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    // Mismas reglas para reservar y reprogramar: no en el pasado y completo dentro de la jornada
+    private void validarHorario(LocalDateTime inicio, Duration duracion) {
+        if (inicio.isBefore(LocalDateTime.now()) || !ajustarAJornada(inicio, duracion).equals(inicio)) {
+            throw new IllegalArgumentException("Horario fuera de la jornada del área técnica: " + inicio);
+        }
+    }
+
+    // Primer inicio >= fecha que cabe completo dentro de la jornada (lunes a sábado)
+    private LocalDateTime ajustarAJornada(LocalDateTime fecha, Duration duracion) {
+        LocalDateTime candidato = fecha;
+        while (true) {
+            if (candidato.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                candidato = candidato.toLocalDate().plusDays(1).atTime(horaInicio);
+            } else if (candidato.toLocalTime().isBefore(horaInicio)) {
+                candidato = candidato.toLocalDate().atTime(horaInicio);
+            } else if (candidato.plus(duracion).isAfter(candidato.toLocalDate().atTime(horaFin))) {
+                candidato = candidato.toLocalDate().plusDays(1).atTime(horaInicio);
+            } else {
+                return candidato;
+            }
+        }
+    }
+
+    private LocalDateTime redondear(LocalDateTime fecha) {
+        LocalDateTime minuto = fecha.truncatedTo(ChronoUnit.MINUTES);
+        if (minuto.isBefore(fecha)) {
+            minuto = minuto.plusMinutes(1);
+        }
+        int resto = minuto.getMinute() % granularidadMinutos;
+        return resto == 0 ? minuto : minuto.plusMinutes(granularidadMinutos - resto);
+    }
+
+    private Duration duracion(String tipo) {
+        if (CitaTecnica.INSPECCION.equals(tipo)) {
+            return duracionInspeccion;
+        }
+        if (CitaTecnica.INSTALACION.equals(tipo)) {
+            return duracionInstalacion;
+        }
+        throw new IllegalArgumentException("Tipo de cita inválido: " + tipo);
+    }
+
+    private ReentrantLock franja(Long tecnicoId) {
+        return franjas[(int) Math.floorMod(tecnicoId, (long) franjas.length)];
+    }
+
+    private void indexarTecnico(Tecnico tecnico) {
+        TecnicoAgenda entrada = new TecnicoAgenda(tecnico, new AgendaTecnico());
+        if (tecnicos.putIfAbsent(tecnico.getId(), entrada) == null) {
+            tecnicosPorZona.computeIfAbsent(tecnico.getZona(), zona -> new CopyOnWriteArrayList<>()).add(entrada);
+        }
+    }
+
+    private static PropuestaCita sinPropuesta(SolicitudCita peticion, String mensaje) {
+        return new PropuestaCita(peticion.getBusinessKey(), peticion.getTipo(), null, null, null, null, mensaje);
+    }
+}
@@ -0,0 +1,40 @@
+package com.gascorocora.transactional.service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Calendario en memoria de un técnico: árbol de intervalos disjuntos inicio → fin sobre un
+ * árbol rojo-negro. Como las reservas de un técnico nunca se solapan, el intervalo con el
+ * mayor inicio anterior a un fin es el único candidato a conflicto y basta una búsqueda
+ * O(log n). No es seguro entre hilos: el llamador sostiene la franja de bloqueo del técnico.
+ */
+final class AgendaTecnico {
+
+    private final TreeMap<LocalDateTime, LocalDateTime> reservas = new TreeMap<>();
+
+    /**
+     * Fin de la reserva que choca con [inicio, fin), o null si el intervalo está libre.
+     * Ningún inicio anterior a ese fin cabe, así que la búsqueda puede saltar hasta él.
+     */
+    LocalDateTime conflicto(LocalDateTime inicio, LocalDateTime fin) {
+        Map.Entry<LocalDateTime, LocalDateTime> anterior = reservas.lowerEntry(fin);
+        return anterior != null && anterior.getValue().isAfter(inicio) ? anterior.getValue() : null;
+    }
+
+    void agregar(LocalDateTime inicio, LocalDateTime fin) {
+        reservas.put(inicio, fin);
+    }
+
+    void quitar(LocalDateTime inicio) {
+        reservas.remove(inicio);
+    }
+
+    int depurarAntesDe(LocalDateTime fecha) {
+        Map<LocalDateTime, LocalDateTime> vencidas = reservas.headMap(fecha);
+        int cantidad = vencidas.size();
+        vencidas.clear();
+        return cantidad;
+    }
+}
@@ -0,0 +1,147 @@
+package com.gascorocora.transactional.service;
+
+import com.gascorocora.transactional.dto.ResultadoArchivo;
+import com.gascorocora.transactional.model.Facturacion;
+import com.gascorocora.transactional.model.FacturacionArchivada;
+import com.gascorocora.transactional.model.Solicitud;
+import com.gascorocora.transactional.model.SolicitudArchivada;
+import com.gascorocora.transactional.repository.FacturacionRepository;
+import com.gascorocora.transactional.repository.SolicitudRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Mueve a las tablas de archivo las solicitudes y facturaciones en estado terminal que no
+ * han cambiado en el periodo configurado. Cada lote se copia y se borra de la tabla activa
+ * en su propia transacción, de modo que una ejecución larga no retiene bloqueos y puede
+ * interrumpirse sin dejar filas duplicadas ni perdidas.
+ */
+@Service
+@Slf4j
+public class ArchivoService {
+
+    private final SolicitudRepository solicitudRepository;
+    private final FacturacionRepository facturacionRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean habilitado;
+    private final long antiguedadDias;
+    private final Set<String> estadosSolicitud;
+    private final Set<String> estadosFacturacion;
+    private final int tamanoLote;
+    private final int lotesMaximos;
+    private final AtomicBoolean enEjecucion = new AtomicBoolean();
+
+    public ArchivoService(SolicitudRepository solicitudRepository,
+                          FacturacionRepository facturacionRepository,
+                          EntityManager entityManager,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${transactional.archivo.habilitado:true}") boolean habilitado,
+                          @Value("${transactional.archivo.antiguedad-dias:90}") long antiguedadDias,
+                          @Value("${transactional.archivo.estados-solicitud:ACTIVADO,COTIZACION_RECHAZADA,RECHAZADA,CANCELADA}") Set<String> estadosSolicitud,
+                          @Value("${transactional.archivo.estados-facturacion:ACTIVADO}") Set<String> estadosFacturacion,
+                          @Value("${transactional.archivo.tamano-lote:500}") int tamanoLote,
+                          @Value("${transactional.archivo.lotes-maximos:200}") int lotesMaximos) {
+        this.solicitudRepository = solicitudRepository;
+        this.facturacionRepository = facturacionRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.habilitado = habilitado;
+        this.antiguedadDias = antiguedadDias;
+        this.estadosSolicitud = estadosSolicitud;
+        this.estadosFacturacion = estadosFacturacion;
+        this.tamanoLote = tamanoLote;
+        this.lotesMaximos = lotesMaximos;
+    }
+
+    @Scheduled(fixedDelayString = "${transactional.archivo.intervalo-ms:3600000}",
+               initialDelayString = "${transactional.archivo.intervalo-ms:3600000}")
+    public void archivarProgramado() {
+        if (habilitado) {
+            archivar();
+        }
+    }
+
+    /**
+     * Ejecuta una pasada de archivo. Si ya hay una en curso no hace nada y devuelve ceros.
+     */
+    public ResultadoArchivo archivar() {
+        LocalDateTime limite = LocalDateTime.now().minusDays(antiguedadDias);
+        if (!enEjecucion.compareAndSet(false, true)) {
+            log.info("Archivo ya en ejecución, se omite esta pasada");
+            return new ResultadoArchivo(0, 0, limite, 0);
+        }
+        try {
+            long inicio = System.currentTimeMillis();
+            long solicitudes = 0;
+            long facturaciones = 0;
+            int lotes = 0;
+            int archivadas;
+            while (lotes++ < lotesMaximos && (archivadas = archivarLoteSolicitudes(limite)) > 0) {
+                solicitudes += archivadas;
+            }
+            lotes = 0;
+            while (lotes++ < lotesMaximos && (archivadas = archivarLoteFacturacion(limite)) > 0) {
+                facturaciones += archivadas;
+            }
+            long duracion = System.currentTimeMillis() - inicio;
+            log.info("Archivo completado: {} solicitudes y {} facturaciones anteriores a {} en {} ms",
+                    solicitudes, facturaciones, limite, duracion);
+            return new ResultadoArchivo(solicitudes, facturaciones, limite, duracion);
+        } finally {
+            enEjecucion.set(false);
+        }
+    }
+
+    private int archivarLoteSolicitudes(LocalDateTime limite) {
+        return transactionTemplate.execute(status -> {
+            List<Long> ids = solicitudRepository.findIdsArchivables(
+                    estadosSolicitud, limite, PageRequest.of(0, tamanoLote));
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            // SELECT ... FOR UPDATE: una escritura concurrente espera al commit del lote y,
+            // si llegó antes, la fila ya no cumple el criterio y se queda en la tabla viva
+            List<Solicitud> solicitudes = solicitudRepository.bloquearArchivables(ids, estadosSolicitud, limite);
+            if (solicitudes.isEmpty()) {
+                return 0;
+            }
+            // persist directo: el id viene asignado y save() haría un SELECT por fila
+            solicitudes.forEach(solicitud -> entityManager.persist(SolicitudArchivada.de(solicitud)));
+            entityManager.flush();
+            solicitudRepository.deleteAllInBatch(solicitudes);
+            entityManager.clear();
+            return solicitudes.size();
+        });
+    }
+
+    private int archivarLoteFacturacion(LocalDateTime limite) {
+        return transactionTemplate.execute(status -> {
+            List<Long> ids = facturacionRepository.findIdsArchivables(
+                    estadosFacturacion, limite, PageRequest.of(0, tamanoLote));
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            List<Facturacion> facturaciones = facturacionRepository.bloquearArchivables(ids, estadosFacturacion, limite);
+            if (facturaciones.isEmpty()) {
+                return 0;
+            }
+            facturaciones.forEach(facturacion -> entityManager.persist(FacturacionArchivada.de(facturacion)));
+            entityManager.flush();
+            facturacionRepository.deleteAllInBatch(facturaciones);
+            entityManager.clear();
+            return facturaciones.size();
+        });
+    }
+}
@@ -0,0 +1,108 @@
+package com.gascorocora.transactional.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gascorocora.transactional.dto.ClienteDTO;
+import com.gascorocora.transactional.dto.ResultadoCargaMasiva;
+import com.gascorocora.transactional.dto.ResultadoRegistro;
+import com.gascorocora.transactional.dto.SolicitudDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Ingesta masiva de clientes y solicitudes. Lee el cuerpo (arreglo JSON o NDJSON) de forma
+ * incremental y lo procesa en lotes, cada uno en su propia transacción.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CargaMasivaService {
+
+    private static final int TAMANO_LOTE = 500;
+
+    private final ClienteService clienteService;
+    private final SolicitudService solicitudService;
+    private final ObjectMapper objectMapper;
+
+    public ResultadoCargaMasiva cargarClientes(InputStream in) {
+        return cargar(in, ClienteDTO.class, ClienteDTO::getCedula, clienteService::registrarClientes);
+    }
+
+    public ResultadoCargaMasiva cargarSolicitudes(InputStream in) {
+        return cargar(in, SolicitudDTO.class, SolicitudDTO::getBusinessKey, solicitudService::registrarSolicitudes);
+    }
+
+    private <T> ResultadoCargaMasiva cargar(InputStream in,
+                                            Class<T> tipo,
+                                            Function<T, String> clave,
+                                            Function<List<T>, List<ResultadoRegistro>> procesarLote) {
+        List<ResultadoRegistro> resultados = new ArrayList<>();
+        List<T> lote = new ArrayList<>(TAMANO_LOTE);
+        int indice = 0;
+        String errorLectura = null;
+
+        // readValues recorre tanto un arreglo JSON raíz como valores separados por saltos de línea
+        try (MappingIterator<T> iterator = objectMapper.readerFor(tipo).readValues(in)) {
+            while (iterator.hasNextValue()) {
+                lote.add(iterator.nextValue());
+                indice++;
+                if (lote.size() == TAMANO_LOTE) {
+                    procesar(lote, indice - lote.size(), clave, procesarLote, resultados);
+                    lote.clear();
+                }
+            }
+        } catch (IOException e) {
+            // Los registros leídos hasta el error se procesan igualmente
+            log.warn("Contenido inválido en la carga masiva en el registro {}: {}", indice, e.getMessage());
+            errorLectura = "Contenido JSON inválido: " + e.getMessage();
+        }
+        if (!lote.isEmpty()) {
+            procesar(lote, indice - lote.size(), clave, procesarLote, resultados);
+        }
+        if (errorLectura != null) {
+            resultados.add(new ResultadoRegistro(indice, null, "ERROR", null, errorLectura));
+        }
+
+        return resumir(resultados);
+    }
+
+    private <T> void procesar(List<T> lote,
+                              int desplazamiento,
+                              Function<T, String> clave,
+                              Function<List<T>, List<ResultadoRegistro>> procesarLote,
+                              List<ResultadoRegistro> resultados) {
+        try {
+            for (ResultadoRegistro resultado : procesarLote.apply(lote)) {
+                resultado.setIndice(resultado.getIndice() + desplazamiento);
+                resultados.add(resultado);
+            }
+        } catch (RuntimeException e) {
+            log.error("Error procesando lote desde el registro {}: {}", desplazamiento, e.getMessage());
+            for (int i = 0; i < lote.size(); i++) {
+                resultados.add(new ResultadoRegistro(desplazamiento + i, clave.apply(lote.get(i)), "ERROR", null,
+                        "Lote rechazado: " + e.getMessage()));
+            }
+        }
+    }
+
+    private ResultadoCargaMasiva resumir(List<ResultadoRegistro> resultados) {
+        int creados = 0;
+        int actualizados = 0;
+        int errores = 0;
+        for (ResultadoRegistro resultado : resultados) {
+            switch (resultado.getEstado()) {
+                case "CREADO" -> creados++;
+                case "ACTUALIZADO" -> actualizados++;
+                default -> errores++;
+            }
+        }
+        return new ResultadoCargaMasiva(resultados.size(), creados, actualizados, errores, resultados);
+    }
+}
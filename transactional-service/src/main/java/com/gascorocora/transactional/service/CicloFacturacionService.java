@@ -0,0 +1,300 @@
+package com.gascorocora.transactional.service;
+
+import com.gascorocora.transactional.dto.EstadoParticion;
+import com.gascorocora.transactional.dto.ResumenCicloFacturacion;
+import com.gascorocora.transactional.model.Factura;
+import com.gascorocora.transactional.model.PuntoControlFacturacion;
+import com.gascorocora.transactional.repository.FacturaRepository;
+import com.gascorocora.transactional.repository.PuntoControlFacturacionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ciclo mensual de facturación. Los servicios activados se reparten en particiones por hash
+ * de la cédula (ORA_HASH de H2) y cada partición se procesa en un hilo del pool, por lotes
+ * ordenados por id: lectura, cálculo del cargo, inserción en batch de las facturas y
+ * actualización del punto de control en una sola transacción. Volver a ejecutar un periodo
+ * reanuda cada partición después de su último lote confirmado.
+ */
+@Service
+@Slf4j
+public class CicloFacturacionService {
+
+    private static final String SELECT_ACTIVAS =
+            "SELECT f.id, f.business_key, f.cedula_cliente, f.numero_servicio, c.estrato " +
+            "FROM %s f JOIN clientes c ON c.cedula = f.cedula_cliente " +
+            "WHERE f.estado = 'ACTIVADO' AND COALESCE(c.activo, TRUE) " +
+            "AND (f.fecha_activacion IS NULL OR f.fecha_activacion < ?) " +
+            "AND f.id > ? AND ORA_HASH(f.cedula_cliente, ?) = ? " +
+            "ORDER BY f.id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FacturaRepository facturaRepository;
+    private final PuntoControlFacturacionRepository puntoControlRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int particiones;
+    private final int hilos;
+    private final int tamanoLote;
+    private final double cargoFijo;
+    private final double[] factoresEstrato;
+    private final Set<String> enEjecucion = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger contadorHilos = new AtomicInteger();
+    // Un hilo por ciclo en curso; enEjecucion impide dos del mismo periodo
+    private final ExecutorService lanzador = Executors.newCachedThreadPool(tarea -> {
+        Thread hilo = new Thread(tarea, "ciclo-facturacion-" + contadorHilos.incrementAndGet());
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    public CicloFacturacionService(JdbcTemplate jdbcTemplate,
+                                   FacturaRepository facturaRepository,
+                                   PuntoControlFacturacionRepository puntoControlRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${transactional.ciclo-facturacion.particiones:8}") int particiones,
+                                   @Value("${transactional.ciclo-facturacion.hilos:4}") int hilos,
+                                   @Value("${transactional.ciclo-facturacion.tamano-lote:1000}") int tamanoLote,
+                                   @Value("${transactional.ciclo-facturacion.cargo-fijo:18500}") double cargoFijo,
+                                   @Value("${transactional.ciclo-facturacion.factores-estrato:0.4,0.5,0.85,1.0,1.2,1.2}") double[] factoresEstrato) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.facturaRepository = facturaRepository;
+        this.puntoControlRepository = puntoControlRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.particiones = particiones;
+        this.hilos = hilos;
+        this.tamanoLote = tamanoLote;
+        this.cargoFijo = cargoFijo;
+        this.factoresEstrato = factoresEstrato;
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        lanzador.shutdownNow();
+    }
+
+    // El día 1 de cada mes se factura el mes anterior. Solo lanza el ciclo: el hilo del
+    // scheduler, compartido con los demás @Scheduled, no espera a que termine
+    @Scheduled(cron = "${transactional.ciclo-facturacion.cron:0 0 2 1 * *}")
+    public void ejecutarProgramado() {
+        YearMonth periodo = YearMonth.now().minusMonths(1);
+        if (!iniciar(periodo)) {
+            log.warn("El ciclo de facturación {} ya está en ejecución, se omite la ejecución programada", periodo);
+        }
+    }
+
+    /**
+     * Lanza el ciclo en segundo plano. Devuelve false si el periodo ya se está procesando.
+     */
+    public boolean iniciar(YearMonth periodo) {
+        String clave = periodo.toString();
+        // Comprobar y reservar el periodo en un solo paso
+        if (!enEjecucion.add(clave)) {
+            return false;
+        }
+        try {
+            lanzador.execute(() -> {
+                try {
+                    procesar(periodo);
+                } catch (RuntimeException e) {
+                    log.error("Ciclo de facturación {} terminado con errores", periodo, e);
+                } finally {
+                    enEjecucion.remove(clave);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            enEjecucion.remove(clave);
+            throw e;
+        }
+        return true;
+    }
+
+    public ResumenCicloFacturacion ejecutar(YearMonth periodo) {
+        String clave = periodo.toString();
+        if (!enEjecucion.add(clave)) {
+            throw new IllegalStateException("El ciclo de facturación " + clave + " ya está en ejecución");
+        }
+        try {
+            return procesar(periodo);
+        } finally {
+            enEjecucion.remove(clave);
+        }
+    }
+
+    // Llamado con el periodo ya reservado en enEjecucion
+    private ResumenCicloFacturacion procesar(YearMonth periodo) {
+        String clave = periodo.toString();
+        List<PuntoControlFacturacion> pendientes = prepararPuntosControl(clave).stream()
+                .filter(punto -> !punto.getCompletado())
+                .toList();
+        log.info("Iniciando ciclo de facturación {}: {} particiones pendientes", clave, pendientes.size());
+        ejecutarParticiones(periodo, pendientes);
+        ResumenCicloFacturacion resumen = obtenerResumen(periodo);
+        log.info("Ciclo de facturación {} completado: {} filas, {} facturas",
+                clave, resumen.getFilasProcesadas(), resumen.getFacturasEmitidas());
+        return resumen;
+    }
+
+    public ResumenCicloFacturacion obtenerResumen(YearMonth periodo) {
+        String clave = periodo.toString();
+        List<EstadoParticion> estados = puntoControlRepository.findByPeriodoOrderByParticionAsc(clave).stream()
+                .map(punto -> new EstadoParticion(
+                        punto.getParticion(),
+                        punto.getUltimoId(),
+                        punto.getFilasProcesadas(),
+                        punto.getFacturasEmitidas(),
+                        punto.getDuracionMs(),
+                        punto.getDuracionMs() > 0 ? punto.getFilasProcesadas() * 1000.0 / punto.getDuracionMs() : 0,
+                        punto.getCompletado()))
+                .toList();
+        if (estados.isEmpty()) {
+            throw new RuntimeException("Ciclo de facturación no encontrado: " + clave);
+        }
+        return new ResumenCicloFacturacion(clave, enEjecucion.contains(clave),
+                estados.stream().mapToLong(EstadoParticion::getFilasProcesadas).sum(),
+                estados.stream().mapToLong(EstadoParticion::getFacturasEmitidas).sum(),
+                estados);
+    }
+
+    private List<PuntoControlFacturacion> prepararPuntosControl(String periodo) {
+        return transactionTemplate.execute(status -> {
+            List<PuntoControlFacturacion> existentes = puntoControlRepository.findByPeriodoOrderByParticionAsc(periodo);
+            if (!existentes.isEmpty()) {
+                // Un periodo ya iniciado conserva su número de particiones aunque cambie la configuración
+                return existentes;
+            }
+            List<PuntoControlFacturacion> nuevos = new ArrayList<>(particiones);
+            for (int particion = 0; particion < particiones; particion++) {
+                nuevos.add(new PuntoControlFacturacion(periodo + ":" + particion, periodo, particion, particiones,
+                        0L, 0L, 0L, 0L, false, LocalDateTime.now()));
+            }
+            return puntoControlRepository.saveAll(nuevos);
+        });
+    }
+
+    private void ejecutarParticiones(YearMonth periodo, List<PuntoControlFacturacion> pendientes) {
+        if (pendientes.isEmpty()) {
+            return;
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(hilos, pendientes.size()), tarea -> {
+            Thread hilo = new Thread(tarea, "facturacion-particion-" + contadorHilos.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        try {
+            List<Future<?>> futuros = pendientes.stream()
+                    .<Future<?>>map(punto -> pool.submit(() -> procesarParticion(periodo, punto)))
+                    .toList();
+            List<Integer> fallidas = new ArrayList<>();
+            for (int i = 0; i < futuros.size(); i++) {
+                try {
+                    futuros.get(i).get();
+                } catch (ExecutionException e) {
+                    fallidas.add(pendientes.get(i).getParticion());
+                    log.error("Error en la partición {} del ciclo {}", pendientes.get(i).getParticion(), periodo, e.getCause());
+                }
+            }
+            if (!fallidas.isEmpty()) {
+                throw new IllegalStateException("Particiones con error en el ciclo " + periodo + ": " + fallidas
+                        + ". Al volver a ejecutar se reanudan desde su último punto de control");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ciclo de facturación interrumpido: " + periodo, e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void procesarParticion(YearMonth periodo, PuntoControlFacturacion punto) {
+        String clave = periodo.toString();
+        LocalDateTime finPeriodo = periodo.plusMonths(1).atDay(1).atStartOfDay();
+        long ultimoId = punto.getUltimoId();
+        boolean completado = false;
+
+        while (!completado) {
+            long inicio = System.nanoTime();
+            List<ServicioActivo> lote = leerLote(finPeriodo, ultimoId, punto.getParticion(), punto.getTotalParticiones());
+            completado = lote.size() < tamanoLote;
+
+            LocalDateTime ahora = LocalDateTime.now();
+            List<Factura> facturas = new ArrayList<>(lote.size());
+            for (ServicioActivo servicio : lote) {
+                facturas.add(calcular(clave, servicio, punto.getParticion(), ahora));
+            }
+            long nuevoUltimoId = lote.isEmpty() ? ultimoId : lote.get(lote.size() - 1).id();
+            boolean terminado = completado;
+
+            transactionTemplate.executeWithoutResult(status -> {
+                facturaRepository.saveAllAndFlush(facturas);
+                PuntoControlFacturacion actual = puntoControlRepository.findById(punto.getId())
+                        .orElseThrow(() -> new IllegalStateException("Punto de control no encontrado: " + punto.getId()));
+                actual.setUltimoId(nuevoUltimoId);
+                actual.setFilasProcesadas(actual.getFilasProcesadas() + lote.size());
+                actual.setFacturasEmitidas(actual.getFacturasEmitidas() + facturas.size());
+                actual.setDuracionMs(actual.getDuracionMs() + (System.nanoTime() - inicio) / 1_000_000);
+                actual.setCompletado(terminado);
+                actual.setFechaActualizacion(ahora);
+            });
+            ultimoId = nuevoUltimoId;
+        }
+        log.info("Partición {} del ciclo {} completada", punto.getParticion(), clave);
+    }
+
+    /**
+     * Siguiente lote de la partición a partir de {@code ultimoId}, combinando la tabla activa
+     * y el archivo: los ids se conservan al archivar, así que el orden por id es común a ambas.
+     */
+    private List<ServicioActivo> leerLote(LocalDateTime finPeriodo, long ultimoId, int particion, int totalParticiones) {
+        List<ServicioActivo> filas = new ArrayList<>(tamanoLote * 2);
+        for (String tabla : List.of("facturacion", "facturacion_archivo")) {
+            filas.addAll(jdbcTemplate.query(String.format(SELECT_ACTIVAS, tabla),
+                    (rs, fila) -> new ServicioActivo(rs.getLong(1), rs.getString(2), rs.getString(3),
+                            rs.getString(4), rs.getInt(5)),
+                    Timestamp.valueOf(finPeriodo), ultimoId, totalParticiones - 1, particion, tamanoLote));
+        }
+        filas.sort(Comparator.comparingLong(ServicioActivo::id));
+        return filas.size() > tamanoLote ? filas.subList(0, tamanoLote) : filas;
+    }
+
+    private Factura calcular(String periodo, ServicioActivo servicio, int particion, LocalDateTime ahora) {
+        int estrato = servicio.estrato();
+        double factor = estrato >= 1 && estrato <= factoresEstrato.length ? factoresEstrato[estrato - 1] : 1.0;
+        double total = Math.round(cargoFijo * factor);
+        Factura factura = new Factura();
+        factura.setPeriodo(periodo);
+        factura.setBusinessKey(servicio.businessKey());
+        factura.setCedulaCliente(servicio.cedulaCliente());
+        factura.setNumeroServicio(servicio.numeroServicio());
+        factura.setEstrato(estrato);
+        factura.setCargoFijo(cargoFijo);
+        factura.setAjusteEstrato(total - cargoFijo);
+        factura.setTotal(total);
+        factura.setParticion(particion);
+        factura.setFechaEmision(ahora);
+        return factura;
+    }
+
+    private record ServicioActivo(long id, String businessKey, String cedulaCliente, String numeroServicio,
+                                  int estrato) {
+    }
+}
@@ -1,14 +1,26 @@
 package com.gascorocora.transactional.service;
 
+import com.gascorocora.transactional.config.CacheConfig;
 import com.gascorocora.transactional.dto.ClienteDTO;
+import com.gascorocora.transactional.dto.ClienteResumen;
+import com.gascorocora.transactional.dto.ResultadoRegistro;
 import com.gascorocora.transactional.model.Cliente;
 import com.gascorocora.transactional.repository.ClienteRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -16,8 +28,11 @@ import java.util.Optional;
 public class ClienteService {
 
     private final ClienteRepository clienteRepository;
+    private final IndiceBusquedaService indiceBusquedaService;
+    private final OutboxService outboxService;
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CLIENTES, key = "#clienteDTO.cedula")
     public Cliente registrarCliente(ClienteDTO clienteDTO) {
         log.info("Registrando cliente con cédula: {}", clienteDTO.getCedula());
         
@@ -27,7 +42,10 @@ public class ClienteService {
             log.info("Cliente ya existe, actualizando datos");
             Cliente cliente = existente.get();
             actualizarDatosCliente(cliente, clienteDTO);
-            return clienteRepository.save(cliente);
+            Cliente actualizado = clienteRepository.save(cliente);
+            indiceBusquedaService.indexarCliente(actualizado);
+            registrarCambio(actualizado, OutboxService.ACTUALIZADO);
+            return actualizado;
         }
         
         // Crear nuevo cliente
@@ -36,10 +54,82 @@ public class ClienteService {
         actualizarDatosCliente(cliente, clienteDTO);
         
         Cliente saved = clienteRepository.save(cliente);
+        indiceBusquedaService.indexarCliente(saved);
+        registrarCambio(saved, OutboxService.CREADO);
         log.info("Cliente registrado con ID: {}", saved.getId());
         return saved;
     }
 
+    /**
+     * Upsert de un lote de clientes por cédula: una sola consulta para los existentes,
+     * inserciones y actualizaciones agrupadas en batch al hacer flush.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CLIENTES, allEntries = true)
+    public List<ResultadoRegistro> registrarClientes(List<ClienteDTO> lote) {
+        List<String> cedulas = lote.stream()
+                .map(ClienteDTO::getCedula)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<String, Cliente> porCedula = new HashMap<>(clienteRepository.findByCedulaIn(cedulas).stream()
+                .collect(Collectors.toMap(Cliente::getCedula, Function.identity())));
+
+        List<ResultadoRegistro> resultados = new ArrayList<>(lote.size());
+        List<Cliente> procesados = new ArrayList<>(lote.size());
+        List<Cliente> nuevos = new ArrayList<>();
+        for (int i = 0; i < lote.size(); i++) {
+            ClienteDTO dto = lote.get(i);
+            String error = validarCliente(dto);
+            if (error != null) {
+                resultados.add(new ResultadoRegistro(i, dto.getCedula(), "ERROR", null, error));
+                procesados.add(null);
+                continue;
+            }
+
+            Cliente cliente = porCedula.get(dto.getCedula());
+            String estado = "ACTUALIZADO";
+            if (cliente == null) {
+                cliente = new Cliente();
+                cliente.setCedula(dto.getCedula());
+                porCedula.put(dto.getCedula(), cliente);
+                nuevos.add(cliente);
+                estado = "CREADO";
+            }
+            actualizarDatosCliente(cliente, dto);
+            resultados.add(new ResultadoRegistro(i, dto.getCedula(), estado, null, null));
+            procesados.add(cliente);
+        }
+
+        // El ID se asigna desde la secuencia al persistir, antes del flush
+        clienteRepository.saveAll(nuevos);
+        for (int i = 0; i < resultados.size(); i++) {
+            if (procesados.get(i) != null) {
+                resultados.get(i).setId(procesados.get(i).getId());
+                indiceBusquedaService.indexarCliente(procesados.get(i));
+                registrarCambio(procesados.get(i), "CREADO".equals(resultados.get(i).getEstado())
+                        ? OutboxService.CREADO : OutboxService.ACTUALIZADO);
+            }
+        }
+        log.info("Lote de clientes procesado: {} registros, {} nuevos", lote.size(), nuevos.size());
+        return resultados;
+    }
+
+    private void registrarCambio(Cliente cliente, String operacion) {
+        outboxService.registrar(OutboxService.CLIENTE, cliente.getCedula(), operacion, () -> cliente);
+    }
+
+    private String validarCliente(ClienteDTO dto) {
+        if (dto.getCedula() == null || dto.getCedula().isBlank()) return "La cédula es obligatoria";
+        if (dto.getNombre() == null) return "El nombre es obligatorio";
+        if (dto.getDireccion() == null) return "La dirección es obligatoria";
+        if (dto.getCiudad() == null) return "La ciudad es obligatoria";
+        if (dto.getEstrato() == null) return "El estrato es obligatorio";
+        if (dto.getTelefono() == null) return "El teléfono es obligatorio";
+        if (dto.getEmail() == null) return "El email es obligatorio";
+        return null;
+    }
+
     private void actualizarDatosCliente(Cliente cliente, ClienteDTO dto) {
         cliente.setNombre(dto.getNombre());
         cliente.setDireccion(dto.getDireccion());
@@ -49,10 +139,15 @@ public class ClienteService {
         cliente.setEmail(dto.getEmail());
     }
 
+    @Cacheable(cacheNames = CacheConfig.CLIENTES, key = "#cedula", unless = "#result == null")
     public Optional<Cliente> obtenerPorCedula(String cedula) {
         return clienteRepository.findByCedula(cedula);
     }
 
+    public Optional<ClienteResumen> obtenerResumenPorCedula(String cedula) {
+        return clienteRepository.findResumenByCedula(cedula);
+    }
+
     public Cliente obtenerPorId(Long id) {
         return clienteRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Cliente no encontrado"));
@@ -0,0 +1,231 @@
+package com.gascorocora.transactional.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gascorocora.transactional.dto.CoberturaResponse;
+import com.gascorocora.transactional.dto.ConsultaCobertura;
+import com.gascorocora.transactional.dto.EstadoCobertura;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Verificación automática de cobertura contra la red de gas. La red (zonas y tramos de
+ * tubería) se lee de un archivo GeoJSON o CSV local a un {@link IndiceCobertura} en memoria,
+ * que se reemplaza completo cuando el archivo cambia; las consultas nunca esperan una recarga.
+ *
+ * GeoJSON: Polygon/MultiPolygon son zonas, LineString/MultiLineString son tramos con radio
+ * de servicio en la propiedad "radioMetros" (o el radio por defecto). El nombre sale de la
+ * propiedad "nombre". CSV: zona,lat1,lon1,lat2,lon2,radio_metros, un tramo por línea.
+ */
+@Service
+@Slf4j
+public class CoberturaService {
+
+    private final ObjectMapper objectMapper;
+    private final Path archivo;
+    private final double tamanoCelda;
+    private final double radioMetros;
+
+    private volatile IndiceCobertura indice = IndiceCobertura.VACIO;
+    private volatile FileTime versionCargada;
+    private volatile LocalDateTime fechaCarga;
+    private volatile long duracionCargaMs;
+
+    public CoberturaService(ObjectMapper objectMapper,
+                            @Value("${transactional.cobertura.archivo:./red-gas/red.geojson}") Path archivo,
+                            @Value("${transactional.cobertura.tamano-celda:0.01}") double tamanoCelda,
+                            @Value("${transactional.cobertura.radio-metros:50}") double radioMetros) {
+        this.objectMapper = objectMapper;
+        this.archivo = archivo.toAbsolutePath().normalize();
+        this.tamanoCelda = tamanoCelda;
+        this.radioMetros = radioMetros;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarAlIniciar() {
+        recargarSiCambio();
+    }
+
+    /**
+     * Recarga el índice si el archivo de red cambió desde la última carga. Si el archivo nuevo
+     * es inválido se conserva el índice anterior.
+     */
+    @Scheduled(fixedDelayString = "${transactional.cobertura.recarga-ms:30000}",
+            initialDelayString = "${transactional.cobertura.recarga-ms:30000}")
+    public synchronized void recargarSiCambio() {
+        try {
+            if (!Files.isRegularFile(archivo)) {
+                if (versionCargada != null) {
+                    log.warn("Archivo de red {} ya no existe, se conserva el índice cargado", archivo);
+                }
+                return;
+            }
+            FileTime version = Files.getLastModifiedTime(archivo);
+            if (version.equals(versionCargada)) {
+                return;
+            }
+            long inicio = System.currentTimeMillis();
+            IndiceCobertura nuevo = cargar();
+            indice = nuevo;
+            versionCargada = version;
+            fechaCarga = LocalDateTime.now();
+            duracionCargaMs = System.currentTimeMillis() - inicio;
+            log.info("Red de gas cargada desde {}: {} zonas, {} tramos, {} celdas en {} ms",
+                    archivo, nuevo.zonas(), nuevo.tramos(), nuevo.celdas(), duracionCargaMs);
+        } catch (IOException | RuntimeException e) {
+            log.error("No se pudo cargar la red de gas desde {}: {}", archivo, e.getMessage());
+        }
+    }
+
+    public CoberturaResponse verificar(Double latitud, Double longitud) {
+        if (!coordenadasValidas(latitud, longitud)) {
+            throw new IllegalArgumentException("Coordenadas inválidas");
+        }
+        return verificar(indice, latitud, longitud);
+    }
+
+    /**
+     * Verifica un lote de puntos contra la misma versión del índice; la respuesta conserva el
+     * orden de la consulta.
+     */
+    public List<CoberturaResponse> verificarLote(List<ConsultaCobertura> consultas) {
+        IndiceCobertura actual = indice;
+        List<CoberturaResponse> respuestas = new ArrayList<>(consultas.size());
+        for (ConsultaCobertura consulta : consultas) {
+            Double latitud = consulta.getLatitud();
+            Double longitud = consulta.getLongitud();
+            if (!coordenadasValidas(latitud, longitud)) {
+                respuestas.add(new CoberturaResponse(false, "Coordenadas inválidas", null));
+            } else {
+                respuestas.add(verificar(actual, latitud, longitud));
+            }
+        }
+        return respuestas;
+    }
+
+    public EstadoCobertura obtenerEstado() {
+        IndiceCobertura actual = indice;
+        return new EstadoCobertura(archivo.toString(), actual.zonas(), actual.tramos(), actual.celdas(),
+                actual.tamanoCelda(), fechaCarga, duracionCargaMs);
+    }
+
+    // Con NaN las comparaciones dan false: también se rechaza
+    private static boolean coordenadasValidas(Double latitud, Double longitud) {
+        return latitud != null && longitud != null
+                && Math.abs(latitud) <= 90 && Math.abs(longitud) <= 180;
+    }
+
+    private CoberturaResponse verificar(IndiceCobertura actual, double latitud, double longitud) {
+        if (versionCargada == null) {
+            return new CoberturaResponse(false, "Red de gas no cargada", null);
+        }
+        String zona = actual.buscar(latitud, longitud);
+        if (zona == null) {
+            return new CoberturaResponse(false, "Sin cobertura de red de gas", null);
+        }
+        return new CoberturaResponse(true, "Con cobertura de red de gas", zona);
+    }
+
+    private IndiceCobertura cargar() throws IOException {
+        IndiceCobertura.Constructor constructor = new IndiceCobertura.Constructor(tamanoCelda);
+        String nombreArchivo = archivo.getFileName().toString().toLowerCase();
+        if (nombreArchivo.endsWith(".csv")) {
+            cargarCsv(constructor);
+        } else {
+            cargarGeoJson(constructor);
+        }
+        return constructor.construir();
+    }
+
+    private void cargarGeoJson(IndiceCobertura.Constructor constructor) throws IOException {
+        JsonNode raiz = objectMapper.readTree(archivo.toFile());
+        JsonNode features = raiz.path("features");
+        for (int i = 0; i < features.size(); i++) {
+            JsonNode feature = features.get(i);
+            JsonNode propiedades = feature.path("properties");
+            String nombre = propiedades.path("nombre").asText("zona-" + (i + 1));
+            double radio = propiedades.path("radioMetros").asDouble(radioMetros);
+            JsonNode geometria = feature.path("geometry");
+            JsonNode coordenadas = geometria.path("coordinates");
+            switch (geometria.path("type").asText()) {
+                case "Polygon" -> constructor.agregarZona(nombre, anillos(coordenadas));
+                case "MultiPolygon" -> {
+                    for (JsonNode poligono : coordenadas) {
+                        constructor.agregarZona(nombre, anillos(poligono));
+                    }
+                }
+                case "LineString" -> agregarLinea(constructor, nombre, coordenadas, radio);
+                case "MultiLineString" -> {
+                    for (JsonNode linea : coordenadas) {
+                        agregarLinea(constructor, nombre, linea, radio);
+                    }
+                }
+                default -> log.warn("Geometría no soportada en la red de gas: {}", geometria.path("type").asText());
+            }
+        }
+    }
+
+    // GeoJSON usa [longitud, latitud]; el índice guarda lon/lat intercalados en el mismo orden
+    private static double[][] anillos(JsonNode poligono) {
+        if (poligono.size() == 0) {
+            throw new IllegalArgumentException("Polígono sin anillos en la red de gas");
+        }
+        double[][] anillos = new double[poligono.size()][];
+        for (int r = 0; r < poligono.size(); r++) {
+            JsonNode anillo = poligono.get(r);
+            double[] puntos = new double[anillo.size() * 2];
+            for (int p = 0; p < anillo.size(); p++) {
+                puntos[2 * p] = anillo.get(p).get(0).asDouble();
+                puntos[2 * p + 1] = anillo.get(p).get(1).asDouble();
+            }
+            anillos[r] = puntos;
+        }
+        return anillos;
+    }
+
+    private static void agregarLinea(IndiceCobertura.Constructor constructor, String nombre,
+                                     JsonNode linea, double radio) {
+        for (int p = 1; p < linea.size(); p++) {
+            JsonNode a = linea.get(p - 1);
+            JsonNode b = linea.get(p);
+            constructor.agregarTramo(nombre, a.get(0).asDouble(), a.get(1).asDouble(),
+                    b.get(0).asDouble(), b.get(1).asDouble(), radio);
+        }
+    }
+
+    private void cargarCsv(IndiceCobertura.Constructor constructor) throws IOException {
+        try (BufferedReader lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            String linea;
+            int numero = 0;
+            while ((linea = lector.readLine()) != null) {
+                numero++;
+                if (linea.isBlank() || linea.startsWith("#") || linea.startsWith("zona,")) {
+                    continue;
+                }
+                String[] campos = linea.split(",");
+                if (campos.length < 5) {
+                    throw new IllegalArgumentException("Línea " + numero + " inválida en la red de gas");
+                }
+                double radio = campos.length > 5 && !campos[5].isBlank()
+                        ? Double.parseDouble(campos[5].trim()) : radioMetros;
+                constructor.agregarTramo(campos[0].trim(),
+                        Double.parseDouble(campos[2].trim()), Double.parseDouble(campos[1].trim()),
+                        Double.parseDouble(campos[4].trim()), Double.parseDouble(campos[3].trim()), radio);
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.gascorocora.transactional.service;
+
+import com.gascorocora.transactional.dto.LineaNoConciliada;
+import com.gascorocora.transactional.dto.ResultadoConciliacion;
+import com.gascorocora.transactional.repository.FacturacionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Conciliación de extractos bancarios contra los pagos registrados a mano. Se construye un
+ * índice hash numeroTransaccion → pago con los pagos aún sin conciliar, el extracto se
+ * recorre una sola vez y los pagos encontrados con el mismo monto se confirman en lotes.
+ * Un número de transacción registrado en varios pagos no se concilia automáticamente: sus
+ * líneas se reportan como AMBIGUA para revisión manual.
+ */
+@Service
+@Slf4j
+public class ConciliacionBancariaService {
+
+    private static final BigDecimal TOLERANCIA = new BigDecimal("0.01");
+
+    private final FacturacionRepository facturacionRepository;
+    private final FacturacionService facturacionService;
+    private final Path directorio;
+    private final int tamanoLote;
+    private final int detalleMaximo;
+
+    public ConciliacionBancariaService(FacturacionRepository facturacionRepository,
+                                       FacturacionService facturacionService,
+                                       @Value("${transactional.conciliacion.directorio:./extractos}") Path directorio,
+                                       @Value("${transactional.conciliacion.tamano-lote:500}") int tamanoLote,
+                                       @Value("${transactional.conciliacion.detalle-maximo:1000}") int detalleMaximo) {
+        this.facturacionRepository = facturacionRepository;
+        this.facturacionService = facturacionService;
+        this.directorio = directorio.toAbsolutePath().normalize();
+        this.tamanoLote = tamanoLote;
+        this.detalleMaximo = detalleMaximo;
+    }
+
+    /**
+     * Concilia un extracto del directorio configurado, donde el banco deja los archivos diarios.
+     */
+    public ResultadoConciliacion conciliarArchivo(String nombre) throws IOException {
+        Path archivo = directorio.resolve(nombre).normalize();
+        if (!archivo.startsWith(directorio) || !Files.isRegularFile(archivo)) {
+            throw new IllegalArgumentException("Extracto no encontrado: " + nombre);
+        }
+        return conciliar(archivo, nombre);
+    }
+
+    /**
+     * Concilia un extracto recibido en la petición. Se copia a un archivo temporal para poder
+     * mapearlo en memoria.
+     */
+    public ResultadoConciliacion conciliarContenido(InputStream contenido) throws IOException {
+        Path temporal = Files.createTempFile("extracto-", ".csv");
+        try {
+            Files.copy(contenido, temporal, StandardCopyOption.REPLACE_EXISTING);
+            return conciliar(temporal, "carga");
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    private ResultadoConciliacion conciliar(Path archivo, String nombre) throws IOException {
+        long inicio = System.currentTimeMillis();
+        Map<String, List<Long>> repetidos = new HashMap<>();
+        Map<String, PagoRegistrado> indice = construirIndice(repetidos);
+        Set<String> conciliadasEnArchivo = new HashSet<>();
+        Map<Long, LocalDateTime> lote = new LinkedHashMap<>();
+        List<LineaNoConciliada> noConciliadas = new ArrayList<>();
+        long[] contadores = new long[7]; // leídas, conciliadas, sin coincidencia, monto, duplicadas, inválidas, ambiguas
+
+        LectorExtractoBancario.leer(archivo, linea -> {
+            contadores[0]++;
+            if (linea.error() != null) {
+                contadores[5]++;
+                agregar(noConciliadas, new LineaNoConciliada(linea.numero(), null, null, null, "INVALIDA", linea.error()));
+                return;
+            }
+            PagoRegistrado pago = indice.get(linea.numeroTransaccion());
+            if (pago == null) {
+                List<Long> ids = repetidos.get(linea.numeroTransaccion());
+                if (ids != null) {
+                    contadores[6]++;
+                    agregar(noConciliadas, new LineaNoConciliada(linea.numero(), linea.numeroTransaccion(),
+                            linea.monto(), null, "AMBIGUA", "Pagos registrados con el mismo número de transacción: " + ids));
+                    return;
+                }
+                boolean duplicada = conciliadasEnArchivo.contains(linea.numeroTransaccion());
+                contadores[duplicada ? 4 : 2]++;
+                agregar(noConciliadas, new LineaNoConciliada(linea.numero(), linea.numeroTransaccion(),
+                        linea.monto(), null, duplicada ? "DUPLICADA" : "SIN_COINCIDENCIA", null));
+                return;
+            }
+            if (pago.monto() == null || linea.monto().subtract(BigDecimal.valueOf(pago.monto())).abs().compareTo(TOLERANCIA) >= 0) {
+                contadores[3]++;
+                agregar(noConciliadas, new LineaNoConciliada(linea.numero(), linea.numeroTransaccion(),
+                        linea.monto(), pago.monto(), "MONTO_DIFERENTE", null));
+                // El pago sigue pendiente: otra línea con el monto correcto aún puede conciliarlo
+                return;
+            }
+            indice.remove(linea.numeroTransaccion());
+            conciliadasEnArchivo.add(linea.numeroTransaccion());
+            lote.put(pago.id(), linea.fecha().atStartOfDay());
+            if (lote.size() >= tamanoLote) {
+                contadores[1] += confirmar(lote);
+            }
+        });
+        contadores[1] += confirmar(lote);
+
+        ResultadoConciliacion resultado = new ResultadoConciliacion(nombre, contadores[0], contadores[1],
+                contadores[2], contadores[3], contadores[4], contadores[5], contadores[6], repetidos.size(),
+                indice.size() + repetidos.values().stream().mapToLong(List::size).sum(),
+                System.currentTimeMillis() - inicio, noConciliadas);
+        log.info("Extracto {} conciliado: {} líneas, {} conciliadas, {} sin coincidencia, {} con monto diferente, {} ambiguas en {} ms",
+                nombre, resultado.getLineasLeidas(), resultado.getConciliadas(), resultado.getSinCoincidencia(),
+                resultado.getMontoDiferente(), resultado.getAmbiguas(), resultado.getDuracionMs());
+        return resultado;
+    }
+
+    /**
+     * Índice de pagos sin conciliar por número de transacción. Los números registrados en más
+     * de un pago salen del índice y quedan en {@code repetidos} con los ids de sus pagos.
+     */
+    private Map<String, PagoRegistrado> construirIndice(Map<String, List<Long>> repetidos) {
+        List<Object[]> filas = facturacionRepository.findTransaccionesSinConciliar();
+        Map<String, PagoRegistrado> indice = new HashMap<>(Math.max(16, (int) (filas.size() / 0.75f) + 1));
+        for (Object[] fila : filas) {
+            String numeroTransaccion = (String) fila[1];
+            Long id = (Long) fila[0];
+            List<Long> ids = repetidos.get(numeroTransaccion);
+            if (ids != null) {
+                ids.add(id);
+                continue;
+            }
+            PagoRegistrado anterior = indice.putIfAbsent(numeroTransaccion, new PagoRegistrado(id, (Double) fila[2]));
+            if (anterior != null) {
+                indice.remove(numeroTransaccion);
+                repetidos.put(numeroTransaccion, new ArrayList<>(List.of(anterior.id(), id)));
+            }
+        }
+        if (!repetidos.isEmpty()) {
+            log.warn("{} números de transacción registrados en más de un pago; no se concilian automáticamente",
+                    repetidos.size());
+        }
+        return indice;
+    }
+
+    private int confirmar(Map<Long, LocalDateTime> lote) {
+        if (lote.isEmpty()) {
+            return 0;
+        }
+        int confirmadas = facturacionService.conciliarPagos(new HashMap<>(lote));
+        lote.clear();
+        return confirmadas;
+    }
+
+    private void agregar(List<LineaNoConciliada> noConciliadas, LineaNoConciliada linea) {
+        if (noConciliadas.size() < detalleMaximo) {
+            noConciliadas.add(linea);
+        }
+    }
+
+    private record PagoRegistrado(Long id, Double monto) {
+    }
+}
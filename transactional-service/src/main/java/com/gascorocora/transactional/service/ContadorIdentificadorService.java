@@ -0,0 +1,44 @@
+package com.gascorocora.transactional.service;
+
+import com.gascorocora.transactional.dto.BloqueIdentificadores;
+import com.gascorocora.transactional.model.ContadorIdentificador;
+import com.gascorocora.transactional.repository.ContadorIdentificadorRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.LongSupplier;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ContadorIdentificadorService {
+
+    private final ContadorIdentificadorRepository contadorRepository;
+
+    /**
+     * Avanza la marca de agua en {@code tamano} y devuelve el rango reservado. Se confirma en
+     * su propia transacción: un bloque entregado nunca se reutiliza aunque la operación que
+     * lo pidió haga rollback. Si dos llamadas crean el contador a la vez, la segunda falla con
+     * {@code DataIntegrityViolationException} y quien la llama debe reintentar.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public BloqueIdentificadores reservarBloque(String nombre, int tamano, LongSupplier valorInicial) {
+        if (contadorRepository.avanzar(nombre, tamano) == 0) {
+            long base = valorInicial.getAsLong();
+            // saveAndFlush: la clave primaria duplicada se detecta aquí y no al confirmar
+            contadorRepository.saveAndFlush(new ContadorIdentificador(nombre, base + tamano));
+            log.info("Contador {} inicializado en {}", nombre, base);
+            return new BloqueIdentificadores(nombre, base + 1, base + tamano);
+        }
+
+        // El UPDATE mantiene bloqueada la fila hasta el commit, así que el valor leído es el propio
+        long maximo = contadorRepository.findById(nombre)
+                .orElseThrow(() -> new RuntimeException("Contador no encontrado: " + nombre))
+                .getValorMaximo();
+        log.debug("Bloque reservado para {}: {} - {}", nombre, maximo - tamano + 1, maximo);
+        return new BloqueIdentificadores(nombre, maximo - tamano + 1, maximo);
+    }
+}
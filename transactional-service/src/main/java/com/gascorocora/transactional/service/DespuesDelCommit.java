@@ -0,0 +1,27 @@
+package com.gascorocora.transactional.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Ejecuta efectos en memoria (contadores, índices) solo cuando la transacción actual se
+ * confirma. Fuera de una transacción se ejecutan de inmediato.
+ */
+final class DespuesDelCommit {
+
+    private DespuesDelCommit() {
+    }
+
+    static void ejecutar(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+}
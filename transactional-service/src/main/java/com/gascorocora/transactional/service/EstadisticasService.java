@@ -0,0 +1,144 @@
+package com.gascorocora.transactional.service;
+
+import com.gascorocora.transactional.dto.EstadisticasResponse;
+import com.gascorocora.transactional.repository.FacturacionArchivadaRepository;
+import com.gascorocora.transactional.repository.FacturacionRepository;
+import com.gascorocora.transactional.repository.SolicitudArchivadaRepository;
+import com.gascorocora.transactional.repository.SolicitudRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Contadores operativos mantenidos por los servicios de escritura. Los ajustes se aplican
+ * después del commit y una reconciliación periódica contra las tablas corrige cualquier
+ * desviación.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EstadisticasService {
+
+    private static final String SIN_VALOR = "SIN_VALOR";
+
+    private final SolicitudRepository solicitudRepository;
+    private final FacturacionRepository facturacionRepository;
+    private final SolicitudArchivadaRepository solicitudArchivadaRepository;
+    private final FacturacionArchivadaRepository facturacionArchivadaRepository;
+
+    private volatile Contadores contadores = new Contadores();
+
+    public void solicitudCreada(String estado, Integer estrato) {
+        DespuesDelCommit.ejecutar(() -> {
+            ajustar(Contadores::solicitudesPorEstado, estado, 1);
+            ajustar(Contadores::solicitudesPorEstrato, estrato, 1);
+        });
+    }
+
+    public void estadoSolicitudCambiado(String anterior, String nuevo) {
+        if (!Objects.equals(anterior, nuevo)) {
+            DespuesDelCommit.ejecutar(() -> mover(Contadores::solicitudesPorEstado, anterior, nuevo));
+        }
+    }
+
+    public void estratoSolicitudCambiado(Integer anterior, Integer nuevo) {
+        if (!Objects.equals(anterior, nuevo)) {
+            DespuesDelCommit.ejecutar(() -> mover(Contadores::solicitudesPorEstrato, anterior, nuevo));
+        }
+    }
+
+    public void facturacionCreada(String estado) {
+        DespuesDelCommit.ejecutar(() -> ajustar(Contadores::facturacionPorEstado, estado, 1));
+    }
+
+    public void estadoFacturacionCambiado(String anterior, String nuevo) {
+        if (!Objects.equals(anterior, nuevo)) {
+            DespuesDelCommit.ejecutar(() -> mover(Contadores::facturacionPorEstado, anterior, nuevo));
+        }
+    }
+
+    public EstadisticasResponse obtenerEstadisticas() {
+        Contadores actuales = contadores;
+        return new EstadisticasResponse(
+                instantanea(actuales.solicitudesPorEstado()),
+                instantanea(actuales.solicitudesPorEstrato()),
+                instantanea(actuales.facturacionPorEstado()),
+                actuales.fechaReconciliacion);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${transactional.estadisticas.reconciliacion-ms:600000}",
+               initialDelayString = "${transactional.estadisticas.reconciliacion-ms:600000}")
+    @Transactional(readOnly = true)
+    public void reconciliar() {
+        Contadores nuevos = new Contadores();
+        cargar(nuevos.solicitudesPorEstado(), solicitudRepository.contarPorEstado());
+        cargar(nuevos.solicitudesPorEstrato(), solicitudRepository.contarPorEstrato());
+        cargar(nuevos.facturacionPorEstado(), facturacionRepository.contarPorEstado());
+        // El archivo solo traslada filas: los totales incluyen ambas tablas
+        cargar(nuevos.solicitudesPorEstado(), solicitudArchivadaRepository.contarPorEstado());
+        cargar(nuevos.solicitudesPorEstrato(), solicitudArchivadaRepository.contarPorEstrato());
+        cargar(nuevos.facturacionPorEstado(), facturacionArchivadaRepository.contarPorEstado());
+        nuevos.fechaReconciliacion = LocalDateTime.now();
+        contadores = nuevos;
+        log.info("Estadísticas reconciliadas: {}", instantanea(nuevos.solicitudesPorEstado()));
+    }
+
+    private void cargar(Map<String, LongAdder> destino, List<Object[]> filas) {
+        for (Object[] fila : filas) {
+            destino.computeIfAbsent(clave(fila[0]), k -> new LongAdder()).add((Long) fila[1]);
+        }
+    }
+
+    private void mover(Function<Contadores, Map<String, LongAdder>> dimension, Object anterior, Object nuevo) {
+        ajustar(dimension, anterior, -1);
+        ajustar(dimension, nuevo, 1);
+    }
+
+    private void ajustar(Function<Contadores, Map<String, LongAdder>> dimension, Object valor, long delta) {
+        dimension.apply(contadores).computeIfAbsent(clave(valor), k -> new LongAdder()).add(delta);
+    }
+
+    private String clave(Object valor) {
+        return valor == null ? SIN_VALOR : valor.toString();
+    }
+
+    private Map<String, Long> instantanea(Map<String, LongAdder> contador) {
+        Map<String, Long> resultado = new TreeMap<>();
+        contador.forEach((clave, total) -> resultado.put(clave, total.sum()));
+        return resultado;
+    }
+
+    private static final class Contadores {
+
+        private final Map<String, LongAdder> solicitudesPorEstado = new ConcurrentHashMap<>();
+        private final Map<String, LongAdder> solicitudesPorEstrato = new ConcurrentHashMap<>();
+        private final Map<String, LongAdder> facturacionPorEstado = new ConcurrentHashMap<>();
+        private LocalDateTime fechaReconciliacion;
+
+        Map<String, LongAdder> solicitudesPorEstado() {
+            return solicitudesPorEstado;
+        }
+
+        Map<String, LongAdder> solicitudesPorEstrato() {
+            return solicitudesPorEstrato;
+        }
+
+        Map<String, LongAdder> facturacionPorEstado() {
+            return facturacionPorEstado;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.gascorocora.transactional.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportación de facturación unida con los datos del cliente, para finanzas. Recorre un
+ * cursor JDBC forward-only con fetch size acotado y escribe cada fila directamente en la
+ * salida, de modo que la memoria usada no depende del número de filas. Incluye las
+ * facturaciones archivadas. El orden de salida es el del recorrido, sin ORDER BY, para no
+ * obligar a la base de datos a materializar y ordenar el resultado completo.
+ */
+@Service
+@Slf4j
+public class ExportacionFacturacionService {
+
+    public static final String FORMATO_CSV = "csv";
+    public static final String FORMATO_NDJSON = "ndjson";
+
+    private static final int FILAS_POR_FLUSH = 1000;
+
+    private static final String[] COLUMNAS = {
+            "id", "business_key", "cedula_cliente", "nombre", "direccion", "ciudad", "estrato",
+            "telefono", "email", "monto_recibido", "metodo_pago", "numero_transaccion", "fecha_pago",
+            "numero_servicio", "fecha_activacion", "estado", "fecha_registro"
+    };
+
+    private static final String SELECT_TABLA =
+            "SELECT f.id, f.business_key, f.cedula_cliente, c.nombre, c.direccion, c.ciudad, c.estrato, " +
+            "c.telefono, c.email, f.monto_recibido, f.metodo_pago, f.numero_transaccion, f.fecha_pago, " +
+            "f.numero_servicio, f.fecha_activacion, f.estado, f.fecha_registro " +
+            "FROM %s f LEFT JOIN clientes c ON c.cedula = f.cedula_cliente";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public ExportacionFacturacionService(DataSource dataSource,
+                                         ObjectMapper objectMapper,
+                                         @Value("${transactional.exportacion.fetch-size:500}") int fetchSize) {
+        // JdbcTemplate propio: el fetch size no debe afectar al resto de consultas
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.objectMapper = objectMapper;
+    }
+
+    public void exportar(String formato, String estado, LocalDateTime desde, LocalDateTime hasta,
+                         boolean comprimir, OutputStream salida) throws IOException {
+        List<Object> parametros = new ArrayList<>();
+        String condicion = condicion(estado, desde, hasta, parametros);
+        String sql = String.format(SELECT_TABLA, "facturacion") + condicion +
+                " UNION ALL " + String.format(SELECT_TABLA, "facturacion_archivo") + condicion;
+        List<Object> todos = new ArrayList<>(parametros);
+        todos.addAll(parametros);
+
+        OutputStream destino = comprimir ? new GZIPOutputStream(salida, 64 * 1024) : salida;
+        EscritorFilas escritor = FORMATO_NDJSON.equals(formato)
+                ? new EscritorNdjson(destino) : new EscritorCsv(destino);
+        long inicio = System.currentTimeMillis();
+        long[] filas = {0};
+
+        escritor.encabezado();
+        try {
+            jdbcTemplate.query(conexion -> {
+                PreparedStatement ps = conexion.prepareStatement(sql,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                for (int i = 0; i < todos.size(); i++) {
+                    ps.setObject(i + 1, todos.get(i));
+                }
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    escritor.fila(rs);
+                    if (++filas[0] % FILAS_POR_FLUSH == 0) {
+                        escritor.flush();
+                    }
+                } catch (IOException e) {
+                    // Cliente desconectado: se corta el recorrido del cursor
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        escritor.cerrar();
+        if (comprimir) {
+            ((GZIPOutputStream) destino).finish();
+        }
+        salida.flush();
+        log.info("Exportación de facturación ({}) finalizada: {} filas en {} ms",
+                formato, filas[0], System.currentTimeMillis() - inicio);
+    }
+
+    private String condicion(String estado, LocalDateTime desde, LocalDateTime hasta, List<Object> parametros) {
+        List<String> condiciones = new ArrayList<>();
+        if (estado != null) {
+            condiciones.add("f.estado = ?");
+            parametros.add(estado);
+        }
+        if (desde != null) {
+            condiciones.add("f.fecha_registro >= ?");
+            parametros.add(Timestamp.valueOf(desde));
+        }
+        if (hasta != null) {
+            condiciones.add("f.fecha_registro < ?");
+            parametros.add(Timestamp.valueOf(hasta));
+        }
+        return condiciones.isEmpty() ? "" : " WHERE " + String.join(" AND ", condiciones);
+    }
+
+    // Montos sin notación científica y fechas ISO sin zona, igual en CSV y NDJSON
+    private static String texto(Object valor) {
+        if (valor instanceof Double numero) {
+            return BigDecimal.valueOf(numero).toPlainString();
+        }
+        if (valor instanceof Timestamp fecha) {
+            return fecha.toLocalDateTime().toString();
+        }
+        return valor.toString();
+    }
+
+    private interface EscritorFilas {
+        void encabezado() throws IOException;
+
+        void fila(ResultSet rs) throws IOException, SQLException;
+
+        void flush() throws IOException;
+
+        void cerrar() throws IOException;
+    }
+
+    private static final class EscritorCsv implements EscritorFilas {
+
+        private final Writer writer;
+
+        private EscritorCsv(OutputStream salida) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), 64 * 1024);
+        }
+
+        @Override
+        public void encabezado() throws IOException {
+            writer.write(String.join(",", COLUMNAS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void fila(ResultSet rs) throws IOException, SQLException {
+            for (int i = 1; i <= COLUMNAS.length; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                Object valor = rs.getObject(i);
+                if (valor != null) {
+                    escribirCampo(texto(valor));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        // RFC 4180: comillas solo cuando el campo lleva separador, comillas o salto de línea
+        private void escribirCampo(String campo) throws IOException {
+            if (campo.indexOf(',') < 0 && campo.indexOf('"') < 0
+                    && campo.indexOf('\n') < 0 && campo.indexOf('\r') < 0) {
+                writer.write(campo);
+                return;
+            }
+            writer.write('"');
+            writer.write(campo.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void cerrar() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private final class EscritorNdjson implements EscritorFilas {
+
+        private final JsonGenerator generator;
+
+        private EscritorNdjson(OutputStream salida) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(salida);
+            // Sin separador entre objetos raíz: cada fila termina con su propio salto de línea
+            this.generator.setPrettyPrinter(new MinimalPrettyPrinter(""));
+        }
+
+        @Override
+        public void encabezado() {
+        }
+
+        @Override
+        public void fila(ResultSet rs) throws IOException, SQLException {
+            generator.writeStartObject();
+            for (int i = 1; i <= COLUMNAS.length; i++) {
+                Object valor = rs.getObject(i);
+                generator.writeFieldName(COLUMNAS[i - 1]);
+                if (valor == null) {
+                    generator.writeNull();
+                } else if (valor instanceof Number) {
+                    generator.writeNumber(texto(valor));
+                } else {
+                    generator.writeString(texto(valor));
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void cerrar() throws IOException {
+            generator.flush();
+        }
+    }
+}
@@ -1,29 +1,45 @@
 package com.gascorocora.transactional.service;
 
+import com.gascorocora.transactional.config.CacheConfig;
 import com.gascorocora.transactional.dto.FacturacionDTO;
+import com.gascorocora.transactional.dto.FacturacionResumen;
 import com.gascorocora.transactional.model.Facturacion;
+import com.gascorocora.transactional.model.FacturacionArchivada;
+import com.gascorocora.transactional.repository.FacturacionArchivadaRepository;
 import com.gascorocora.transactional.repository.FacturacionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.Random;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class FacturacionService {
 
+    public static final String OPERACION_PAGO = "PAGO";
+    public static final String OPERACION_ACTIVACION = "ACTIVACION";
+
     private final FacturacionRepository facturacionRepository;
+    private final FacturacionArchivadaRepository facturacionArchivadaRepository;
+    private final IdentificadorService identificadorService;
+    private final IdempotenciaService idempotenciaService;
+    private final EstadisticasService estadisticasService;
+    private final OutboxService outboxService;
 
     @Transactional
-    public Facturacion registrarPago(FacturacionDTO facturacionDTO) {
+    @CacheEvict(cacheNames = CacheConfig.FACTURACION, key = "#facturacionDTO.businessKey")
+    public Facturacion registrarPago(FacturacionDTO facturacionDTO, String claveIdempotencia) {
         log.info("Registrando pago para businessKey: {}", facturacionDTO.getBusinessKey());
         
         Facturacion facturacion = facturacionRepository.findByBusinessKey(facturacionDTO.getBusinessKey())
-                .orElse(new Facturacion());
+                .orElseGet(() -> nuevaNoArchivada(facturacionDTO.getBusinessKey()));
         
         facturacion.setBusinessKey(facturacionDTO.getBusinessKey());
         facturacion.setCedulaCliente(facturacionDTO.getCedulaCliente());
@@ -33,40 +49,130 @@ public class FacturacionService {
         facturacion.setFechaPago(facturacionDTO.getFechaPago());
         facturacion.setComprobanteUrl(facturacionDTO.getComprobanteUrl());
         facturacion.setObservacionesPago(facturacionDTO.getObservacionesPago());
+        // Datos de pago nuevos: deben volver a confirmarse contra el extracto bancario
+        facturacion.setFechaConciliacion(null);
+        String estadoAnterior = facturacion.getEstado();
         facturacion.setEstado("PAGADO");
         
+        boolean nueva = facturacion.getId() == null;
         Facturacion saved = facturacionRepository.save(facturacion);
+        registrarCambioEstado(nueva, estadoAnterior, saved.getEstado());
+        outboxService.registrar(OutboxService.FACTURACION, saved.getBusinessKey(),
+                nueva ? OutboxService.CREADO : OutboxService.ACTUALIZADO, () -> saved);
+        if (claveIdempotencia != null) {
+            idempotenciaService.registrar(OPERACION_PAGO, claveIdempotencia, saved);
+        }
         log.info("Pago registrado con ID: {}", saved.getId());
         return saved;
     }
 
     @Transactional
-    public Facturacion activarServicio(String businessKey, String cedulaCliente) {
+    @CacheEvict(cacheNames = CacheConfig.FACTURACION, key = "#businessKey")
+    public Facturacion activarServicio(String businessKey, String cedulaCliente, String claveIdempotencia) {
         log.info("Activando servicio para businessKey: {}", businessKey);
         
-        Facturacion facturacion = facturacionRepository.findByBusinessKey(businessKey)
-                .orElse(new Facturacion());
+        Optional<Facturacion> viva = facturacionRepository.findByBusinessKey(businessKey);
+        if (viva.isEmpty()) {
+            Optional<Facturacion> archivada = buscarArchivada(businessKey);
+            if (archivada.isPresent()) {
+                // Repetición de una activación ya archivada: se devuelve tal cual, sin escribir
+                if ("ACTIVADO".equals(archivada.get().getEstado()) && archivada.get().getNumeroServicio() != null) {
+                    log.info("Servicio ya activado con número: {}", archivada.get().getNumeroServicio());
+                    return archivada.get();
+                }
+                throw new IllegalStateException("Facturación archivada: " + businessKey);
+            }
+        }
+        Facturacion facturacion = viva.orElseGet(Facturacion::new);
+
+        // Un servicio ya activado conserva su número aunque la llamada se repita
+        if ("ACTIVADO".equals(facturacion.getEstado()) && facturacion.getNumeroServicio() != null) {
+            log.info("Servicio ya activado con número: {}", facturacion.getNumeroServicio());
+            return facturacion;
+        }
         
         facturacion.setBusinessKey(businessKey);
         facturacion.setCedulaCliente(cedulaCliente);
-        facturacion.setNumeroServicio(generarNumeroServicio());
+        facturacion.setNumeroServicio(identificadorService.siguienteNumeroServicio());
         facturacion.setFechaActivacion(LocalDateTime.now());
+        String estadoAnterior = facturacion.getEstado();
         facturacion.setEstado("ACTIVADO");
         
+        boolean nueva = facturacion.getId() == null;
         Facturacion saved = facturacionRepository.save(facturacion);
+        registrarCambioEstado(nueva, estadoAnterior, saved.getEstado());
+        outboxService.registrar(OutboxService.FACTURACION, saved.getBusinessKey(),
+                nueva ? OutboxService.CREADO : OutboxService.ACTUALIZADO, () -> saved);
+        if (claveIdempotencia != null) {
+            idempotenciaService.registrar(OPERACION_ACTIVACION, claveIdempotencia, saved);
+        }
         log.info("Servicio activado con número: {}", saved.getNumeroServicio());
         return saved;
     }
 
-    private String generarNumeroServicio() {
-        Random random = new Random();
-        return String.format("GC-%06d-%04d", 
-            random.nextInt(999999), 
-            random.nextInt(9999));
+    /**
+     * Marca como conciliado un lote de pagos encontrados en el extracto bancario. Los que
+     * seguían PENDIENTE pasan a PAGADO; los ya pagados o activados conservan su estado.
+     * Las actualizaciones se agrupan en batch al hacer flush.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.FACTURACION, allEntries = true)
+    public int conciliarPagos(Map<Long, LocalDateTime> fechasPorId) {
+        LocalDateTime ahora = LocalDateTime.now();
+        int conciliadas = 0;
+        for (Facturacion facturacion : facturacionRepository.findAllById(fechasPorId.keySet())) {
+            if (facturacion.getFechaConciliacion() != null) {
+                continue;
+            }
+            String estadoAnterior = facturacion.getEstado();
+            if ("PENDIENTE".equals(estadoAnterior)) {
+                facturacion.setEstado("PAGADO");
+                if (facturacion.getFechaPago() == null) {
+                    facturacion.setFechaPago(fechasPorId.get(facturacion.getId()));
+                }
+                registrarCambioEstado(false, estadoAnterior, facturacion.getEstado());
+            }
+            facturacion.setFechaConciliacion(ahora);
+            outboxService.registrar(OutboxService.FACTURACION, facturacion.getBusinessKey(),
+                    OutboxService.ACTUALIZADO, () -> facturacion);
+            conciliadas++;
+        }
+        return conciliadas;
+    }
+
+    private void registrarCambioEstado(boolean nueva, String anterior, String nuevo) {
+        if (nueva) {
+            estadisticasService.facturacionCreada(nuevo);
+        } else {
+            estadisticasService.estadoFacturacionCambiado(anterior, nuevo);
+        }
     }
 
+    @Cacheable(cacheNames = CacheConfig.FACTURACION, key = "#businessKey")
     public Facturacion obtenerPorBusinessKey(String businessKey) {
         return facturacionRepository.findByBusinessKey(businessKey)
+                .or(() -> buscarArchivada(businessKey))
+                .orElseThrow(() -> new RuntimeException("Facturación no encontrada"));
+    }
+
+    public FacturacionResumen obtenerResumenPorBusinessKey(String businessKey) {
+        return facturacionRepository.findResumenByBusinessKey(businessKey)
+                .or(() -> buscarArchivada(businessKey).map(FacturacionResumen::de))
                 .orElseThrow(() -> new RuntimeException("Facturación no encontrada"));
     }
+
+    // Una facturación archivada es de solo lectura: crear otra con la misma businessKey
+    // chocaría con la restricción única de la tabla de archivo
+    private Facturacion nuevaNoArchivada(String businessKey) {
+        if (businessKey != null && facturacionArchivadaRepository.existsByBusinessKey(businessKey)) {
+            throw new IllegalStateException("Facturación archivada: " + businessKey);
+        }
+        return new Facturacion();
+    }
+
+    // Las facturaciones activadas antiguas viven en la tabla de archivo
+    private Optional<Facturacion> buscarArchivada(String businessKey) {
+        return facturacionArchivadaRepository.findByBusinessKey(businessKey)
+                .map(FacturacionArchivada::aFacturacion);
+    }
 }
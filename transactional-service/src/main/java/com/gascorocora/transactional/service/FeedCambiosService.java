@@ -0,0 +1,257 @@
+package com.gascorocora.transactional.service;
+
+import com.gascorocora.transactional.dto.EventoCambioDTO;
+import com.gascorocora.transactional.dto.PaginaCambios;
+import com.gascorocora.transactional.repository.EventoCambioRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Feed de cambios con offsets reanudables. Los consumidores leen "después de la posición N"
+ * por long-poll o se suscriben por SSE; el id de cada evento SSE es su posición, así que un
+ * cliente que se reconecta con Last-Event-ID continúa donde lo dejó. Los eventos recién
+ * publicados por el relay se entregan desde memoria; quien va atrasado se pone al día desde
+ * la tabla outbox.
+ *
+ * <p>Cada suscriptor SSE tiene una cola acotada que vacía su propio hilo de envío, así que un
+ * cliente lento no frena al relay ni a los demás. La puesta al día también corre en ese hilo,
+ * por páginas. Si la cola de un suscriptor se llena se le desconecta: al reconectarse con
+ * Last-Event-ID se pone al día desde la tabla.
+ */
+@Service
+@Slf4j
+public class FeedCambiosService {
+
+    private static final int LIMITE_MAXIMO = 1000;
+    private static final long ESPERA_MAXIMA_MS = 60_000;
+
+    private final EventoCambioRepository eventoCambioRepository;
+    private final long sseTimeoutMs;
+    private final int colaMaxima;
+    private final int tamanoPagina;
+    // Hilos virtuales: cada envío se bloquea escribiendo en el socket de su cliente
+    private final ExecutorService envios = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("feed-sse-", 0).factory());
+    private final Set<Espera> esperas = ConcurrentHashMap.newKeySet();
+    private final Set<Suscriptor> suscriptores = ConcurrentHashMap.newKeySet();
+    private volatile long ultimaPosicion;
+
+    public FeedCambiosService(EventoCambioRepository eventoCambioRepository,
+                              @Value("${transactional.outbox.sse-timeout-ms:1800000}") long sseTimeoutMs,
+                              @Value("${transactional.outbox.sse-cola-maxima:2000}") int colaMaxima,
+                              @Value("${transactional.outbox.sse-tamano-pagina:500}") int tamanoPagina) {
+        this.eventoCambioRepository = eventoCambioRepository;
+        this.sseTimeoutMs = sseTimeoutMs;
+        this.colaMaxima = colaMaxima;
+        this.tamanoPagina = acotar(tamanoPagina);
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        envios.shutdownNow();
+    }
+
+    void inicializar(long posicion) {
+        ultimaPosicion = posicion;
+    }
+
+    public PaginaCambios leer(long desde, int limite) {
+        List<EventoCambioDTO> eventos = eventoCambioRepository
+                .findPublicadosDespuesDe(desde, PageRequest.of(0, acotar(limite)))
+                .stream()
+                .map(EventoCambioDTO::de)
+                .toList();
+        return pagina(eventos, desde);
+    }
+
+    /**
+     * Long-poll: responde en cuanto hay eventos posteriores a {@code desde} o, si no llegan,
+     * con una página vacía al agotarse la espera.
+     */
+    public DeferredResult<PaginaCambios> esperar(long desde, int limite, long esperaMs) {
+        long espera = Math.max(0, Math.min(esperaMs, ESPERA_MAXIMA_MS));
+        DeferredResult<PaginaCambios> resultado = new DeferredResult<>(espera > 0 ? espera : null,
+                () -> new PaginaCambios(List.of(), desde));
+        if (espera == 0 || ultimaPosicion > desde) {
+            resultado.setResult(leer(desde, limite));
+            return resultado;
+        }
+        Espera pendiente = new Espera(desde, acotar(limite), resultado);
+        esperas.add(pendiente);
+        resultado.onCompletion(() -> esperas.remove(pendiente));
+        // Un lote publicado entre la comprobación y el registro no llega a esta espera
+        if (ultimaPosicion > desde && esperas.remove(pendiente)) {
+            resultado.setResult(leer(desde, limite));
+        }
+        return resultado;
+    }
+
+    public SseEmitter suscribir(long desde) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        Suscriptor suscriptor = new Suscriptor(emitter, desde, colaMaxima);
+        emitter.onCompletion(() -> suscriptores.remove(suscriptor));
+        emitter.onTimeout(() -> suscriptores.remove(suscriptor));
+        emitter.onError(error -> suscriptores.remove(suscriptor));
+        suscriptores.add(suscriptor);
+        // La puesta al día corre en el hilo de envío, no en el de la petición
+        programar(suscriptor);
+        return emitter;
+    }
+
+    /**
+     * Llamado por el relay tras confirmar un lote con posiciones consecutivas. Solo encola;
+     * cada suscriptor recibe los eventos desde su propio hilo de envío.
+     */
+    void publicar(List<EventoCambioDTO> eventos) {
+        ultimaPosicion = eventos.get(eventos.size() - 1).posicion();
+        for (Espera espera : esperas) {
+            if (esperas.remove(espera)) {
+                espera.resultado().setResult(desdeLote(eventos, espera.desde(), espera.limite()));
+            }
+        }
+        for (Suscriptor suscriptor : suscriptores) {
+            if (!suscriptor.alDia) {
+                // Mientras se pone al día lee de la tabla: no hace falta encolar
+                programar(suscriptor);
+                continue;
+            }
+            boolean encolados = true;
+            for (int i = 0; i < eventos.size() && encolados; i++) {
+                encolados = suscriptor.cola.offer(eventos.get(i));
+            }
+            if (encolados) {
+                programar(suscriptor);
+            } else {
+                log.warn("Suscriptor del feed desconectado por atraso en la posición {}", suscriptor.posicion);
+                desconectar(suscriptor, null);
+            }
+        }
+    }
+
+    private PaginaCambios desdeLote(List<EventoCambioDTO> eventos, long desde, int limite) {
+        long primera = eventos.get(0).posicion();
+        if (desde < primera - 1) {
+            return leer(desde, limite);
+        }
+        int inicio = (int) Math.min(desde - primera + 1, eventos.size());
+        List<EventoCambioDTO> nuevos = eventos.subList(inicio, eventos.size());
+        return pagina(nuevos.subList(0, Math.min(nuevos.size(), limite)), desde);
+    }
+
+    private void programar(Suscriptor suscriptor) {
+        if (suscriptor.programado.compareAndSet(false, true)) {
+            envios.execute(() -> drenar(suscriptor));
+        }
+    }
+
+    // Nunca hay dos envíos a la vez para el mismo suscriptor: los serializa "programado"
+    private void drenar(Suscriptor suscriptor) {
+        try {
+            do {
+                if (!suscriptor.alDia) {
+                    ponerseAlDia(suscriptor);
+                }
+                EventoCambioDTO evento;
+                while ((evento = suscriptor.cola.poll()) != null) {
+                    enviar(suscriptor, evento);
+                }
+                suscriptor.programado.set(false);
+                // Lo encolado justo después de vaciar la cola no volvió a programar el envío
+            } while (!suscriptor.cola.isEmpty()
+                    && suscriptores.contains(suscriptor)
+                    && suscriptor.programado.compareAndSet(false, true));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Suscriptor del feed desconectado: {}", e.getMessage());
+            desconectar(suscriptor, e);
+        }
+    }
+
+    private void ponerseAlDia(Suscriptor suscriptor) throws IOException {
+        List<EventoCambioDTO> atrasados;
+        do {
+            atrasados = leer(suscriptor.posicion, tamanoPagina).getEventos();
+            enviar(suscriptor, atrasados);
+        } while (atrasados.size() == tamanoPagina);
+        // Desde aquí el relay encola. Lo publicado entre la última lectura y este punto se
+        // relee de la tabla; lo que llegue también por la cola se descarta por posición
+        suscriptor.alDia = true;
+        while (ultimaPosicion > suscriptor.posicion) {
+            atrasados = leer(suscriptor.posicion, tamanoPagina).getEventos();
+            if (atrasados.isEmpty()) {
+                break;
+            }
+            enviar(suscriptor, atrasados);
+        }
+    }
+
+    private void enviar(Suscriptor suscriptor, List<EventoCambioDTO> eventos) throws IOException {
+        for (EventoCambioDTO evento : eventos) {
+            enviar(suscriptor, evento);
+        }
+    }
+
+    private void enviar(Suscriptor suscriptor, EventoCambioDTO evento) throws IOException {
+        if (evento.posicion() > suscriptor.posicion) {
+            suscriptor.emitter.send(SseEmitter.event()
+                    .id(String.valueOf(evento.posicion()))
+                    .name(evento.entidad())
+                    .data(evento, MediaType.APPLICATION_JSON));
+            suscriptor.posicion = evento.posicion();
+        }
+    }
+
+    private void desconectar(Suscriptor suscriptor, Exception error) {
+        if (suscriptores.remove(suscriptor)) {
+            suscriptor.cola.clear();
+            if (error != null) {
+                suscriptor.emitter.completeWithError(error);
+            } else {
+                suscriptor.emitter.complete();
+            }
+        }
+    }
+
+    private PaginaCambios pagina(List<EventoCambioDTO> eventos, long desde) {
+        long siguiente = eventos.isEmpty() ? desde : eventos.get(eventos.size() - 1).posicion();
+        return new PaginaCambios(eventos, siguiente);
+    }
+
+    private int acotar(int limite) {
+        return Math.max(1, Math.min(limite, LIMITE_MAXIMO));
+    }
+
+    private record Espera(long desde, int limite, DeferredResult<PaginaCambios> resultado) {
+    }
+
+    private static final class Suscriptor {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<EventoCambioDTO> cola;
+        private final AtomicBoolean programado = new AtomicBoolean();
+        private volatile boolean alDia;
+        // Solo la escribe el hilo de envío del suscriptor
+        private volatile long posicion;
+
+        private Suscriptor(SseEmitter emitter, long posicion, int colaMaxima) {
+            this.emitter = emitter;
+            this.cola = new ArrayBlockingQueue<>(colaMaxima);
+            this.posicion = posicion;
+        }
+    }
+}
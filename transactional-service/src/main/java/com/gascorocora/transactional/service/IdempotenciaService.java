@@ -0,0 +1,89 @@
+package com.gascorocora.transactional.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gascorocora.transactional.model.RegistroIdempotencia;
+import com.gascorocora.transactional.repository.RegistroIdempotenciaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Almacén de respuestas por clave de idempotencia. El registro se guarda en la misma
+ * transacción que la operación, de modo que una repetición concurrente con la misma clave
+ * falla por clave duplicada en lugar de ejecutar dos veces. Las lecturas pasan primero por
+ * una caché en memoria.
+ */
+@Service
+@Slf4j
+public class IdempotenciaService {
+
+    private final RegistroIdempotenciaRepository registroRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Cache<String, String> respuestas;
+
+    public IdempotenciaService(RegistroIdempotenciaRepository registroRepository,
+                               ObjectMapper objectMapper,
+                               @Value("${transactional.idempotencia.ttl-horas:24}") long ttlHoras,
+                               @Value("${transactional.idempotencia.cache-maximo:10000}") long cacheMaximo) {
+        this.registroRepository = registroRepository;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofHours(ttlHoras);
+        this.respuestas = Caffeine.newBuilder()
+                .maximumSize(cacheMaximo)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public <T> Optional<T> buscar(String operacion, String clave, Class<T> tipo) {
+        String id = operacion + ":" + clave;
+        String json = respuestas.getIfPresent(id);
+        if (json == null) {
+            json = registroRepository.findById(id)
+                    .filter(registro -> registro.getFechaExpiracion().isAfter(LocalDateTime.now()))
+                    .map(RegistroIdempotencia::getRespuesta)
+                    .orElse(null);
+            if (json == null) {
+                return Optional.empty();
+            }
+            respuestas.put(id, json);
+        }
+
+        log.info("Repetición detectada para {} con clave {}", operacion, clave);
+        try {
+            return Optional.of(objectMapper.readValue(json, tipo));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Respuesta almacenada inválida para la clave " + id, e);
+        }
+    }
+
+    @Transactional
+    public void registrar(String operacion, String clave, Object respuesta) {
+        LocalDateTime ahora = LocalDateTime.now();
+        try {
+            String json = objectMapper.writeValueAsString(respuesta);
+            // Dos peticiones simultáneas con la misma clave: la segunda falla por clave primaria
+            registroRepository.saveAndFlush(new RegistroIdempotencia(operacion + ":" + clave, json, ahora, ahora.plus(ttl)));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("No se pudo serializar la respuesta para la clave " + clave, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${transactional.idempotencia.purga-ms:3600000}")
+    @Transactional
+    public void purgarExpirados() {
+        int eliminados = registroRepository.eliminarExpirados(LocalDateTime.now());
+        if (eliminados > 0) {
+            log.info("Registros de idempotencia expirados eliminados: {}", eliminados);
+        }
+    }
+}
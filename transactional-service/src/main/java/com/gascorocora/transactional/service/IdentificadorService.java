@@ -0,0 +1,138 @@
+package com.gascorocora.transactional.service;
+
+import com.gascorocora.transactional.dto.BloqueIdentificadores;
+import com.gascorocora.transactional.repository.FacturacionArchivadaRepository;
+import com.gascorocora.transactional.repository.FacturacionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Genera identificadores únicos sin reintentos: reserva bloques contra la marca de agua
+ * persistida y los reparte en memoria con un contador atómico. Solo el recambio de bloque
+ * se sincroniza.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdentificadorService {
+
+    public static final String NUMERO_SERVICIO = "NUMERO_SERVICIO";
+    public static final String SOLICITUD = "SOLICITUD";
+
+    private static final int TAMANO_BLOQUE = 100;
+    private static final int TAMANO_BLOQUE_MAXIMO = 10_000;
+
+    private final ContadorIdentificadorService contadorService;
+    private final FacturacionRepository facturacionRepository;
+    private final FacturacionArchivadaRepository facturacionArchivadaRepository;
+    private final Map<String, Asignador> asignadores = new ConcurrentHashMap<>();
+
+    public String siguienteNumeroServicio() {
+        long valor = siguiente(NUMERO_SERVICIO);
+        return String.format("GC-%06d-%04d", valor / 10_000, valor % 10_000);
+    }
+
+    public long siguiente(String nombre) {
+        validarNombre(nombre);
+        return asignadores.computeIfAbsent(nombre, Asignador::new).siguiente();
+    }
+
+    /**
+     * Reserva un bloque para un cliente remoto (por ejemplo client-app), que lo reparte
+     * localmente.
+     */
+    public BloqueIdentificadores reservarBloque(String nombre, int tamano) {
+        validarNombre(nombre);
+        if (tamano < 1 || tamano > TAMANO_BLOQUE_MAXIMO) {
+            throw new IllegalArgumentException("Tamaño de bloque inválido: " + tamano);
+        }
+        try {
+            return contadorService.reservarBloque(nombre, tamano, () -> valorInicial(nombre));
+        } catch (DataIntegrityViolationException e) {
+            // Otro nodo creó el contador a la vez: la fila ya existe y esta vez se avanza
+            log.info("Contador {} creado de forma concurrente, se reintenta la reserva", nombre);
+            return contadorService.reservarBloque(nombre, tamano, () -> valorInicial(nombre));
+        }
+    }
+
+    private void validarNombre(String nombre) {
+        if (!NUMERO_SERVICIO.equals(nombre) && !SOLICITUD.equals(nombre)) {
+            throw new IllegalArgumentException("Contador desconocido: " + nombre);
+        }
+    }
+
+    private long valorInicial(String nombre) {
+        if (SOLICITUD.equals(nombre)) {
+            // Las claves SOL- se generaban con currentTimeMillis: se continúa por encima de todas ellas
+            return System.currentTimeMillis();
+        }
+        // Continuar después del mayor número de servicio existente (GC-XXXXXX-YYYY), incluidos
+        // los ya archivados. El máximo se calcula sobre el valor numérico: los números antiguos
+        // eran aleatorios y un MAX de texto no garantiza el mayor
+        try (Stream<String> vivos = facturacionRepository.streamNumerosServicio();
+             Stream<String> archivados = facturacionArchivadaRepository.streamNumerosServicio()) {
+            return Math.max(maximoNumeroServicio(vivos), maximoNumeroServicio(archivados));
+        }
+    }
+
+    private long maximoNumeroServicio(Stream<String> numeros) {
+        return numeros.mapToLong(this::valorNumeroServicio).max().orElse(0);
+    }
+
+    private long valorNumeroServicio(String numeroServicio) {
+        String[] partes = numeroServicio.split("-");
+        try {
+            if (partes.length == 3 && "GC".equals(partes[0])) {
+                return Long.parseLong(partes[1]) * 10_000 + Long.parseLong(partes[2]);
+            }
+        } catch (NumberFormatException e) {
+            // Formato desconocido: se ignora abajo
+        }
+        log.warn("Número de servicio con formato desconocido ignorado al inicializar el contador: {}", numeroServicio);
+        return 0;
+    }
+
+    private final class Asignador {
+
+        private final String nombre;
+        private volatile Bloque actual = new Bloque(1, 0);
+
+        private Asignador(String nombre) {
+            this.nombre = nombre;
+        }
+
+        long siguiente() {
+            while (true) {
+                Bloque bloque = actual;
+                long valor = bloque.siguiente.getAndIncrement();
+                if (valor <= bloque.fin) {
+                    return valor;
+                }
+                synchronized (this) {
+                    if (actual == bloque) {
+                        BloqueIdentificadores nuevo = reservarBloque(nombre, TAMANO_BLOQUE);
+                        actual = new Bloque(nuevo.getInicio(), nuevo.getFin());
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Bloque {
+
+        private final AtomicLong siguiente;
+        private final long fin;
+
+        private Bloque(long inicio, long fin) {
+            this.siguiente = new AtomicLong(inicio);
+            this.fin = fin;
+        }
+    }
+}
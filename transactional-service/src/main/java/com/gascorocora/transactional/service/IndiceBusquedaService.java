@@ -0,0 +1,322 @@
+package com.gascorocora.transactional.service;
+
+import com.gascorocora.transactional.dto.ResultadoBusqueda;
+import com.gascorocora.transactional.model.Cliente;
+import com.gascorocora.transactional.model.Solicitud;
+import com.gascorocora.transactional.repository.ClienteRepository;
+import com.gascorocora.transactional.repository.SolicitudRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Índice invertido de trigramas sobre nombre, dirección y ciudad de clientes y solicitudes.
+ * El texto se normaliza sin tildes ni mayúsculas, de modo que "Peña" encuentra "pena" y
+ * fragmentos parciales como "villav" encuentran "Villavicencio". Se reconstruye desde la base
+ * de datos al arrancar y se actualiza tras cada commit de los servicios de escritura.
+ *
+ * <p>Cada trigrama guarda los ids de sus documentos en un {@code int[]} ordenado. Una búsqueda
+ * recorre solo los trigramas más raros de la consulta, los suficientes para que ningún documento
+ * que alcance el puntaje mínimo quede fuera, y comprueba los más comunes por búsqueda binaria:
+ * trigramas como " ca" que aparecen en casi todo el corpus nunca se recorren enteros. Un
+ * documento reindexado recibe un id nuevo; los ids obsoletos se descartan al leer y se purgan
+ * de los postings cuando acumulan una fracción del índice.
+ */
+@Service
+@Slf4j
+public class IndiceBusquedaService {
+
+    public static final String TIPO_CLIENTE = "CLIENTE";
+    public static final String TIPO_SOLICITUD = "SOLICITUD";
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern NO_ALFANUMERICO = Pattern.compile("[^a-z0-9]+");
+    private static final double PUNTAJE_MINIMO = 0.3;
+    private static final int LIMITE_MAXIMO = 100;
+    private static final int FILAS_POR_LIMPIEZA = 1000;
+    private static final int OBSOLETOS_MINIMOS_PURGA = 1000;
+
+    private final ClienteRepository clienteRepository;
+    private final SolicitudRepository solicitudRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, Posting> postings = new ConcurrentHashMap<>();
+    private final Map<Integer, Documento> documentos = new ConcurrentHashMap<>();
+    private final Map<String, Integer> idsPorClave = new ConcurrentHashMap<>();
+    // Solo se modifican dentro de indexar
+    private int secuencia;
+    private int obsoletos;
+    private volatile boolean listo;
+
+    public IndiceBusquedaService(ClienteRepository clienteRepository,
+                                 SolicitudRepository solicitudRepository,
+                                 EntityManager entityManager,
+                                 PlatformTransactionManager transactionManager) {
+        this.clienteRepository = clienteRepository;
+        this.solicitudRepository = solicitudRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public void indexarCliente(Cliente cliente) {
+        Documento documento = new Documento(TIPO_CLIENTE, cliente.getCedula(),
+                cliente.getNombre(), cliente.getDireccion(), cliente.getCiudad());
+        DespuesDelCommit.ejecutar(() -> indexar(documento, true));
+    }
+
+    public void indexarSolicitud(Solicitud solicitud) {
+        Documento documento = new Documento(TIPO_SOLICITUD, claveSolicitud(solicitud),
+                solicitud.getNombreCliente(), solicitud.getDireccion(), null);
+        DespuesDelCommit.ejecutar(() -> indexar(documento, true));
+    }
+
+    public boolean isListo() {
+        return listo;
+    }
+
+    public List<ResultadoBusqueda> buscar(String texto, int limite) {
+        Set<String> trigramas = trigramas(texto);
+        if (trigramas.isEmpty()) {
+            return List.of();
+        }
+
+        // De más raro a más común
+        int consulta = trigramas.size();
+        Ids[] listas = new Ids[consulta];
+        int i = 0;
+        for (String trigrama : trigramas) {
+            Posting posting = postings.get(trigrama);
+            listas[i++] = posting != null ? posting.ids : Ids.VACIO;
+        }
+        Arrays.sort(listas, Comparator.comparingInt(Ids::tamano));
+
+        int minimo = 1;
+        while ((double) minimo / consulta < PUNTAJE_MINIMO) {
+            minimo++;
+        }
+        // Quien coincide en al menos "minimo" trigramas aparece en alguno de los consulta - minimo + 1 más raros
+        int raras = consulta - minimo + 1;
+
+        List<ResultadoBusqueda> resultados = new ArrayList<>();
+        int[] posiciones = new int[raras];
+        while (true) {
+            int id = Integer.MAX_VALUE;
+            for (int l = 0; l < raras; l++) {
+                if (posiciones[l] < listas[l].tamano()) {
+                    id = Math.min(id, listas[l].ids()[posiciones[l]]);
+                }
+            }
+            if (id == Integer.MAX_VALUE) {
+                break;
+            }
+            int total = 0;
+            for (int l = 0; l < raras; l++) {
+                if (posiciones[l] < listas[l].tamano() && listas[l].ids()[posiciones[l]] == id) {
+                    posiciones[l]++;
+                    total++;
+                }
+            }
+            for (int l = raras; l < consulta; l++) {
+                if (Arrays.binarySearch(listas[l].ids(), 0, listas[l].tamano(), id) >= 0) {
+                    total++;
+                }
+            }
+            Documento documento = total >= minimo ? documentos.get(id) : null;
+            if (documento != null) {
+                resultados.add(new ResultadoBusqueda(documento.tipo, documento.clave, documento.nombre,
+                        documento.direccion, documento.ciudad, (double) total / consulta));
+            }
+        }
+        resultados.sort(Comparator.comparingDouble(ResultadoBusqueda::puntaje).reversed());
+        return resultados.subList(0, Math.min(resultados.size(), Math.max(1, Math.min(limite, LIMITE_MAXIMO))));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruirEnSegundoPlano() {
+        Thread hilo = new Thread(this::reconstruir, "indice-busqueda");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    private void reconstruir() {
+        long inicio = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Cliente> clientes = clienteRepository.streamTodos()) {
+                    AtomicInteger filas = new AtomicInteger();
+                    clientes.forEach(cliente -> {
+                        indexar(new Documento(TIPO_CLIENTE, cliente.getCedula(),
+                                cliente.getNombre(), cliente.getDireccion(), cliente.getCiudad()), false);
+                        limpiarContexto(filas);
+                    });
+                }
+                try (Stream<Solicitud> solicitudes = solicitudRepository.streamTodas()) {
+                    AtomicInteger filas = new AtomicInteger();
+                    solicitudes.forEach(solicitud -> {
+                        indexar(new Documento(TIPO_SOLICITUD, claveSolicitud(solicitud),
+                                solicitud.getNombreCliente(), solicitud.getDireccion(), null), false);
+                        limpiarContexto(filas);
+                    });
+                }
+            });
+            listo = true;
+            log.info("Índice de búsqueda construido: {} documentos, {} trigramas en {} ms",
+                    documentos.size(), postings.size(), (System.nanoTime() - inicio) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Error construyendo el índice de búsqueda: {}", e.getMessage(), e);
+        }
+    }
+
+    private void limpiarContexto(AtomicInteger filas) {
+        if (filas.incrementAndGet() % FILAS_POR_LIMPIEZA == 0) {
+            entityManager.clear();
+        }
+    }
+
+    /**
+     * @param reemplazar false durante la reconstrucción: un documento ya indexado por una
+     *                   escritura posterior al arranque es más reciente que el leído de la tabla
+     */
+    private synchronized void indexar(Documento documento, boolean reemplazar) {
+        String clave = documento.tipo + ":" + documento.clave;
+        Integer existente = idsPorClave.get(clave);
+        if (existente != null) {
+            if (!reemplazar) {
+                return;
+            }
+            // El id anterior queda en los postings hasta la próxima purga; las búsquedas lo ignoran
+            documentos.remove(existente);
+            obsoletos++;
+        }
+
+        // Los ids crecen, así que agregarlos al final mantiene cada posting ordenado
+        int id = ++secuencia;
+        documentos.put(id, documento);
+        idsPorClave.put(clave, id);
+        for (String trigrama : documento.trigramas) {
+            postings.computeIfAbsent(trigrama, k -> new Posting()).agregar(id);
+        }
+        if (obsoletos >= OBSOLETOS_MINIMOS_PURGA && obsoletos > documentos.size() / 4) {
+            purgarObsoletos();
+        }
+    }
+
+    private void purgarObsoletos() {
+        long inicio = System.nanoTime();
+        Iterator<Posting> iterador = postings.values().iterator();
+        while (iterador.hasNext()) {
+            Posting posting = iterador.next();
+            posting.conservar(documentos::containsKey);
+            if (posting.ids.tamano() == 0) {
+                iterador.remove();
+            }
+        }
+        log.debug("Índice de búsqueda: {} ids obsoletos purgados en {} ms", obsoletos, (System.nanoTime() - inicio) / 1_000_000);
+        obsoletos = 0;
+    }
+
+    private static String claveSolicitud(Solicitud solicitud) {
+        return solicitud.getBusinessKey() != null ? solicitud.getBusinessKey() : String.valueOf(solicitud.getId());
+    }
+
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String sinTildes = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return NO_ALFANUMERICO.matcher(sinTildes.toLowerCase()).replaceAll(" ").trim();
+    }
+
+    static Set<String> trigramas(String... textos) {
+        Set<String> resultado = new HashSet<>();
+        for (String texto : textos) {
+            for (String token : normalizar(texto).split(" ")) {
+                if (token.isEmpty()) {
+                    continue;
+                }
+                String relleno = " " + token + " ";
+                for (int i = 0; i + 3 <= relleno.length(); i++) {
+                    resultado.add(relleno.substring(i, i + 3));
+                }
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Ids de documentos con un trigrama, en orden creciente. Solo escribe el hilo que indexa; las
+     * búsquedas leen la instantánea publicada, cuyo tamaño nunca cubre posiciones aún sin escribir.
+     */
+    private static final class Posting {
+
+        private volatile Ids ids = Ids.VACIO;
+
+        private void agregar(int id) {
+            Ids actual = ids;
+            int[] valores = actual.ids();
+            if (actual.tamano() == valores.length) {
+                valores = Arrays.copyOf(valores, Math.max(2, valores.length + (valores.length >> 1)));
+            }
+            valores[actual.tamano()] = id;
+            ids = new Ids(valores, actual.tamano() + 1);
+        }
+
+        // Copia en un arreglo nuevo: una búsqueda en curso puede estar leyendo el anterior
+        private void conservar(IntPredicate vigente) {
+            Ids actual = ids;
+            int[] valores = new int[actual.tamano()];
+            int tamano = 0;
+            for (int i = 0; i < actual.tamano(); i++) {
+                if (vigente.test(actual.ids()[i])) {
+                    valores[tamano++] = actual.ids()[i];
+                }
+            }
+            ids = new Ids(Arrays.copyOf(valores, tamano), tamano);
+        }
+    }
+
+    private record Ids(int[] ids, int tamano) {
+
+        private static final Ids VACIO = new Ids(new int[0], 0);
+    }
+
+    private static final class Documento {
+
+        private final String tipo;
+        private final String clave;
+        private final String nombre;
+        private final String direccion;
+        private final String ciudad;
+        private final Set<String> trigramas;
+
+        private Documento(String tipo, String clave, String nombre, String direccion, String ciudad) {
+            this.tipo = tipo;
+            this.clave = clave;
+            this.nombre = nombre;
+            this.direccion = direccion;
+            this.ciudad = ciudad;
+            this.trigramas = trigramas(nombre, direccion, ciudad);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.gascorocora.transactional.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Índice espacial inmutable de la red de gas sobre una malla regular de celdas. Cada celda
+ * guarda, en formato CSR (offsets + ids en arreglos primitivos), las figuras cuyo rectángulo
+ * envolvente la toca. Una consulta calcula su celda y solo evalúa esas pocas figuras: punto en
+ * polígono para las zonas y distancia a segmento para los tramos de tubería.
+ */
+final class IndiceCobertura {
+
+    private static final double METROS_POR_GRADO_LATITUD = 110_540;
+    private static final double METROS_POR_GRADO_LONGITUD = 111_320;
+    private static final int CELDAS_MAXIMAS = 4_000_000;
+
+    static final IndiceCobertura VACIO = new Constructor(0.01).construir();
+
+    private final String[] nombres;
+    // Zonas: anillos (exterior y huecos) con lon/lat intercalados; tramos: {lon1, lat1, lon2, lat2}
+    private final double[][][] geometrias;
+    private final double[] radios; // 0 para zonas, metros para tramos
+    private final double minLon;
+    private final double minLat;
+    private final double tamanoCelda;
+    private final int columnas;
+    private final int filas;
+    private final int[] offsets;
+    private final int[] ids;
+    private final int zonas;
+
+    private IndiceCobertura(String[] nombres, double[][][] geometrias, double[] radios, double[][] cajas,
+                            double tamanoCeldaInicial, int zonas) {
+        this.nombres = nombres;
+        this.geometrias = geometrias;
+        this.radios = radios;
+        this.zonas = zonas;
+
+        double[] limites = {Double.MAX_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE};
+        for (double[] caja : cajas) {
+            limites[0] = Math.min(limites[0], caja[0]);
+            limites[1] = Math.min(limites[1], caja[1]);
+            limites[2] = Math.max(limites[2], caja[2]);
+            limites[3] = Math.max(limites[3], caja[3]);
+        }
+        if (cajas.length == 0) {
+            limites = new double[]{0, 0, 0, 0};
+        }
+        double celda = tamanoCeldaInicial;
+        while (celdas(limites, celda) > CELDAS_MAXIMAS) {
+            celda *= 2;
+        }
+        this.minLon = limites[0];
+        this.minLat = limites[1];
+        this.tamanoCelda = celda;
+        this.columnas = (int) Math.floor((limites[2] - minLon) / celda) + 1;
+        this.filas = (int) Math.floor((limites[3] - minLat) / celda) + 1;
+
+        // Dos pasadas: contar figuras por celda y luego llenar
+        int total = columnas * filas;
+        int[] conteo = new int[total + 1];
+        recorrerCeldas(cajas, (celdaIndice, figura) -> conteo[celdaIndice + 1]++);
+        for (int i = 0; i < total; i++) {
+            conteo[i + 1] += conteo[i];
+        }
+        this.offsets = conteo.clone();
+        this.ids = new int[conteo[total]];
+        int[] siguiente = conteo;
+        recorrerCeldas(cajas, (celdaIndice, figura) -> ids[siguiente[celdaIndice]++] = figura);
+    }
+
+    private static long celdas(double[] limites, double celda) {
+        return ((long) Math.floor((limites[2] - limites[0]) / celda) + 1)
+                * ((long) Math.floor((limites[3] - limites[1]) / celda) + 1);
+    }
+
+    private void recorrerCeldas(double[][] cajas, Visitante visitante) {
+        for (int figura = 0; figura < cajas.length; figura++) {
+            double[] caja = cajas[figura];
+            int c0 = columna(caja[0]);
+            int c1 = columna(caja[2]);
+            int f0 = fila(caja[1]);
+            int f1 = fila(caja[3]);
+            for (int f = f0; f <= f1; f++) {
+                for (int c = c0; c <= c1; c++) {
+                    visitante.visitar(f * columnas + c, figura);
+                }
+            }
+        }
+    }
+
+    private int columna(double lon) {
+        return (int) Math.floor((lon - minLon) / tamanoCelda);
+    }
+
+    private int fila(double lat) {
+        return (int) Math.floor((lat - minLat) / tamanoCelda);
+    }
+
+    /**
+     * Nombre de la zona o tramo que cubre el punto, o null si no hay cobertura.
+     */
+    String buscar(double lat, double lon) {
+        int c = columna(lon);
+        int f = fila(lat);
+        if (c < 0 || f < 0 || c >= columnas || f >= filas) {
+            return null;
+        }
+        int celda = f * columnas + c;
+        for (int i = offsets[celda]; i < offsets[celda + 1]; i++) {
+            int figura = ids[i];
+            boolean cubre = radios[figura] == 0
+                    ? dentroDePoligono(geometrias[figura], lon, lat)
+                    : distanciaASegmento(geometrias[figura][0], lat, lon) <= radios[figura];
+            if (cubre) {
+                return nombres[figura];
+            }
+        }
+        return null;
+    }
+
+    int zonas() {
+        return zonas;
+    }
+
+    int tramos() {
+        return nombres.length - zonas;
+    }
+
+    int celdas() {
+        return columnas * filas;
+    }
+
+    double tamanoCelda() {
+        return tamanoCelda;
+    }
+
+    // Regla par-impar sobre todos los anillos: los huecos quedan excluidos
+    private static boolean dentroDePoligono(double[][] anillos, double x, double y) {
+        boolean dentro = false;
+        for (double[] anillo : anillos) {
+            int n = anillo.length / 2;
+            for (int i = 0, j = n - 1; i < n; j = i++) {
+                double xi = anillo[2 * i];
+                double yi = anillo[2 * i + 1];
+                double xj = anillo[2 * j];
+                double yj = anillo[2 * j + 1];
+                if ((yi > y) != (yj > y) && x < (xj - xi) * (y - yi) / (yj - yi) + xi) {
+                    dentro = !dentro;
+                }
+            }
+        }
+        return dentro;
+    }
+
+    // Proyección equirectangular local: suficiente para distancias de decenas de metros
+    private static double distanciaASegmento(double[] tramo, double lat, double lon) {
+        double escalaLon = METROS_POR_GRADO_LONGITUD * Math.cos(Math.toRadians(lat));
+        double ax = (tramo[0] - lon) * escalaLon;
+        double ay = (tramo[1] - lat) * METROS_POR_GRADO_LATITUD;
+        double bx = (tramo[2] - lon) * escalaLon;
+        double by = (tramo[3] - lat) * METROS_POR_GRADO_LATITUD;
+        double dx = bx - ax;
+        double dy = by - ay;
+        double largo2 = dx * dx + dy * dy;
+        double t = largo2 == 0 ? 0 : Math.max(0, Math.min(1, -(ax * dx + ay * dy) / largo2));
+        double px = ax + t * dx;
+        double py = ay + t * dy;
+        return Math.sqrt(px * px + py * py);
+    }
+
+    @FunctionalInterface
+    private interface Visitante {
+        void visitar(int celda, int figura);
+    }
+
+    /**
+     * Acumula zonas y tramos leídos del archivo de red y construye el índice.
+     */
+    static final class Constructor {
+
+        private final double tamanoCelda;
+        private final List<String> nombresZonas = new ArrayList<>();
+        private final List<double[][]> zonas = new ArrayList<>();
+        private final List<String> nombresTramos = new ArrayList<>();
+        private final List<double[]> tramos = new ArrayList<>();
+        private final List<Double> radios = new ArrayList<>();
+
+        Constructor(double tamanoCelda) {
+            this.tamanoCelda = tamanoCelda;
+        }
+
+        void agregarZona(String nombre, double[][] anillos) {
+            nombresZonas.add(nombre);
+            zonas.add(anillos);
+        }
+
+        void agregarTramo(String nombre, double lon1, double lat1, double lon2, double lat2, double radioMetros) {
+            nombresTramos.add(nombre);
+            tramos.add(new double[]{lon1, lat1, lon2, lat2});
+            radios.add(radioMetros);
+        }
+
+        IndiceCobertura construir() {
+            int total = zonas.size() + tramos.size();
+            String[] nombres = new String[total];
+            double[][][] geometrias = new double[total][][];
+            double[] radiosFiguras = new double[total];
+            double[][] cajas = new double[total][];
+            for (int i = 0; i < zonas.size(); i++) {
+                nombres[i] = nombresZonas.get(i);
+                geometrias[i] = zonas.get(i);
+                cajas[i] = cajaZona(zonas.get(i)[0]);
+            }
+            for (int i = 0; i < tramos.size(); i++) {
+                int figura = zonas.size() + i;
+                double[] tramo = tramos.get(i);
+                double radio = radios.get(i);
+                nombres[figura] = nombresTramos.get(i);
+                geometrias[figura] = new double[][]{tramo};
+                radiosFiguras[figura] = radio;
+                // Se amplía la caja con el radio en grados para no perder puntos cercanos
+                double margenLat = radio / METROS_POR_GRADO_LATITUD;
+                double margenLon = radio / (METROS_POR_GRADO_LONGITUD
+                        * Math.cos(Math.toRadians(Math.max(Math.abs(tramo[1]), Math.abs(tramo[3])))));
+                cajas[figura] = new double[]{
+                        Math.min(tramo[0], tramo[2]) - margenLon, Math.min(tramo[1], tramo[3]) - margenLat,
+                        Math.max(tramo[0], tramo[2]) + margenLon, Math.max(tramo[1], tramo[3]) + margenLat};
+            }
+            return new IndiceCobertura(nombres, geometrias, radiosFiguras, cajas, tamanoCelda, zonas.size());
+        }
+
+        private static double[] cajaZona(double[] exterior) {
+            double[] caja = {Double.MAX_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE};
+            for (int i = 0; i < exterior.length; i += 2) {
+                caja[0] = Math.min(caja[0], exterior[i]);
+                caja[1] = Math.min(caja[1], exterior[i + 1]);
+                caja[2] = Math.max(caja[2], exterior[i]);
+                caja[3] = Math.max(caja[3], exterior[i + 1]);
+            }
+            return caja;
+        }
+    }
+}
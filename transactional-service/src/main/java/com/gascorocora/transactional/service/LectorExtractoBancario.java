@@ -0,0 +1,167 @@
+package com.gascorocora.transactional.service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Lector de extractos bancarios sobre archivos mapeados en memoria. El archivo se recorre en
+ * ventanas de 64 MB sin copiarlo al heap; cada línea se acumula en un único buffer
+ * reutilizable y solo se crean objetos para los campos que se usan.
+ *
+ * Formato: fecha (yyyy-MM-dd), número de transacción, monto y, opcionalmente, descripción,
+ * separados por ';' o ','. La primera línea se ignora si es un encabezado.
+ */
+final class LectorExtractoBancario {
+
+    private static final long TAMANO_VENTANA = 64L * 1024 * 1024;
+
+    private LectorExtractoBancario() {
+    }
+
+    static void leer(Path archivo, Consumer<LineaExtracto> consumidor) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            byte[] linea = new byte[256];
+            int longitud = 0;
+            long numero = 0;
+            byte separador = 0;
+
+            for (long posicion = 0; posicion < tamano; posicion += TAMANO_VENTANA) {
+                MappedByteBuffer ventana = canal.map(FileChannel.MapMode.READ_ONLY, posicion,
+                        Math.min(TAMANO_VENTANA, tamano - posicion));
+                while (ventana.hasRemaining()) {
+                    byte b = ventana.get();
+                    if (b != '\n') {
+                        if (longitud == linea.length) {
+                            linea = Arrays.copyOf(linea, linea.length * 2);
+                        }
+                        linea[longitud++] = b;
+                        continue;
+                    }
+                    numero++;
+                    if (separador == 0) {
+                        separador = detectarSeparador(linea, longitud);
+                    }
+                    procesar(linea, longitud, numero, separador, consumidor);
+                    longitud = 0;
+                }
+            }
+            if (longitud > 0) {
+                numero++;
+                procesar(linea, longitud, numero, separador == 0 ? detectarSeparador(linea, longitud) : separador,
+                        consumidor);
+            }
+        }
+    }
+
+    private static byte detectarSeparador(byte[] linea, int longitud) {
+        for (int i = 0; i < longitud; i++) {
+            if (linea[i] == ';') {
+                return ';';
+            }
+        }
+        return ',';
+    }
+
+    private static void procesar(byte[] linea, int longitud, long numero, byte separador,
+                                 Consumer<LineaExtracto> consumidor) {
+        if (longitud > 0 && linea[longitud - 1] == '\r') {
+            longitud--;
+        }
+        if (longitud == 0) {
+            return;
+        }
+        int fin1 = indice(linea, 0, longitud, separador);
+        int fin2 = fin1 < 0 ? -1 : indice(linea, fin1 + 1, longitud, separador);
+        if (fin2 < 0) {
+            consumidor.accept(LineaExtracto.invalida(numero, "Faltan columnas"));
+            return;
+        }
+        int fin3 = indice(linea, fin2 + 1, longitud, separador);
+        if (fin3 < 0) {
+            fin3 = longitud;
+        }
+
+        String fechaTexto = campo(linea, 0, fin1);
+        LocalDate fecha;
+        try {
+            fecha = LocalDate.parse(fechaTexto);
+        } catch (DateTimeParseException e) {
+            if (numero > 1) {
+                consumidor.accept(LineaExtracto.invalida(numero, "Fecha inválida: " + fechaTexto));
+            }
+            // En la primera línea es el encabezado
+            return;
+        }
+        String transaccion = campo(linea, fin1 + 1, fin2);
+        BigDecimal monto = monto(campo(linea, fin2 + 1, fin3));
+        if (transaccion.isEmpty() || monto == null) {
+            consumidor.accept(LineaExtracto.invalida(numero, "Transacción o monto inválido"));
+            return;
+        }
+        consumidor.accept(new LineaExtracto(numero, fecha, transaccion, monto, null));
+    }
+
+    private static int indice(byte[] linea, int desde, int hasta, byte separador) {
+        for (int i = desde; i < hasta; i++) {
+            if (linea[i] == separador) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String campo(byte[] linea, int desde, int hasta) {
+        while (desde < hasta && (linea[desde] == ' ' || linea[desde] == '"')) {
+            desde++;
+        }
+        while (hasta > desde && (linea[hasta - 1] == ' ' || linea[hasta - 1] == '"')) {
+            hasta--;
+        }
+        return new String(linea, desde, hasta - desde, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Acepta "1250000.50", "1.250.000,50" o "$1,250,000": el último '.' o ',' seguido de uno
+     * o dos dígitos es el separador decimal y los demás se descartan.
+     */
+    private static BigDecimal monto(String texto) {
+        StringBuilder limpio = new StringBuilder(texto.length());
+        int decimal = -1;
+        for (int i = texto.length() - 1; i >= 0; i--) {
+            char c = texto.charAt(i);
+            if ((c == '.' || c == ',') && decimal < 0 && texto.length() - i - 1 <= 2 && i < texto.length() - 1) {
+                decimal = i;
+            }
+        }
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (Character.isDigit(c) || (c == '-' && limpio.isEmpty())) {
+                limpio.append(c);
+            } else if (i == decimal) {
+                limpio.append('.');
+            }
+        }
+        try {
+            return limpio.isEmpty() ? null : new BigDecimal(limpio.toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    record LineaExtracto(long numero, LocalDate fecha, String numeroTransaccion, BigDecimal monto, String error) {
+
+        static LineaExtracto invalida(long numero, String error) {
+            return new LineaExtracto(numero, null, null, null, error);
+        }
+    }
+}
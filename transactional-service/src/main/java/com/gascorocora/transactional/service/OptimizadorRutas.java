@@ -0,0 +1,198 @@
+package com.gascorocora.transactional.service;
+
+/**
+ * Ordena las visitas del día de un técnico para minimizar el recorrido. El nodo 0 es el punto
+ * de partida (la base del técnico o un origen ficticio a distancia cero de todas las paradas
+ * cuando no hay base) y el recorrido es abierto: no vuelve al origen. Se siembra con el vecino
+ * más cercano y se mejora con 2-opt y or-opt hasta un óptimo local o hasta agotar el plazo.
+ * Sin estado: se puede compartir entre hilos.
+ */
+public class OptimizadorRutas {
+
+    private static final double RADIO_TIERRA_METROS = 6_371_000;
+    private static final int SEGMENTO_MAXIMO_OR_OPT = 3;
+    private static final double EPSILON = 1e-9;
+
+    public record Recorrido(int[] orden, double distanciaInicial, double distancia, int mejoras) {
+    }
+
+    /**
+     * Matriz de distancias haversine en metros. El índice 0 es el origen; si sus coordenadas
+     * son NaN se toma como origen ficticio a distancia cero de todos.
+     */
+    public static double[][] matrizDistancias(double[] latitudes, double[] longitudes) {
+        int n = latitudes.length;
+        double[][] distancias = new double[n][n];
+        boolean origenFicticio = Double.isNaN(latitudes[0]) || Double.isNaN(longitudes[0]);
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                double d = origenFicticio && i == 0
+                        ? 0 : haversine(latitudes[i], longitudes[i], latitudes[j], longitudes[j]);
+                distancias[i][j] = d;
+                distancias[j][i] = d;
+            }
+        }
+        return distancias;
+    }
+
+    static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * RADIO_TIERRA_METROS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Devuelve el orden de visita (empezando por 0) con el plazo en nanosegundos de
+     * System.nanoTime(). Un plazo ya vencido devuelve la solución del vecino más cercano.
+     */
+    public Recorrido optimizar(double[][] distancias, long plazoNanos) {
+        int[] ruta = vecinoMasCercano(distancias);
+        double inicial = longitud(ruta, distancias);
+        int mejoras = 0;
+        boolean mejoro = true;
+        while (mejoro && System.nanoTime() < plazoNanos) {
+            int dosOpt = dosOpt(ruta, distancias, plazoNanos);
+            int orOpt = orOpt(ruta, distancias, plazoNanos);
+            mejoras += dosOpt + orOpt;
+            mejoro = dosOpt + orOpt > 0;
+        }
+        return new Recorrido(ruta, inicial, longitud(ruta, distancias), mejoras);
+    }
+
+    public Recorrido vecinoMasCercanoSolo(double[][] distancias) {
+        int[] ruta = vecinoMasCercano(distancias);
+        double distancia = longitud(ruta, distancias);
+        return new Recorrido(ruta, distancia, distancia, 0);
+    }
+
+    static int[] vecinoMasCercano(double[][] distancias) {
+        int n = distancias.length;
+        int[] ruta = new int[n];
+        boolean[] visitado = new boolean[n];
+        visitado[0] = true;
+        for (int i = 1; i < n; i++) {
+            int actual = ruta[i - 1];
+            int siguiente = -1;
+            for (int j = 1; j < n; j++) {
+                if (!visitado[j] && (siguiente < 0 || distancias[actual][j] < distancias[actual][siguiente])) {
+                    siguiente = j;
+                }
+            }
+            ruta[i] = siguiente;
+            visitado[siguiente] = true;
+        }
+        return ruta;
+    }
+
+    static double longitud(int[] ruta, double[][] distancias) {
+        double total = 0;
+        for (int i = 1; i < ruta.length; i++) {
+            total += distancias[ruta[i - 1]][ruta[i]];
+        }
+        return total;
+    }
+
+    // Invierte ruta[i..j]; en recorrido abierto el último tramo puede no tener sucesor
+    private static int dosOpt(int[] ruta, double[][] d, long plazoNanos) {
+        int n = ruta.length;
+        int mejoras = 0;
+        for (int i = 1; i < n - 1; i++) {
+            if (System.nanoTime() >= plazoNanos) {
+                break;
+            }
+            int a = ruta[i - 1];
+            int b = ruta[i];
+            for (int j = i + 1; j < n; j++) {
+                int c = ruta[j];
+                double delta = d[a][c] - d[a][b];
+                if (j + 1 < n) {
+                    int e = ruta[j + 1];
+                    delta += d[b][e] - d[c][e];
+                }
+                if (delta < -EPSILON) {
+                    invertir(ruta, i, j);
+                    b = ruta[i];
+                    mejoras++;
+                }
+            }
+        }
+        return mejoras;
+    }
+
+    // Mueve segmentos de 1 a 3 paradas a la mejor posición, en su sentido o invertidos
+    private static int orOpt(int[] ruta, double[][] d, long plazoNanos) {
+        int n = ruta.length;
+        int mejoras = 0;
+        for (int largo = 1; largo <= SEGMENTO_MAXIMO_OR_OPT; largo++) {
+            for (int i = 1; i + largo <= n; i++) {
+                if (System.nanoTime() >= plazoNanos) {
+                    return mejoras;
+                }
+                int fin = i + largo - 1;
+                int previo = ruta[i - 1];
+                int primero = ruta[i];
+                int ultimo = ruta[fin];
+                int siguiente = fin + 1 < n ? ruta[fin + 1] : -1;
+                double retiro = d[previo][primero] + (siguiente >= 0 ? d[ultimo][siguiente] - d[previo][siguiente] : 0);
+
+                double mejorDelta = -EPSILON;
+                int mejorPosicion = -1;
+                boolean mejorInvertido = false;
+                // Insertar entre ruta[k] y ruta[k + 1], fuera del segmento
+                for (int k = 0; k < n; k++) {
+                    if (k >= i - 1 && k <= fin) {
+                        continue;
+                    }
+                    int x = ruta[k];
+                    int y = k + 1 < n ? ruta[k + 1] : -1;
+                    double base = y >= 0 ? d[x][y] : 0;
+                    double directo = d[x][primero] + (y >= 0 ? d[ultimo][y] : 0) - base;
+                    double invertido = d[x][ultimo] + (y >= 0 ? d[primero][y] : 0) - base;
+                    if (directo - retiro < mejorDelta) {
+                        mejorDelta = directo - retiro;
+                        mejorPosicion = k;
+                        mejorInvertido = false;
+                    }
+                    if (largo > 1 && invertido - retiro < mejorDelta) {
+                        mejorDelta = invertido - retiro;
+                        mejorPosicion = k;
+                        mejorInvertido = true;
+                    }
+                }
+                if (mejorPosicion >= 0) {
+                    mover(ruta, i, fin, mejorPosicion, mejorInvertido);
+                    mejoras++;
+                }
+            }
+        }
+        return mejoras;
+    }
+
+    private static void mover(int[] ruta, int i, int fin, int posicion, boolean invertido) {
+        int largo = fin - i + 1;
+        int[] segmento = new int[largo];
+        for (int s = 0; s < largo; s++) {
+            segmento[s] = ruta[invertido ? fin - s : i + s];
+        }
+        if (posicion < i) {
+            // Desplaza a la derecha ruta[posicion + 1 .. i - 1]
+            System.arraycopy(ruta, posicion + 1, ruta, posicion + 1 + largo, i - posicion - 1);
+            System.arraycopy(segmento, 0, ruta, posicion + 1, largo);
+        } else {
+            // Desplaza a la izquierda ruta[fin + 1 .. posicion]
+            System.arraycopy(ruta, fin + 1, ruta, i, posicion - fin);
+            System.arraycopy(segmento, 0, ruta, posicion - largo + 1, largo);
+        }
+    }
+
+    private static void invertir(int[] ruta, int i, int j) {
+        while (i < j) {
+            int tmp = ruta[i];
+            ruta[i++] = ruta[j];
+            ruta[j--] = tmp;
+        }
+    }
+}
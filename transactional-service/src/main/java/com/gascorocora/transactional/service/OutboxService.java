@@ -0,0 +1,99 @@
+package com.gascorocora.transactional.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gascorocora.transactional.model.EventoCambio;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Escribe los eventos de cambio en la tabla outbox dentro de la transacción del servicio que
+ * los produce. Los eventos se acumulan durante la transacción y se insertan justo antes del
+ * commit, después de un flush, para que la entidad serializada lleve la versión y las fechas
+ * definitivas. Si la transacción se revierte, no queda ningún evento.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxService {
+
+    public static final String SOLICITUD = "SOLICITUD";
+    public static final String CLIENTE = "CLIENTE";
+    public static final String FACTURACION = "FACTURACION";
+
+    public static final String CREADO = "CREADO";
+    public static final String ACTUALIZADO = "ACTUALIZADO";
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final RelayOutboxService relayOutboxService;
+
+    public void registrar(String entidad, String clave, String operacion, Supplier<?> datos) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("El outbox requiere una transacción activa");
+        }
+        pendientes().add(new Pendiente(entidad, clave, operacion, datos));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Pendiente> pendientes() {
+        List<Pendiente> pendientes = (List<Pendiente>) TransactionSynchronizationManager.getResource(this);
+        if (pendientes == null) {
+            List<Pendiente> nuevos = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, nuevos);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    escribir(nuevos);
+                }
+
+                @Override
+                public void afterCommit() {
+                    relayOutboxService.avisar();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(OutboxService.this);
+                }
+            });
+            pendientes = nuevos;
+        }
+        return pendientes;
+    }
+
+    private void escribir(List<Pendiente> pendientes) {
+        entityManager.flush();
+        LocalDateTime ahora = LocalDateTime.now();
+        for (Pendiente pendiente : pendientes) {
+            EventoCambio evento = new EventoCambio();
+            evento.setEntidad(pendiente.entidad());
+            evento.setClave(pendiente.clave());
+            evento.setOperacion(pendiente.operacion());
+            evento.setDatos(serializar(pendiente.datos().get()));
+            evento.setFechaCreacion(ahora);
+            entityManager.persist(evento);
+        }
+        log.debug("{} eventos escritos en el outbox", pendientes.size());
+    }
+
+    private String serializar(Object datos) {
+        try {
+            return objectMapper.writeValueAsString(datos);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento de cambio", e);
+        }
+    }
+
+    private record Pendiente(String entidad, String clave, String operacion, Supplier<?> datos) {
+    }
+}
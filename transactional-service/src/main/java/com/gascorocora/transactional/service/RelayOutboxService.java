@@ -0,0 +1,125 @@
+package com.gascorocora.transactional.service;
+
+import com.gascorocora.transactional.dto.EventoCambioDTO;
+import com.gascorocora.transactional.model.EventoCambio;
+import com.gascorocora.transactional.repository.EventoCambioRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publica los eventos del outbox en lotes. Un único hilo asigna las posiciones en orden de
+ * llegada al relay, de modo que las posiciones visibles son consecutivas y un consumidor que
+ * lee "después de N" nunca se salta un evento confirmado más tarde. Cada commit de un
+ * servicio de escritura despierta al relay; el intervalo solo cubre avisos perdidos.
+ */
+@Service
+@Slf4j
+public class RelayOutboxService {
+
+    private final EventoCambioRepository eventoCambioRepository;
+    private final FeedCambiosService feedCambiosService;
+    private final TransactionTemplate transactionTemplate;
+    private final long intervaloMs;
+    private final int tamanoLote;
+    private final long retencionDias;
+    private final Semaphore aviso = new Semaphore(0);
+    private volatile boolean activo;
+    private volatile long ultimaPosicion;
+
+    public RelayOutboxService(EventoCambioRepository eventoCambioRepository,
+                              FeedCambiosService feedCambiosService,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${transactional.outbox.relay-intervalo-ms:1000}") long intervaloMs,
+                              @Value("${transactional.outbox.tamano-lote:500}") int tamanoLote,
+                              @Value("${transactional.outbox.retencion-dias:7}") long retencionDias) {
+        this.eventoCambioRepository = eventoCambioRepository;
+        this.feedCambiosService = feedCambiosService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.intervaloMs = intervaloMs;
+        this.tamanoLote = tamanoLote;
+        this.retencionDias = retencionDias;
+    }
+
+    public void avisar() {
+        aviso.release();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        ultimaPosicion = eventoCambioRepository.findUltimaPosicion();
+        feedCambiosService.inicializar(ultimaPosicion);
+        activo = true;
+        Thread hilo = new Thread(this::ejecutar, "relay-outbox");
+        hilo.setDaemon(true);
+        hilo.start();
+        log.info("Relay del outbox iniciado en la posición {}", ultimaPosicion);
+    }
+
+    @PreDestroy
+    public void detener() {
+        activo = false;
+        aviso.release();
+    }
+
+    private void ejecutar() {
+        while (activo) {
+            try {
+                aviso.tryAcquire(intervaloMs, TimeUnit.MILLISECONDS);
+                aviso.drainPermits();
+                while (activo && publicarLote() == tamanoLote) {
+                    // Quedan pendientes: seguir sin esperar
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Error publicando eventos del outbox", e);
+            }
+        }
+    }
+
+    private int publicarLote() {
+        long posicionInicial = ultimaPosicion;
+        List<EventoCambioDTO> publicados = transactionTemplate.execute(status -> {
+            List<EventoCambio> pendientes = eventoCambioRepository.findPendientes(PageRequest.of(0, tamanoLote));
+            LocalDateTime ahora = LocalDateTime.now();
+            long posicion = posicionInicial;
+            for (EventoCambio evento : pendientes) {
+                evento.setPosicion(++posicion);
+                evento.setFechaPublicacion(ahora);
+            }
+            return pendientes.stream().map(EventoCambioDTO::de).toList();
+        });
+        if (!publicados.isEmpty()) {
+            // Solo tras el commit: si falla, las mismas filas se numeran en el siguiente intento
+            ultimaPosicion = publicados.get(publicados.size() - 1).posicion();
+            feedCambiosService.publicar(publicados);
+        }
+        return publicados.size();
+    }
+
+    @Scheduled(fixedDelayString = "${transactional.outbox.purga-ms:3600000}",
+               initialDelayString = "${transactional.outbox.purga-ms:3600000}")
+    public void purgarPublicados() {
+        // Se conserva siempre el último evento para que la numeración continúe tras un reinicio
+        long conservar = ultimaPosicion;
+        Integer eliminados = transactionTemplate.execute(status -> eventoCambioRepository
+                .eliminarPublicadosAntesDe(LocalDateTime.now().minusDays(retencionDias), conservar));
+        if (eliminados != null && eliminados > 0) {
+            log.info("Eventos de cambio purgados: {}", eliminados);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.gascorocora.transactional.service;
+
+import com.gascorocora.transactional.dto.ItinerarioTecnico;
+import com.gascorocora.transactional.dto.ParadaItinerario;
+import com.gascorocora.transactional.model.CitaTecnica;
+import com.gascorocora.transactional.model.Tecnico;
+import com.gascorocora.transactional.repository.CitaTecnicaRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Itinerarios diarios de los técnicos. Las citas de un día se agrupan por técnico y cada
+ * grupo se optimiza con {@link OptimizadorRutas} en un ForkJoinPool propio, todos con el mismo
+ * plazo de la corrida. Con el orden nuevo se recalculan los horarios desde el primer inicio
+ * del día (o desde ahora, si ya pasó) sumando el traslado estimado; aplicar el itinerario
+ * reprograma las citas.
+ */
+@Service
+@Slf4j
+public class RutasService {
+
+    private final CitaTecnicaRepository citaRepository;
+    private final AgendaService agendaService;
+    private final OptimizadorRutas optimizador = new OptimizadorRutas();
+    private final ForkJoinPool pool;
+    private final long tiempoMaximoMs;
+    private final double metrosPorMinuto;
+
+    public RutasService(CitaTecnicaRepository citaRepository,
+                        AgendaService agendaService,
+                        @Value("${transactional.rutas.paralelismo:0}") int paralelismo,
+                        @Value("${transactional.rutas.tiempo-maximo-ms:2000}") long tiempoMaximoMs,
+                        @Value("${transactional.rutas.velocidad-kmh:25}") double velocidadKmh) {
+        this.citaRepository = citaRepository;
+        this.agendaService = agendaService;
+        this.pool = new ForkJoinPool(paralelismo > 0 ? paralelismo : Runtime.getRuntime().availableProcessors());
+        this.tiempoMaximoMs = tiempoMaximoMs;
+        this.metrosPorMinuto = velocidadKmh * 1000 / 60;
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        pool.shutdown();
+    }
+
+    // Deshabilitado por defecto ("-"): reprograma automáticamente las citas del día siguiente
+    @Scheduled(cron = "${transactional.rutas.cron:-}")
+    public void planificarDiaSiguiente() {
+        optimizar(LocalDate.now().plusDays(1), true);
+    }
+
+    public List<ItinerarioTecnico> optimizar(LocalDate fecha, boolean aplicar) {
+        long inicio = System.currentTimeMillis();
+        Map<Long, List<CitaTecnica>> porTecnico = new LinkedHashMap<>();
+        citaRepository.findByInicioGreaterThanEqualAndInicioLessThanOrderByTecnicoIdAscInicioAsc(
+                        fecha.atStartOfDay(), fecha.plusDays(1).atStartOfDay())
+                .forEach(cita -> porTecnico.computeIfAbsent(cita.getTecnicoId(), id -> new ArrayList<>()).add(cita));
+
+        long plazo = System.nanoTime() + tiempoMaximoMs * 1_000_000;
+        List<Map.Entry<Long, List<CitaTecnica>>> grupos = new ArrayList<>(porTecnico.entrySet());
+        List<ItinerarioTecnico> itinerarios = pool.invoke(new TareaRutas(grupos, 0, grupos.size(), fecha, plazo));
+
+        if (aplicar) {
+            itinerarios.forEach(this::aplicar);
+        }
+        log.info("Itinerarios del {} optimizados: {} técnicos en {} ms",
+                fecha, itinerarios.size(), System.currentTimeMillis() - inicio);
+        return itinerarios;
+    }
+
+    /**
+     * Divide los técnicos en mitades hasta llegar a uno por tarea.
+     */
+    private class TareaRutas extends RecursiveTask<List<ItinerarioTecnico>> {
+
+        private final List<Map.Entry<Long, List<CitaTecnica>>> grupos;
+        private final int desde;
+        private final int hasta;
+        private final LocalDate fecha;
+        private final long plazo;
+
+        TareaRutas(List<Map.Entry<Long, List<CitaTecnica>>> grupos, int desde, int hasta, LocalDate fecha, long plazo) {
+            this.grupos = grupos;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.fecha = fecha;
+            this.plazo = plazo;
+        }
+
+        @Override
+        protected List<ItinerarioTecnico> compute() {
+            if (hasta - desde <= 1) {
+                List<ItinerarioTecnico> resultado = new ArrayList<>(1);
+                if (hasta > desde) {
+                    Map.Entry<Long, List<CitaTecnica>> grupo = grupos.get(desde);
+                    resultado.add(planificar(grupo.getKey(), grupo.getValue(), fecha, plazo));
+                }
+                return resultado;
+            }
+            int medio = (desde + hasta) >>> 1;
+            TareaRutas izquierda = new TareaRutas(grupos, desde, medio, fecha, plazo);
+            izquierda.fork();
+            List<ItinerarioTecnico> resultado = new ArrayList<>(new TareaRutas(grupos, medio, hasta, fecha, plazo).compute());
+            resultado.addAll(0, izquierda.join());
+            return resultado;
+        }
+    }
+
+    private ItinerarioTecnico planificar(Long tecnicoId, List<CitaTecnica> citas, LocalDate fecha, long plazo) {
+        long inicio = System.currentTimeMillis();
+        List<CitaTecnica> ubicadas = new ArrayList<>();
+        List<CitaTecnica> sinUbicacion = new ArrayList<>();
+        for (CitaTecnica cita : citas) {
+            (cita.getLatitud() != null && cita.getLongitud() != null ? ubicadas : sinUbicacion).add(cita);
+        }
+
+        // Nodo 0: base del técnico, o NaN para un origen ficticio
+        Tecnico tecnico = agendaService.obtenerTecnico(tecnicoId);
+        int n = ubicadas.size() + 1;
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        latitudes[0] = tecnico != null && tecnico.getLatitudBase() != null ? tecnico.getLatitudBase() : Double.NaN;
+        longitudes[0] = tecnico != null && tecnico.getLongitudBase() != null ? tecnico.getLongitudBase() : Double.NaN;
+        int[] actual = new int[n];
+        for (int i = 1; i < n; i++) {
+            latitudes[i] = ubicadas.get(i - 1).getLatitud();
+            longitudes[i] = ubicadas.get(i - 1).getLongitud();
+            actual[i] = i;
+        }
+        double[][] distancias = OptimizadorRutas.matrizDistancias(latitudes, longitudes);
+        double distanciaActual = OptimizadorRutas.longitud(actual, distancias);
+        OptimizadorRutas.Recorrido recorrido = optimizador.optimizar(distancias, plazo);
+
+        String mensaje = "Itinerario optimizado";
+        int[] orden = recorrido.orden();
+        double distanciaOptimizada = recorrido.distancia();
+        if (distanciaOptimizada >= distanciaActual) {
+            orden = actual;
+            distanciaOptimizada = distanciaActual;
+            mensaje = "El orden actual ya es el mejor encontrado";
+        }
+
+        // Las visitas sin ubicación van al final, en su orden original
+        List<CitaTecnica> secuencia = new ArrayList<>(citas.size());
+        for (int i = 1; i < n; i++) {
+            secuencia.add(ubicadas.get(orden[i] - 1));
+        }
+        secuencia.addAll(sinUbicacion);
+
+        List<ParadaItinerario> paradas = new ArrayList<>(secuencia.size());
+        // Un itinerario del día en curso no puede proponer horarios que ya pasaron
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDateTime momento = citas.get(0).getInicio().isAfter(ahora) ? citas.get(0).getInicio() : ahora;
+        int previo = -1;
+        for (int i = 0; i < secuencia.size(); i++) {
+            CitaTecnica cita = secuencia.get(i);
+            int nodo = i + 1 < n ? orden[i + 1] : -1;
+            if (previo > 0 && nodo > 0) {
+                momento = momento.plusMinutes((long) Math.ceil(distancias[previo][nodo] / metrosPorMinuto));
+            }
+            Duration duracion = Duration.between(cita.getInicio(), cita.getFin());
+            LocalDateTime inicioPropuesto = agendaService.siguienteInicio(momento, duracion);
+            if (!inicioPropuesto.toLocalDate().equals(fecha)) {
+                mensaje = "El itinerario optimizado no cabe en la jornada";
+            }
+            paradas.add(new ParadaItinerario(i + 1, cita.getId(), cita.getBusinessKey(), cita.getTipo(),
+                    cita.getLatitud(), cita.getLongitud(), cita.getInicio(),
+                    inicioPropuesto, inicioPropuesto.plus(duracion)));
+            momento = inicioPropuesto.plus(duracion);
+            previo = nodo;
+        }
+        return new ItinerarioTecnico(tecnicoId, fecha, paradas, distanciaActual, distanciaOptimizada,
+                recorrido.mejoras(), System.currentTimeMillis() - inicio, false, mensaje);
+    }
+
+    private void aplicar(ItinerarioTecnico itinerario) {
+        Map<Long, LocalDateTime> nuevosInicios = new HashMap<>();
+        boolean cabe = true;
+        for (ParadaItinerario parada : itinerario.getParadas()) {
+            nuevosInicios.put(parada.getCitaId(), parada.getInicioPropuesto());
+            cabe &= parada.getInicioPropuesto().toLocalDate().equals(itinerario.getFecha());
+        }
+        boolean sinCambios = itinerario.getParadas().stream()
+                .allMatch(parada -> parada.getInicioPropuesto().equals(parada.getInicioActual()));
+        if (!cabe || sinCambios) {
+            return;
+        }
+        try {
+            agendaService.reprogramar(itinerario.getTecnicoId(), nuevosInicios);
+            itinerario.setAplicado(true);
+        } catch (RuntimeException e) {
+            log.warn("No se pudo aplicar el itinerario del técnico {}: {}", itinerario.getTecnicoId(), e.getMessage());
+            itinerario.setMensaje("No aplicado: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.gascorocora.transactional.service;
+
+/**
+ * La businessKey no corresponde a ninguna solicitud. Los controladores la traducen a 404;
+ * cualquier otro error de la operación debe llegar al cliente como 5xx.
+ */
+public class SolicitudNoEncontradaException extends RuntimeException {
+
+    public SolicitudNoEncontradaException(String businessKey) {
+        super("Solicitud no encontrada: " + businessKey);
+    }
+}
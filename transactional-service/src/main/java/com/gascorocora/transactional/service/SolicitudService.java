@@ -1,112 +1,477 @@
 package com.gascorocora.transactional.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.gascorocora.transactional.config.CacheConfig;
+import com.gascorocora.transactional.dto.PaginaBusqueda;
+import com.gascorocora.transactional.dto.PaginaSolicitudes;
+import com.gascorocora.transactional.dto.ResultadoRegistro;
 import com.gascorocora.transactional.dto.SolicitudDTO;
+import com.gascorocora.transactional.dto.SolicitudPatchDTO;
+import com.gascorocora.transactional.dto.SolicitudResumen;
 import com.gascorocora.transactional.model.Solicitud;
+import com.gascorocora.transactional.model.SolicitudArchivada;
+import com.gascorocora.transactional.repository.SolicitudArchivadaRepository;
 import com.gascorocora.transactional.repository.SolicitudRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class SolicitudService {
 
+    public static final String OPERACION_CREACION = "SOLICITUD";
+
+    private static final int LIMITE_MAXIMO_PAGINA = 500;
+    private static final int FILAS_POR_FLUSH = 500;
+
     private final SolicitudRepository solicitudRepository;
+    private final SolicitudArchivadaRepository solicitudArchivadaRepository;
+    private final EstadisticasService estadisticasService;
+    private final IndiceBusquedaService indiceBusquedaService;
+    private final OutboxService outboxService;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final IdempotenciaService idempotenciaService;
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.SOLICITUDES, key = "#dto.businessKey", condition = "#dto.businessKey != null")
     public Solicitud crearSolicitud(SolicitudDTO dto) {
+        return crearSolicitud(dto, null);
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.SOLICITUDES, key = "#dto.businessKey", condition = "#dto.businessKey != null")
+    public Solicitud crearSolicitud(SolicitudDTO dto, String claveIdempotencia) {
         log.info("Creando solicitud con businessKey: {}", dto.getBusinessKey());
+        if (dto.getBusinessKey() != null && solicitudArchivadaRepository.existsByBusinessKey(dto.getBusinessKey())) {
+            throw new IllegalStateException("Solicitud archivada: " + dto.getBusinessKey());
+        }
         
         Solicitud solicitud = new Solicitud();
         solicitud.setBusinessKey(dto.getBusinessKey());
+        actualizarDatosSolicitud(solicitud, dto);
+        
+        Solicitud saved = solicitudRepository.save(solicitud);
+        estadisticasService.solicitudCreada(saved.getEstado(), saved.getEstrato());
+        indiceBusquedaService.indexarSolicitud(saved);
+        registrarCambio(saved, OutboxService.CREADO);
+        if (claveIdempotencia != null) {
+            idempotenciaService.registrar(OPERACION_CREACION, claveIdempotencia, saved);
+        }
+        return saved;
+    }
+
+    /**
+     * Upsert de un lote de solicitudes por businessKey. Las solicitudes sin businessKey
+     * siempre se insertan.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.SOLICITUDES, allEntries = true)
+    public List<ResultadoRegistro> registrarSolicitudes(List<SolicitudDTO> lote) {
+        List<String> businessKeys = lote.stream()
+                .map(SolicitudDTO::getBusinessKey)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<String, Solicitud> porBusinessKey = new HashMap<>(solicitudRepository.findByBusinessKeyIn(businessKeys).stream()
+                .collect(Collectors.toMap(Solicitud::getBusinessKey, Function.identity())));
+        // Las archivadas son de solo lectura: no se reinsertan en la tabla viva
+        Set<String> archivadas = businessKeys.isEmpty()
+                ? Set.of() : new HashSet<>(solicitudArchivadaRepository.findBusinessKeysIn(businessKeys));
+
+        List<ResultadoRegistro> resultados = new ArrayList<>(lote.size());
+        List<Solicitud> procesadas = new ArrayList<>(lote.size());
+        List<Solicitud> nuevas = new ArrayList<>();
+        for (int i = 0; i < lote.size(); i++) {
+            SolicitudDTO dto = lote.get(i);
+            String error = validarSolicitud(dto);
+            if (error == null && dto.getBusinessKey() != null && archivadas.contains(dto.getBusinessKey())) {
+                error = "La solicitud está archivada";
+            }
+            if (error != null) {
+                resultados.add(new ResultadoRegistro(i, dto.getBusinessKey(), "ERROR", null, error));
+                procesadas.add(null);
+                continue;
+            }
+
+            Solicitud solicitud = dto.getBusinessKey() != null ? porBusinessKey.get(dto.getBusinessKey()) : null;
+            String estado = "ACTUALIZADO";
+            if (solicitud == null) {
+                solicitud = new Solicitud();
+                solicitud.setBusinessKey(dto.getBusinessKey());
+                if (dto.getBusinessKey() != null) {
+                    porBusinessKey.put(dto.getBusinessKey(), solicitud);
+                }
+                nuevas.add(solicitud);
+                estado = "CREADO";
+            } else if (solicitud.getId() != null) {
+                // Las nuevas repetidas en el mismo lote se cuentan al insertarlas
+                estadisticasService.estratoSolicitudCambiado(solicitud.getEstrato(), dto.getEstrato());
+            }
+            actualizarDatosSolicitud(solicitud, dto);
+            resultados.add(new ResultadoRegistro(i, dto.getBusinessKey(), estado, null, null));
+            procesadas.add(solicitud);
+        }
+
+        // El ID se asigna desde la secuencia al persistir, antes del flush
+        solicitudRepository.saveAll(nuevas);
+        nuevas.forEach(nueva -> estadisticasService.solicitudCreada(nueva.getEstado(), nueva.getEstrato()));
+        for (int i = 0; i < resultados.size(); i++) {
+            if (procesadas.get(i) != null) {
+                resultados.get(i).setId(procesadas.get(i).getId());
+                indiceBusquedaService.indexarSolicitud(procesadas.get(i));
+                registrarCambio(procesadas.get(i), "CREADO".equals(resultados.get(i).getEstado())
+                        ? OutboxService.CREADO : OutboxService.ACTUALIZADO);
+            }
+        }
+        log.info("Lote de solicitudes procesado: {} registros, {} nuevas", lote.size(), nuevas.size());
+        return resultados;
+    }
+
+    private void registrarCambio(Solicitud solicitud, String operacion) {
+        String clave = solicitud.getBusinessKey() != null
+                ? solicitud.getBusinessKey() : String.valueOf(solicitud.getId());
+        outboxService.registrar(OutboxService.SOLICITUD, clave, operacion, () -> solicitud);
+    }
+
+    private String validarSolicitud(SolicitudDTO dto) {
+        if (dto.getNombreCliente() == null) return "El nombre del cliente es obligatorio";
+        if (dto.getCedulaCliente() == null) return "La cédula del cliente es obligatoria";
+        if (dto.getDireccion() == null) return "La dirección es obligatoria";
+        if (dto.getTelefono() == null) return "El teléfono es obligatorio";
+        if (dto.getEmail() == null) return "El email es obligatorio";
+        if (dto.getEstrato() == null) return "El estrato es obligatorio";
+        return null;
+    }
+
+    private void actualizarDatosSolicitud(Solicitud solicitud, SolicitudDTO dto) {
         solicitud.setNombreCliente(dto.getNombreCliente());
         solicitud.setCedulaCliente(dto.getCedulaCliente());
         solicitud.setDireccion(dto.getDireccion());
         solicitud.setTelefono(dto.getTelefono());
         solicitud.setEmail(dto.getEmail());
         solicitud.setEstrato(dto.getEstrato());
-        
-        return solicitudRepository.save(solicitud);
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.SOLICITUDES, key = "#businessKey")
     public Solicitud actualizarCobertura(String businessKey, Boolean cobertura) {
         log.info("Actualizando cobertura para: {}", businessKey);
         
         Solicitud solicitud = solicitudRepository.findByBusinessKey(businessKey)
-                .orElseThrow(() -> new RuntimeException("Solicitud no encontrada: " + businessKey));
+                .orElseThrow(() -> new SolicitudNoEncontradaException(businessKey));
         
         solicitud.setCobertura(cobertura);
-        return solicitudRepository.save(solicitud);
+        Solicitud actualizada = solicitudRepository.save(solicitud);
+        registrarCambio(actualizada, OutboxService.ACTUALIZADO);
+        return actualizada;
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.SOLICITUDES, key = "#businessKey")
     public Solicitud actualizarCotizacion(String businessKey, Double cotizacion) {
         log.info("Actualizando cotización para: {}", businessKey);
         
         Solicitud solicitud = solicitudRepository.findByBusinessKey(businessKey)
-                .orElseThrow(() -> new RuntimeException("Solicitud no encontrada: " + businessKey));
+                .orElseThrow(() -> new SolicitudNoEncontradaException(businessKey));
         
         solicitud.setCotizacion(cotizacion);
-        return solicitudRepository.save(solicitud);
+        Solicitud actualizada = solicitudRepository.save(solicitud);
+        registrarCambio(actualizada, OutboxService.ACTUALIZADO);
+        return actualizada;
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.SOLICITUDES, key = "#businessKey")
     public Solicitud actualizarInspeccion(String businessKey, String resultado) {
         log.info("Actualizando inspección para: {}", businessKey);
         
         Solicitud solicitud = solicitudRepository.findByBusinessKey(businessKey)
-                .orElseThrow(() -> new RuntimeException("Solicitud no encontrada: " + businessKey));
+                .orElseThrow(() -> new SolicitudNoEncontradaException(businessKey));
         
         solicitud.setEstadoInspeccion(resultado);
-        return solicitudRepository.save(solicitud);
+        Solicitud actualizada = solicitudRepository.save(solicitud);
+        registrarCambio(actualizada, OutboxService.ACTUALIZADO);
+        return actualizada;
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.SOLICITUDES, key = "#businessKey")
     public Solicitud actualizarInstalacion(String businessKey, String resultado) {
         log.info("Actualizando instalación para: {}", businessKey);
         
         Solicitud solicitud = solicitudRepository.findByBusinessKey(businessKey)
-                .orElseThrow(() -> new RuntimeException("Solicitud no encontrada: " + businessKey));
+                .orElseThrow(() -> new SolicitudNoEncontradaException(businessKey));
         
         solicitud.setEstadoInstalacion(resultado);
-        return solicitudRepository.save(solicitud);
+        Solicitud actualizada = solicitudRepository.save(solicitud);
+        registrarCambio(actualizada, OutboxService.ACTUALIZADO);
+        return actualizada;
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.SOLICITUDES, key = "#businessKey")
     public Solicitud registrarPago(String businessKey, Boolean pagado) {
         log.info("Registrando pago para: {}", businessKey);
         
         Solicitud solicitud = solicitudRepository.findByBusinessKey(businessKey)
-                .orElseThrow(() -> new RuntimeException("Solicitud no encontrada: " + businessKey));
+                .orElseThrow(() -> new SolicitudNoEncontradaException(businessKey));
         
         solicitud.setPagado(pagado);
-        return solicitudRepository.save(solicitud);
+        Solicitud actualizada = solicitudRepository.save(solicitud);
+        registrarCambio(actualizada, OutboxService.ACTUALIZADO);
+        return actualizada;
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.SOLICITUDES, key = "#businessKey")
     public Solicitud actualizarEstado(String businessKey, String estado) {
         log.info("Actualizando estado para: {} a {}", businessKey, estado);
         
         Solicitud solicitud = solicitudRepository.findByBusinessKey(businessKey)
-                .orElseThrow(() -> new RuntimeException("Solicitud no encontrada: " + businessKey));
+                .orElseThrow(() -> new SolicitudNoEncontradaException(businessKey));
         
+        estadisticasService.estadoSolicitudCambiado(solicitud.getEstado(), estado);
         solicitud.setEstado(estado);
-        return solicitudRepository.save(solicitud);
+        Solicitud actualizada = solicitudRepository.save(solicitud);
+        registrarCambio(actualizada, OutboxService.ACTUALIZADO);
+        return actualizada;
+    }
+
+    /**
+     * Aplica en un único UPDATE los campos presentes en el patch, sin cargar la entidad.
+     * Solo actualiza si la fila sigue en {@code version}; devuelve la nueva versión.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.SOLICITUDES, key = "#businessKey")
+    public long actualizarParcial(String businessKey, SolicitudPatchDTO patch, long version) {
+        log.info("Actualización parcial para: {}", businessKey);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Solicitud> update = cb.createCriteriaUpdate(Solicitud.class);
+        Root<Solicitud> root = update.from(Solicitud.class);
+
+        int campos = 0;
+        if (patch.getCobertura() != null) {
+            update.set(root.<Boolean>get("cobertura"), patch.getCobertura());
+            campos++;
+        }
+        if (patch.getCotizacion() != null) {
+            update.set(root.<Double>get("cotizacion"), patch.getCotizacion());
+            campos++;
+        }
+        if (patch.getEstadoInspeccion() != null) {
+            update.set(root.<String>get("estadoInspeccion"), patch.getEstadoInspeccion());
+            campos++;
+        }
+        if (patch.getEstadoInstalacion() != null) {
+            update.set(root.<String>get("estadoInstalacion"), patch.getEstadoInstalacion());
+            campos++;
+        }
+        if (patch.getPagado() != null) {
+            update.set(root.<Boolean>get("pagado"), patch.getPagado());
+            campos++;
+        }
+        String estadoAnterior = null;
+        if (patch.getEstado() != null) {
+            // Solo se lee el estado actual cuando cambia, para mantener los contadores
+            estadoAnterior = solicitudRepository.findEstadoByBusinessKey(businessKey).orElse(null);
+            update.set(root.<String>get("estado"), patch.getEstado());
+            campos++;
+        }
+        if (campos == 0) {
+            throw new IllegalArgumentException("El patch no contiene campos a actualizar");
+        }
+
+        // Los UPDATE por criteria no disparan @PreUpdate ni incrementan la versión
+        update.set(root.<LocalDateTime>get("fechaActualizacion"), LocalDateTime.now());
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+
+        update.where(cb.equal(root.get("businessKey"), businessKey), cb.equal(root.get("version"), version));
+
+        if (entityManager.createQuery(update).executeUpdate() == 0) {
+            if (solicitudRepository.existsByBusinessKey(businessKey)) {
+                throw new ObjectOptimisticLockingFailureException(Solicitud.class, businessKey);
+            }
+            throw new SolicitudNoEncontradaException(businessKey);
+        }
+        if (patch.getEstado() != null) {
+            estadisticasService.estadoSolicitudCambiado(estadoAnterior, patch.getEstado());
+        }
+        // La entidad no está en el contexto: se lee ya actualizada al escribir el outbox
+        outboxService.registrar(OutboxService.SOLICITUD, businessKey, OutboxService.ACTUALIZADO,
+                () -> solicitudRepository.findByBusinessKey(businessKey).orElse(null));
+        return version + 1;
     }
 
     @Transactional(readOnly = true)
+    public SolicitudResumen obtenerResumen(String businessKey) {
+        return solicitudRepository.findResumenByBusinessKey(businessKey)
+                .or(() -> solicitudArchivadaRepository.findByBusinessKey(businessKey)
+                        .map(archivada -> SolicitudResumen.de(archivada.aSolicitud())))
+                .orElseThrow(() -> new SolicitudNoEncontradaException(businessKey));
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.SOLICITUDES, key = "#businessKey")
     public Solicitud obtenerSolicitud(String businessKey) {
         return solicitudRepository.findByBusinessKey(businessKey)
-                .orElseThrow(() -> new RuntimeException("Solicitud no encontrada: " + businessKey));
+                .or(() -> solicitudArchivadaRepository.findByBusinessKey(businessKey)
+                        .map(SolicitudArchivada::aSolicitud))
+                .orElseThrow(() -> new SolicitudNoEncontradaException(businessKey));
     }
 
     @Transactional(readOnly = true)
-    public List<Solicitud> obtenerTodasSolicitudes() {
-        return solicitudRepository.findAll();
+    public PaginaSolicitudes obtenerPagina(String cursor, int limite) {
+        int tamano = Math.max(1, Math.min(limite, LIMITE_MAXIMO_PAGINA));
+        // Se pide un registro extra para saber si existe una página siguiente
+        PageRequest pagina = PageRequest.of(0, tamano + 1);
+
+        List<Solicitud> resultados;
+        if (cursor == null || cursor.isBlank()) {
+            resultados = solicitudRepository.findPrimeraPagina(pagina);
+        } else {
+            Cursor posicion = decodificarCursor(cursor);
+            resultados = solicitudRepository.findPaginaDespuesDe(posicion.fecha(), posicion.id(), pagina);
+        }
+
+        boolean hayMas = resultados.size() > tamano;
+        List<Solicitud> contenido = hayMas ? resultados.subList(0, tamano) : resultados;
+        Solicitud ultima = contenido.isEmpty() ? null : contenido.get(contenido.size() - 1);
+        String siguienteCursor = hayMas ? codificarCursor(ultima.getFechaCreacion(), ultima.getId()) : null;
+        return new PaginaSolicitudes(contenido, siguienteCursor, hayMas);
+    }
+
+    /**
+     * Búsqueda por cualquier combinación de cédula, estado y rango de fechas de creación.
+     * Lee solo las columnas de {@link SolicitudResumen} y pagina por keyset (fechaCreacion, id),
+     * apoyándose en los índices compuestos de la tabla.
+     */
+    @Transactional(readOnly = true)
+    public PaginaBusqueda buscar(String cedulaCliente, String estado,
+                                 LocalDateTime desde, LocalDateTime hasta,
+                                 String cursor, int limite) {
+        int tamano = Math.max(1, Math.min(limite, LIMITE_MAXIMO_PAGINA));
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<SolicitudResumen> query = cb.createQuery(SolicitudResumen.class);
+        Root<Solicitud> root = query.from(Solicitud.class);
+
+        List<Predicate> condiciones = new ArrayList<>();
+        if (cedulaCliente != null) {
+            condiciones.add(cb.equal(root.get("cedulaCliente"), cedulaCliente));
+        }
+        if (estado != null) {
+            condiciones.add(cb.equal(root.get("estado"), estado));
+        }
+        if (desde != null) {
+            condiciones.add(cb.greaterThanOrEqualTo(root.<LocalDateTime>get("fechaCreacion"), desde));
+        }
+        if (hasta != null) {
+            condiciones.add(cb.lessThan(root.<LocalDateTime>get("fechaCreacion"), hasta));
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            Cursor posicion = decodificarCursor(cursor);
+            condiciones.add(cb.or(
+                    cb.greaterThan(root.<LocalDateTime>get("fechaCreacion"), posicion.fecha()),
+                    cb.and(
+                            cb.equal(root.get("fechaCreacion"), posicion.fecha()),
+                            cb.greaterThan(root.<Long>get("id"), posicion.id()))));
+        }
+
+        query.select(cb.construct(SolicitudResumen.class,
+                        root.get("id"),
+                        root.get("businessKey"),
+                        root.get("nombreCliente"),
+                        root.get("cedulaCliente"),
+                        root.get("estado"),
+                        root.get("estrato"),
+                        root.get("fechaCreacion")))
+                .where(condiciones.toArray(new Predicate[0]))
+                .orderBy(cb.asc(root.get("fechaCreacion")), cb.asc(root.get("id")));
+
+        List<SolicitudResumen> resultados = entityManager.createQuery(query)
+                .setMaxResults(tamano + 1)
+                .getResultList();
+
+        boolean hayMas = resultados.size() > tamano;
+        List<SolicitudResumen> contenido = hayMas ? resultados.subList(0, tamano) : resultados;
+        SolicitudResumen ultima = contenido.isEmpty() ? null : contenido.get(contenido.size() - 1);
+        String siguienteCursor = hayMas ? codificarCursor(ultima.fechaCreacion(), ultima.id()) : null;
+        return new PaginaBusqueda(contenido, siguienteCursor, hayMas);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportarSolicitudesNdjson(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(Solicitud.class);
+        int filas = 0;
+
+        try (Stream<Solicitud> stream = solicitudRepository.streamTodas()) {
+            Iterator<Solicitud> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                Solicitud solicitud = iterator.next();
+                out.write(writer.writeValueAsBytes(solicitud));
+                out.write('\n');
+                // Liberar la entidad del contexto de persistencia para mantener memoria constante
+                entityManager.detach(solicitud);
+                if (++filas % FILAS_POR_FLUSH == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+        log.info("Exportación NDJSON de solicitudes finalizada: {} filas", filas);
+    }
+
+    private String codificarCursor(LocalDateTime fecha, Long id) {
+        String valor = fecha + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Cursor decodificarCursor(String cursor) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = valor.lastIndexOf('|');
+            return new Cursor(
+                    LocalDateTime.parse(valor.substring(0, separador)),
+                    Long.parseLong(valor.substring(separador + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor, e);
+        }
+    }
+
+    private record Cursor(LocalDateTime fecha, Long id) {
     }
 }
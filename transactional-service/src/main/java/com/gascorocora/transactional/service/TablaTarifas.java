@@ -0,0 +1,207 @@
+package com.gascorocora.transactional.service;
+
+import com.gascorocora.transactional.dto.TarifaEstrato;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tabla de cotización compilada a arreglos primitivos indexados por estrato (1 a 6); la
+ * posición 0 guarda la regla por defecto. Cotizar es un acceso a arreglo en lugar de evaluar
+ * la tabla de decisión regla por regla. Inmutable.
+ */
+final class TablaTarifas {
+
+    static final int ESTRATO_MAXIMO = 6;
+
+    private static final String DMN_NS = "https://www.omg.org/spec/DMN/20191111/MODEL/";
+
+    private final double[] descuento = new double[ESTRATO_MAXIMO + 1];
+    private final double[] conexion = new double[ESTRATO_MAXIMO + 1];
+    private final double[] conexionAPagar = new double[ESTRATO_MAXIMO + 1];
+
+    private TablaTarifas() {
+    }
+
+    /**
+     * Índice de un estrato recibido como texto, con la misma semántica que la tabla DMN de
+     * entrada string: solo "1" a "6" tienen regla propia.
+     */
+    static int indice(String estrato) {
+        if (estrato == null) {
+            return 0;
+        }
+        String valor = estrato.trim();
+        if (valor.length() != 1) {
+            return 0;
+        }
+        int digito = valor.charAt(0) - '0';
+        return digito >= 1 && digito <= ESTRATO_MAXIMO ? digito : 0;
+    }
+
+    static int indice(Integer estrato) {
+        return estrato != null && estrato >= 1 && estrato <= ESTRATO_MAXIMO ? estrato : 0;
+    }
+
+    double descuento(int indice) {
+        return descuento[indice];
+    }
+
+    double conexion(int indice) {
+        return conexion[indice];
+    }
+
+    double conexionAPagar(int indice) {
+        return conexionAPagar[indice];
+    }
+
+    List<TarifaEstrato> filas() {
+        List<TarifaEstrato> filas = new ArrayList<>(ESTRATO_MAXIMO + 1);
+        for (int i = 1; i <= ESTRATO_MAXIMO; i++) {
+            filas.add(new TarifaEstrato(i, descuento[i], conexion[i], conexionAPagar[i]));
+        }
+        filas.add(new TarifaEstrato(null, descuento[0], conexion[0], conexionAPagar[0]));
+        return filas;
+    }
+
+    /**
+     * Compila una tabla a partir de filas explícitas (escenarios "qué pasa si"). Los estratos
+     * sin fila toman los valores de la tabla base.
+     */
+    static TablaTarifas desdeFilas(List<TarifaEstrato> filas, TablaTarifas base) {
+        TablaTarifas tabla = new TablaTarifas();
+        for (int i = 0; i <= ESTRATO_MAXIMO; i++) {
+            tabla.descuento[i] = base.descuento[i];
+            tabla.conexion[i] = base.conexion[i];
+            tabla.conexionAPagar[i] = base.conexionAPagar[i];
+        }
+        for (TarifaEstrato fila : filas) {
+            if (fila.getEstrato() != null && (fila.getEstrato() < 1 || fila.getEstrato() > ESTRATO_MAXIMO)) {
+                throw new IllegalArgumentException("Estrato inválido: " + fila.getEstrato());
+            }
+            int i = indice(fila.getEstrato());
+            if (fila.getDescuento() != null) {
+                tabla.descuento[i] = fila.getDescuento();
+            }
+            if (fila.getConexion() != null) {
+                tabla.conexion[i] = fila.getConexion();
+            }
+            tabla.conexionAPagar[i] = fila.getConexionAPagar() != null
+                    ? fila.getConexionAPagar()
+                    : redondear(tabla.conexion[i] * (1 - tabla.descuento[i] / 100));
+        }
+        return tabla;
+    }
+
+    /**
+     * Compila la tabla de decisión con política FIRST: para cada estrato se busca la primera
+     * regla cuya entrada lo acepta. Soporta entradas vacías o "-" (cualquier valor) y listas de
+     * literales ("1","2"), que es lo que usa Decision_cotizacion.
+     */
+    static TablaTarifas desdeDmn(InputStream dmn, String decisionId) throws Exception {
+        DocumentBuilderFactory fabrica = DocumentBuilderFactory.newInstance();
+        fabrica.setNamespaceAware(true);
+        fabrica.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        fabrica.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        fabrica.setAttribute(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+        DocumentBuilder lector = fabrica.newDocumentBuilder();
+        Document documento = lector.parse(dmn);
+
+        Element tablaDecision = null;
+        NodeList decisiones = documento.getElementsByTagNameNS(DMN_NS, "decision");
+        for (int i = 0; i < decisiones.getLength(); i++) {
+            Element decision = (Element) decisiones.item(i);
+            if (decisionId.equals(decision.getAttribute("id"))) {
+                tablaDecision = (Element) decision.getElementsByTagNameNS(DMN_NS, "decisionTable").item(0);
+            }
+        }
+        if (tablaDecision == null) {
+            throw new IllegalArgumentException("Tabla de decisión no encontrada: " + decisionId);
+        }
+        String politica = tablaDecision.getAttribute("hitPolicy");
+        if (!politica.isEmpty() && !"FIRST".equals(politica) && !"UNIQUE".equals(politica)) {
+            throw new IllegalArgumentException("Política de la tabla no soportada: " + politica);
+        }
+
+        NodeList salidas = tablaDecision.getElementsByTagNameNS(DMN_NS, "output");
+        int columnaDescuento = -1;
+        int columnaConexion = -1;
+        int columnaAPagar = -1;
+        for (int i = 0; i < salidas.getLength(); i++) {
+            switch (((Element) salidas.item(i)).getAttribute("name")) {
+                case "descuento" -> columnaDescuento = i;
+                case "conexion" -> columnaConexion = i;
+                case "conexion_a_pagar" -> columnaAPagar = i;
+                default -> {
+                }
+            }
+        }
+        if (columnaDescuento < 0 || columnaConexion < 0 || columnaAPagar < 0) {
+            throw new IllegalArgumentException("La tabla debe tener salidas descuento, conexion y conexion_a_pagar");
+        }
+
+        TablaTarifas tabla = new TablaTarifas();
+        boolean[] resuelto = new boolean[ESTRATO_MAXIMO + 1];
+        NodeList reglas = tablaDecision.getElementsByTagNameNS(DMN_NS, "rule");
+        for (int r = 0; r < reglas.getLength(); r++) {
+            Element regla = (Element) reglas.item(r);
+            String entrada = texto((Element) regla.getElementsByTagNameNS(DMN_NS, "inputEntry").item(0));
+            NodeList valores = regla.getElementsByTagNameNS(DMN_NS, "outputEntry");
+            double d = Double.parseDouble(texto((Element) valores.item(columnaDescuento)));
+            double c = Double.parseDouble(texto((Element) valores.item(columnaConexion)));
+            double p = Double.parseDouble(texto((Element) valores.item(columnaAPagar)));
+            for (int i = 0; i <= ESTRATO_MAXIMO; i++) {
+                if (!resuelto[i] && acepta(entrada, i)) {
+                    tabla.descuento[i] = d;
+                    tabla.conexion[i] = c;
+                    tabla.conexionAPagar[i] = p;
+                    resuelto[i] = true;
+                }
+            }
+        }
+        for (int i = 0; i <= ESTRATO_MAXIMO; i++) {
+            if (!resuelto[i]) {
+                throw new IllegalArgumentException(i == 0
+                        ? "La tabla no tiene regla por defecto"
+                        : "La tabla no tiene regla para el estrato " + i);
+            }
+        }
+        return tabla;
+    }
+
+    // El índice 0 representa cualquier estrato sin regla propia: solo lo acepta la regla comodín
+    private static boolean acepta(String entrada, int indice) {
+        if (entrada.isEmpty() || "-".equals(entrada)) {
+            return true;
+        }
+        for (String literal : entrada.split(",")) {
+            String valor = literal.trim();
+            if (!(valor.length() >= 2 && valor.startsWith("\"") && valor.endsWith("\""))) {
+                throw new IllegalArgumentException("Entrada de regla no soportada: " + entrada);
+            }
+            if (indice > 0 && valor.substring(1, valor.length() - 1).equals(String.valueOf(indice))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String texto(Element elemento) {
+        if (elemento == null) {
+            return "";
+        }
+        NodeList textos = elemento.getElementsByTagNameNS(DMN_NS, "text");
+        return textos.getLength() == 0 ? "" : textos.item(0).getTextContent().trim();
+    }
+
+    private static double redondear(double valor) {
+        return Math.round(valor * 100) / 100.0;
+    }
+}
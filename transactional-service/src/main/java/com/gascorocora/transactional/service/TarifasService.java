@@ -0,0 +1,161 @@
+package com.gascorocora.transactional.service;
+
+import com.gascorocora.transactional.dto.DeltaEstrato;
+import com.gascorocora.transactional.dto.ResultadoSimulacionTarifas;
+import com.gascorocora.transactional.dto.TarifaEstrato;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cotización de conexión por estrato sobre la tabla Decision_cotizacion compilada a arreglos
+ * (ver {@link TablaTarifas}), y simulación de cambios de tarifa sobre toda la base de clientes
+ * activos: los clientes se recorren en rangos de id en paralelo y cada rango acumula el
+ * ingreso por conexión con la tabla actual y con la propuesta.
+ */
+@Service
+@Slf4j
+public class TarifasService {
+
+    private static final String SELECT_ESTRATOS =
+            "SELECT estrato FROM clientes WHERE COALESCE(activo, TRUE) AND id >= ? AND id < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int hilos;
+    private final int rangos;
+    private final TablaTarifas tabla;
+    private final AtomicInteger contadorHilos = new AtomicInteger();
+
+    public TarifasService(DataSource dataSource,
+                          @Value("${transactional.tarifas.dmn:classpath:tarifas/cotizacion-estrato.dmn}") Resource dmn,
+                          @Value("${transactional.tarifas.decision:Decision_cotizacion}") String decision,
+                          @Value("${transactional.tarifas.hilos:4}") int hilos,
+                          @Value("${transactional.tarifas.rangos:32}") int rangos,
+                          @Value("${transactional.tarifas.fetch-size:1000}") int fetchSize) throws Exception {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.hilos = hilos;
+        this.rangos = rangos;
+        try (InputStream contenido = dmn.getInputStream()) {
+            this.tabla = TablaTarifas.desdeDmn(contenido, decision);
+        }
+        log.info("Tabla de cotización {} compilada desde {}", decision, dmn.getDescription());
+    }
+
+    /**
+     * Cotización de un estrato, con la misma semántica que evaluar la tabla DMN.
+     */
+    public TarifaEstrato cotizar(String estrato) {
+        int i = TablaTarifas.indice(estrato);
+        return new TarifaEstrato(i == 0 ? null : i, tabla.descuento(i), tabla.conexion(i), tabla.conexionAPagar(i));
+    }
+
+    public List<TarifaEstrato> obtenerTarifas() {
+        return tabla.filas();
+    }
+
+    /**
+     * Reprecia todos los clientes activos con las filas propuestas (los estratos no indicados
+     * conservan la tarifa actual) y devuelve la diferencia de ingreso por conexión.
+     */
+    public ResultadoSimulacionTarifas simular(List<TarifaEstrato> propuesta) {
+        long inicio = System.currentTimeMillis();
+        TablaTarifas propuestaCompilada = TablaTarifas.desdeFilas(propuesta, tabla);
+
+        Map<String, Object> limites = jdbcTemplate.queryForMap(
+                "SELECT COALESCE(MIN(id), 0) AS minimo, COALESCE(MAX(id), -1) AS maximo FROM clientes");
+        long minimo = ((Number) limites.get("minimo")).longValue();
+        long maximo = ((Number) limites.get("maximo")).longValue();
+        long paso = Math.max(1, (maximo - minimo + rangos) / rangos);
+
+        List<long[]> intervalos = new ArrayList<>();
+        for (long desde = minimo; desde <= maximo; desde += paso) {
+            intervalos.add(new long[]{desde, Math.min(desde + paso, maximo + 1)});
+        }
+
+        Acumulado total = new Acumulado();
+        if (!intervalos.isEmpty()) {
+            ExecutorService pool = Executors.newFixedThreadPool(Math.min(hilos, intervalos.size()), tarea -> {
+                Thread hilo = new Thread(tarea, "simulacion-tarifas-" + contadorHilos.incrementAndGet());
+                hilo.setDaemon(true);
+                return hilo;
+            });
+            try {
+                List<Future<Acumulado>> futuros = intervalos.stream()
+                        .map(rango -> pool.submit(() -> acumular(rango[0], rango[1], propuestaCompilada)))
+                        .toList();
+                for (Future<Acumulado> futuro : futuros) {
+                    total.sumar(futuro.get());
+                }
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Error en la simulación de tarifas", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Simulación de tarifas interrumpida", e);
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        List<DeltaEstrato> estratos = new ArrayList<>(TablaTarifas.ESTRATO_MAXIMO + 1);
+        long clientes = 0;
+        double ingresoActual = 0;
+        double ingresoPropuesto = 0;
+        for (int i = 1; i <= TablaTarifas.ESTRATO_MAXIMO + 1; i++) {
+            // El índice 0 (regla por defecto) se reporta al final
+            int indice = i % (TablaTarifas.ESTRATO_MAXIMO + 1);
+            if (indice == 0 && total.clientes[0] == 0) {
+                continue;
+            }
+            estratos.add(new DeltaEstrato(indice == 0 ? null : indice, total.clientes[indice],
+                    total.actual[indice], total.propuesto[indice], total.propuesto[indice] - total.actual[indice]));
+            clientes += total.clientes[indice];
+            ingresoActual += total.actual[indice];
+            ingresoPropuesto += total.propuesto[indice];
+        }
+        double delta = ingresoPropuesto - ingresoActual;
+        long duracion = System.currentTimeMillis() - inicio;
+        log.info("Simulación de tarifas sobre {} clientes en {} ms: delta {}", clientes, duracion, delta);
+        return new ResultadoSimulacionTarifas(clientes, ingresoActual, ingresoPropuesto, delta,
+                ingresoActual == 0 ? 0 : delta * 100 / ingresoActual, estratos, duracion);
+    }
+
+    private Acumulado acumular(long desde, long hasta, TablaTarifas propuesta) {
+        Acumulado acumulado = new Acumulado();
+        jdbcTemplate.query(SELECT_ESTRATOS, rs -> {
+            int estrato = rs.getInt(1);
+            int i = rs.wasNull() ? 0 : TablaTarifas.indice(estrato);
+            acumulado.clientes[i]++;
+            acumulado.actual[i] += tabla.conexionAPagar(i);
+            acumulado.propuesto[i] += propuesta.conexionAPagar(i);
+        }, desde, hasta);
+        return acumulado;
+    }
+
+    private static final class Acumulado {
+        final long[] clientes = new long[TablaTarifas.ESTRATO_MAXIMO + 1];
+        final double[] actual = new double[TablaTarifas.ESTRATO_MAXIMO + 1];
+        final double[] propuesto = new double[TablaTarifas.ESTRATO_MAXIMO + 1];
+
+        void sumar(Acumulado otro) {
+            for (int i = 0; i < clientes.length; i++) {
+                clientes[i] += otro.clientes[i];
+                actual[i] += otro.actual[i];
+                propuesto[i] += otro.propuesto[i];
+            }
+        }
+    }
+}